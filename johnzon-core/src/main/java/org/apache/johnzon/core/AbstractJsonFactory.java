@@ -18,22 +18,40 @@
  */
 package org.apache.johnzon.core;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.Closeable;
 import java.io.Serializable;
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Logger;
 
-public abstract class AbstractJsonFactory implements Serializable{
+public abstract class AbstractJsonFactory implements Serializable, Closeable {
 
     protected final Logger logger = Logger.getLogger(this.getClass().getName());
     
     public static final String BUFFER_STRATEGY = "org.apache.johnzon.buffer-strategy";
     public static final BufferStrategy DEFAULT_BUFFER_STRATEGY = BufferStrategy.QUEUE;
+    // collect BufferProviderStats for the buffers of the factory
+    public static final String BUFFER_STATS = "org.apache.johnzon.buffer-strategy.stats";
+    // if set (implies BUFFER_STATS) the stats are registered in the platform MBeanServer with this name until the factory is closed
+    public static final String BUFFER_STATS_JMX_NAME = "org.apache.johnzon.buffer-strategy.stats.jmx-name";
+    // key of the stats (a Map<String, BufferProviderStats> by buffer name) in getConfigInUse()
+    public static final String BUFFER_STATS_IN_USE = "org.apache.johnzon.buffer-strategy.stats.in-use";
     
     protected final Map<String, Object> internalConfig = new HashMap<String, Object>();
+    private final Map<String, BufferProviderStats> bufferStats = new TreeMap<String, BufferProviderStats>();
+    private final Map<ObjectName, BufferProviderStats> registeredStats = new HashMap<ObjectName, BufferProviderStats>();
+    // stats currently registered in JMX by name, the last factory registering a name owns it
+    private static final ConcurrentMap<ObjectName, BufferProviderStats> JMX_STATS = new ConcurrentHashMap<ObjectName, BufferProviderStats>();
     
     protected AbstractJsonFactory(final Map<String, ?> config, Collection<String> supportedConfigKeys, Collection<String> defaultSupportedConfigKeys) {
         if(config != null && config.size() > 0) {
@@ -61,6 +79,71 @@ public abstract class AbstractJsonFactory implements Serializable{
         return DEFAULT_BUFFER_STRATEGY;
     }
 
+    protected BufferStrategy.BufferProvider<char[]> newCharProvider(final String name, final int size) {
+        final BufferStrategy.BufferProvider<char[]> provider = getBufferProvider().newCharProvider(size);
+        final Object jmxName = internalConfig.get(BUFFER_STATS_JMX_NAME);
+        if (jmxName == null && !getBool(BUFFER_STATS, false)) {
+            return provider;
+        }
+
+        final BufferStats stats = BufferStrategy.instrument(provider, size * 2L);
+        bufferStats.put(name, stats);
+        if (jmxName != null) {
+            registerStats(jmxName.toString(), name, stats);
+        }
+        return provider;
+    }
+
+    public Map<String, ?> getConfigInUse() {
+        if (bufferStats.isEmpty()) {
+            return Collections.unmodifiableMap(internalConfig);
+        }
+        final Map<String, Object> config = new HashMap<String, Object>(internalConfig);
+        config.put(BUFFER_STATS_IN_USE, Collections.unmodifiableMap(bufferStats));
+        return Collections.unmodifiableMap(config);
+    }
+
+    private void registerStats(final String jmxName, final String name, final BufferProviderStats stats) {
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName objectName = new ObjectName("org.apache.johnzon:type=BufferProviderStats"
+                    + ",name=" + ObjectName.quote(jmxName) + ",factory=" + getClass().getSimpleName() + ",buffer=" + name);
+            if (server.isRegistered(objectName)) { // a new factory with the same name replaces the previous one
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(stats, objectName);
+            JMX_STATS.put(objectName, stats);
+            registeredStats.put(objectName, stats);
+        } catch (final Exception e) { // stats are still available through getConfigInUse()
+            logger.warning("Can't register " + name + " buffer stats in JMX: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Unregisters the buffer stats of this factory from JMX, the factory stays usable.
+     */
+    @Override
+    public void close() {
+        if (registeredStats.isEmpty()) {
+            return;
+        }
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (final Map.Entry<ObjectName, BufferProviderStats> registered : registeredStats.entrySet()) {
+            final ObjectName objectName = registered.getKey();
+            if (!JMX_STATS.remove(objectName, registered.getValue())) { // replaced by a newer factory
+                continue;
+            }
+            try {
+                if (server.isRegistered(objectName)) {
+                    server.unregisterMBean(objectName);
+                }
+            } catch (final Exception e) {
+                logger.warning("Can't unregister " + objectName + ": " + e.getMessage());
+            }
+        }
+        registeredStats.clear();
+    }
+
     protected int getInt(final String key, final int defaultValue) {
         final Object intValue = internalConfig.get(key);
         if (intValue == null) {
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Backend of {@link BufferStrategy#BOUNDED}.
+ *
+ * There is one pool per size class (buffer type and size) shared by all the providers
+ * of this class. Each pool keeps at most {@link #MAX_RETAINED} buffers in slots striped by thread
+ * to limit contention, all pools together retain at most {@link #MAX_BYTES} bytes
+ * and buffers not reused for {@link #IDLE_TIMEOUT} ms are dropped.
+ * Trimming is done by the threads acquiring or releasing buffers, there is no background thread,
+ * so idle buffers are only dropped once one of the pools is used again.
+ */
+abstract class BoundedBufferPool<T> {
+    static final int MAX_RETAINED = Integer.getInteger(BufferStrategy.BOUNDED_MAX_RETAINED, 4 * Runtime.getRuntime().availableProcessors());
+    static final long MAX_BYTES = Long.getLong(BufferStrategy.BOUNDED_MAX_BYTES, 64 * 1024 * 1024); // 64M
+    static final long IDLE_TIMEOUT = Long.getLong(BufferStrategy.BOUNDED_IDLE_TIMEOUT, 60 * 1000);
+
+    private static final Collection<BoundedBufferPool<?>> POOLS = new CopyOnWriteArrayList<BoundedBufferPool<?>>();
+    private static final AtomicLong RETAINED_BYTES = new AtomicLong();
+    private static final AtomicLong LAST_TRIM = new AtomicLong(System.currentTimeMillis());
+
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLongArray releaseTimes;
+    private final AtomicReferenceArray<BufferStats> owners; // stats of the provider which released the buffer of the slot
+    private final int stripeMask;
+    private final int slotsPerStripe;
+
+    protected BoundedBufferPool(final int maxRetained) {
+        int stripes = 1;
+        while (stripes < Runtime.getRuntime().availableProcessors() && (stripes << 1) <= maxRetained) {
+            stripes <<= 1;
+        }
+        this.stripeMask = stripes - 1;
+        this.slotsPerStripe = Math.max(1, maxRetained / stripes);
+        this.slots = new AtomicReferenceArray<T>(Math.max(0, maxRetained)); // stripes only pick the first slot to look at
+        this.releaseTimes = new AtomicLongArray(slots.length());
+        this.owners = new AtomicReferenceArray<BufferStats>(slots.length());
+    }
+
+    /**
+     * @param pools the pools of a buffer type by size.
+     * @return the pool of this size, ifAbsent is registered if there is none yet.
+     */
+    static <T> BoundedBufferPool<T> get(final ConcurrentMap<Integer, BoundedBufferPool<T>> pools, final int size,
+                                        final BoundedBufferPool<T> ifAbsent) {
+        final BoundedBufferPool<T> existing = pools.putIfAbsent(size, ifAbsent);
+        if (existing != null) {
+            return existing;
+        }
+        POOLS.add(ifAbsent);
+        return ifAbsent;
+    }
+
+    /**
+     * @return the retained size in bytes of this buffer or -1 if it must not be pooled.
+     */
+    protected abstract long sizeOf(T buffer);
+
+    /**
+     * @return a pooled buffer or null if there is none.
+     */
+    T acquire() {
+        trimIfNeeded(System.currentTimeMillis());
+
+        final int length = slots.length();
+        final int start = stripeStart();
+        for (int i = 0; i < length; i++) { // own stripe first then steal from the others
+            final int idx = (start + i) % length;
+            final T buffer = slots.get(idx);
+            if (buffer != null && slots.compareAndSet(idx, buffer, null)) {
+                RETAINED_BYTES.addAndGet(-sizeOf(buffer));
+                return buffer;
+            }
+        }
+        return null;
+    }
+
+    boolean release(final T buffer) {
+        return release(buffer, null);
+    }
+
+    /**
+     * @param stats if not null it is notified if the buffer is evicted by the idle trim.
+     * @return true if the buffer is retained, false if it is dropped.
+     */
+    boolean release(final T buffer, final BufferStats stats) {
+        final long now = System.currentTimeMillis();
+        trimIfNeeded(now);
+
+        final long size = sizeOf(buffer);
+        if (size < 0 || !reserve(size)) {
+            return false;
+        }
+
+        final int length = slots.length();
+        final int start = stripeStart();
+        for (int i = 0; i < length; i++) {
+            final int idx = (start + i) % length;
+            if (slots.get(idx) == null) {
+                // set before the buffer is visible so a concurrent trim never sees the time of the previous buffer
+                releaseTimes.set(idx, now);
+                owners.set(idx, stats);
+                if (slots.compareAndSet(idx, null, buffer)) {
+                    return true;
+                }
+            }
+        }
+
+        RETAINED_BYTES.addAndGet(-size);
+        return false;
+    }
+
+    int retained() {
+        int count = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    static long retainedBytes() {
+        return RETAINED_BYTES.get();
+    }
+
+    void trim(final long now) {
+        for (int i = 0; i < slots.length(); i++) {
+            final T buffer = slots.get(i);
+            if (buffer == null || now - releaseTimes.get(i) < IDLE_TIMEOUT) {
+                continue;
+            }
+            final BufferStats owner = owners.get(i);
+            if (slots.compareAndSet(i, buffer, null)) {
+                RETAINED_BYTES.addAndGet(-sizeOf(buffer));
+                if (owner != null) {
+                    owner.onEvict();
+                }
+            }
+        }
+    }
+
+    private int stripeStart() {
+        return (int) (Thread.currentThread().getId() & stripeMask) * slotsPerStripe;
+    }
+
+    private static boolean reserve(final long size) {
+        while (true) {
+            final long current = RETAINED_BYTES.get();
+            if (current + size > MAX_BYTES) {
+                return false;
+            }
+            if (RETAINED_BYTES.compareAndSet(current, current + size)) {
+                return true;
+            }
+        }
+    }
+
+    private static void trimIfNeeded(final long now) {
+        final long last = LAST_TRIM.get();
+        if (now - last < IDLE_TIMEOUT / 2 || !LAST_TRIM.compareAndSet(last, now)) {
+            return;
+        }
+        for (final BoundedBufferPool<?> pool : POOLS) {
+            pool.trim(now);
+        }
+    }
+}
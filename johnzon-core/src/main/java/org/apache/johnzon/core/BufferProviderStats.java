@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import javax.management.MXBean;
+
+/**
+ * Usage of the buffers of a {@link BufferStrategy.BufferProvider}, helps to tune the buffer lengths and the strategy.
+ *
+ * Stats are only collected when {@link AbstractJsonFactory#BUFFER_STATS} is enabled, they are then available
+ * in the factory {@code getConfigInUse()} under {@link AbstractJsonFactory#BUFFER_STATS_IN_USE}
+ * and in JMX if {@link AbstractJsonFactory#BUFFER_STATS_JMX_NAME} is set.
+ */
+@MXBean
+@Experimental
+public interface BufferProviderStats {
+    /**
+     * @return number of buffers allocated because there was none to reuse.
+     */
+    long getCreated();
+
+    /**
+     * @return number of buffers served from the provider cache.
+     */
+    long getReused();
+
+    /**
+     * @return number of buffers given back to the provider.
+     */
+    long getReleased();
+
+    /**
+     * @return number of released buffers the provider didn't keep.
+     */
+    long getDropped();
+
+    /**
+     * @return number of kept buffers dropped later because they were not reused in time.
+     */
+    long getEvicted();
+
+    /**
+     * @return number of buffers currently kept by the provider.
+     */
+    long getRetained();
+
+    /**
+     * @return highest number of bytes kept by the provider at once.
+     */
+    long getPeakBytes();
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+
+// counters are updated independently so a snapshot can be slightly inconsistent under concurrency
+final class BufferStats implements BufferProviderStats, Serializable {
+    private final long bufferBytes;
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong released = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final AtomicLong peakRetained = new AtomicLong();
+
+    BufferStats(final long bufferBytes) {
+        this.bufferBytes = bufferBytes;
+    }
+
+    void onRequest() {
+        requested.incrementAndGet();
+    }
+
+    void onCreate() {
+        created.incrementAndGet();
+    }
+
+    void onRelease(final boolean retained) {
+        released.incrementAndGet();
+        if (!retained) {
+            dropped.incrementAndGet();
+            return;
+        }
+
+        final long current = getRetained();
+        long peak;
+        while ((peak = peakRetained.get()) < current && !peakRetained.compareAndSet(peak, current)) {
+            // retry
+        }
+    }
+
+    void onEvict() {
+        evicted.incrementAndGet();
+    }
+
+    @Override
+    public long getCreated() {
+        return created.get();
+    }
+
+    @Override
+    public long getReused() {
+        return Math.max(0, requested.get() - created.get());
+    }
+
+    @Override
+    public long getReleased() {
+        return released.get();
+    }
+
+    @Override
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    @Override
+    public long getEvicted() {
+        return evicted.get();
+    }
+
+    @Override
+    public long getRetained() {
+        return Math.max(0, released.get() - dropped.get() - evicted.get() - getReused());
+    }
+
+    @Override
+    public long getPeakBytes() {
+        return peakRetained.get() * bufferBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "BufferStats{created=" + getCreated() + ", reused=" + getReused() + ", released=" + getReleased()
+                + ", dropped=" + getDropped() + ", evicted=" + getEvicted() + ", retained=" + getRetained() + ", peakBytes=" + getPeakBytes() + '}';
+    }
+}
@@ -19,7 +19,10 @@
 package org.apache.johnzon.core;
 
 import java.io.Serializable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 public enum BufferStrategy {
     BY_INSTANCE {
@@ -33,6 +36,7 @@ public enum BufferStrategy {
             return new StringBuilderByInstanceProvider(size);
         }
     },
+    // keeps a buffer per thread, prefer STRIPED when using a lot of short lived (virtual) threads
     THREAD_LOCAL {
         @Override
         public BufferProvider<char[]> newCharProvider(final int size) {
@@ -65,8 +69,39 @@ public enum BufferStrategy {
         public BufferProvider<StringBuilder> newStringBuilderProvider(final int size) {
             return new StringBuilderSingletonProvider(size);
         }
+    },
+    // one buffer per cpu stripe, never bound to a thread so it works with (a lot of short) virtual threads
+    STRIPED {
+        @Override
+        public BufferProvider<char[]> newCharProvider(final int size) {
+            return new CharBufferStripedProvider(size);
+        }
+
+        @Override
+        public BufferProvider<StringBuilder> newStringBuilderProvider(final int size) {
+            return new StringBuilderStripedProvider(size);
+        }
+    },
+    // like QUEUE but with a bounded number of buffers and bytes retained, see BOUNDED_* system properties
+    BOUNDED {
+        @Override
+        public BufferProvider<char[]> newCharProvider(final int size) {
+            return new CharBufferBoundedProvider(size);
+        }
+
+        @Override
+        public BufferProvider<StringBuilder> newStringBuilderProvider(final int size) {
+            return new StringBuilderBoundedProvider(size);
+        }
     };
 
+    // max buffers retained per size class (type and size of the buffer), default is 4 * available processors
+    public static final String BOUNDED_MAX_RETAINED = "org.apache.johnzon.buffer-strategy.bounded.max-retained";
+    // max bytes retained by all size classes together, default is 64M
+    public static final String BOUNDED_MAX_BYTES = "org.apache.johnzon.buffer-strategy.bounded.max-bytes";
+    // buffers not reused for this duration (ms) are dropped, default is one minute
+    public static final String BOUNDED_IDLE_TIMEOUT = "org.apache.johnzon.buffer-strategy.bounded.idle-timeout";
+
     public abstract BufferProvider<char[]> newCharProvider(int size);
     public abstract BufferProvider<StringBuilder> newStringBuilderProvider(int size);
 
@@ -76,6 +111,43 @@ public enum BufferStrategy {
         void release(T value);
     }
 
+    // enables the stats of a provider created by this enum, bufferBytes is the (approximative) size of a buffer
+    static BufferStats instrument(final BufferProvider<?> provider, final long bufferBytes) {
+        final BufferStats stats = new BufferStats(bufferBytes);
+        AbstractProvider.class.cast(provider).setStats(stats);
+        return stats;
+    }
+
+    private static abstract class AbstractProvider<T> implements BufferProvider<T> {
+        private BufferStats stats; // null until instrument() is called
+
+        protected void setStats(final BufferStats stats) {
+            this.stats = stats;
+        }
+
+        protected BufferStats getStats() {
+            return stats;
+        }
+
+        protected void onRequest() {
+            if (stats != null) {
+                stats.onRequest();
+            }
+        }
+
+        protected void onCreate() {
+            if (stats != null) {
+                stats.onCreate();
+            }
+        }
+
+        protected void onRelease(final boolean retained) {
+            if (stats != null) {
+                stats.onRelease(retained);
+            }
+        }
+    }
+
     private static class CharBufferSingletonProvider extends SingletonProvider<char[]> {
         public CharBufferSingletonProvider(final int size) {
             super(size);
@@ -85,11 +157,6 @@ public enum BufferStrategy {
         protected char[] newInstance(int size) {
             return new char[size];
         }
-
-        @Override
-        public void release(final char[] value) {
-            // no-op
-        }
     }
 
     private static class StringBuilderSingletonProvider extends SingletonProvider<StringBuilder> {
@@ -105,10 +172,11 @@ public enum BufferStrategy {
         @Override
         public void release(final StringBuilder value) {
             value.setLength(0);
+            super.release(value);
         }
     }
 
-    private static abstract class SingletonProvider<T> implements BufferProvider<T> {
+    private static abstract class SingletonProvider<T> extends AbstractProvider<T> {
         protected final T buffer;
 
         public SingletonProvider(final int size) {
@@ -117,24 +185,32 @@ public enum BufferStrategy {
 
         protected abstract T newInstance(int size);
 
+        @Override
+        protected void setStats(final BufferStats stats) {
+            super.setStats(stats);
+            onCreate(); // the shared buffer
+        }
+
         @Override
         public T newBuffer() {
+            onRequest();
             return buffer;
         }
 
         @Override
         public void release(final T value) {
-            // no-op
+            onRelease(true);
         }
     }
 
-    private static abstract class ThreadLocalProvider<T> implements BufferProvider<T> {
+    private static abstract class ThreadLocalProvider<T> extends AbstractProvider<T> {
         private final ThreadLocalBufferCache<T> cache;
 
         public ThreadLocalProvider(final int size) {
             cache = new ThreadLocalBufferCache<T>(size) {
                 @Override
                 protected T newValue(int defaultSize) {
+                    onCreate();
                     return newInstance(size);
                 }
             };
@@ -144,12 +220,14 @@ public enum BufferStrategy {
 
         @Override
         public T newBuffer() {
+            onRequest();
             return cache.getCache();
         }
 
         @Override
         public void release(final T value) {
             cache.release(value);
+            onRelease(true);
         }
     }
 
@@ -181,7 +259,7 @@ public enum BufferStrategy {
         }
     }
 
-    private static class CharBufferByInstanceProvider implements BufferProvider<char[]> {
+    private static class CharBufferByInstanceProvider extends AbstractProvider<char[]> {
         private final int size;
 
         public CharBufferByInstanceProvider(final int size) {
@@ -190,16 +268,18 @@ public enum BufferStrategy {
 
         @Override
         public char[] newBuffer() {
+            onRequest();
+            onCreate();
             return new char[size];
         }
 
         @Override
         public void release(final char[] value) {
-            // no-op
+            onRelease(false);
         }
     }
 
-    private static class StringBuilderByInstanceProvider implements BufferProvider<StringBuilder> {
+    private static class StringBuilderByInstanceProvider extends AbstractProvider<StringBuilder> {
         private final int size;
 
         public StringBuilderByInstanceProvider(final int size) {
@@ -208,16 +288,18 @@ public enum BufferStrategy {
 
         @Override
         public StringBuilder newBuffer() {
+            onRequest();
+            onCreate();
             return new StringBuilder(size);
         }
 
         @Override
         public void release(final StringBuilder value) {
-            // no-op
+            onRelease(false);
         }
     }
 
-    private static abstract class QueueProvider<T> implements BufferProvider<T> {
+    private static abstract class QueueProvider<T> extends AbstractProvider<T> {
         private final int size;
         private final ConcurrentLinkedQueue<T> queue = new ConcurrentLinkedQueue<T>();
 
@@ -229,8 +311,10 @@ public enum BufferStrategy {
 
         @Override
         public T newBuffer() {
+            onRequest();
             final T buffer = queue.poll();
             if (buffer == null) {
+                onCreate();
                 return newInstance(size);
             }
             return buffer;
@@ -239,6 +323,7 @@ public enum BufferStrategy {
         @Override
         public void release(final T value) {
             queue.offer(value);
+            onRelease(true);
         }
     }
 
@@ -269,4 +354,165 @@ public enum BufferStrategy {
             super.release(value);
         }
     }
+
+    private static abstract class StripedProvider<T> extends AbstractProvider<T> {
+        private static final int STRIPES;
+        static {
+            int stripes = 1;
+            while (stripes < Runtime.getRuntime().availableProcessors()) {
+                stripes <<= 1;
+            }
+            STRIPES = stripes;
+        }
+
+        private final int size;
+        // a buffer is taken out of its stripe while used so a preempted (virtual) thread never shares it
+        private final AtomicReferenceArray<T> stripes = new AtomicReferenceArray<T>(STRIPES);
+
+        public StripedProvider(final int size) {
+            this.size = size;
+        }
+
+        protected abstract T newInstance(int size);
+
+        @Override
+        public T newBuffer() {
+            onRequest();
+            final T buffer = stripes.getAndSet(stripe(), null);
+            if (buffer == null) {
+                onCreate();
+                return newInstance(size);
+            }
+            return buffer;
+        }
+
+        @Override
+        public void release(final T value) {
+            // if the stripe is already filled the buffer is dropped
+            onRelease(stripes.compareAndSet(stripe(), null, value));
+        }
+
+        private static int stripe() {
+            final long id = Thread.currentThread().getId();
+            return (int) ((id ^ (id >>> 16)) * 0x9E3779B9L >>> 16) & (STRIPES - 1);
+        }
+    }
+
+    private static class CharBufferStripedProvider extends StripedProvider<char[]> {
+        public CharBufferStripedProvider(final int size) {
+            super(size);
+        }
+
+        @Override
+        protected char[] newInstance(final int size) {
+            return new char[size];
+        }
+    }
+
+    private static class StringBuilderStripedProvider extends StripedProvider<StringBuilder> {
+        public StringBuilderStripedProvider(final int size) {
+            super(size);
+        }
+
+        @Override
+        protected StringBuilder newInstance(final int size) {
+            return new StringBuilder(size);
+        }
+
+        @Override
+        public void release(final StringBuilder value) {
+            value.setLength(0);
+            super.release(value);
+        }
+    }
+
+    private static abstract class BoundedProvider<T> extends AbstractProvider<T> {
+        protected final int size;
+        private final transient BoundedBufferPool<T> pool;
+
+        protected BoundedProvider(final int size, final ConcurrentMap<Integer, BoundedBufferPool<T>> pools) {
+            this.size = size;
+            this.pool = BoundedBufferPool.get(pools, size, new BoundedBufferPool<T>(BoundedBufferPool.MAX_RETAINED) {
+                @Override
+                protected long sizeOf(final T buffer) {
+                    return BoundedProvider.this.sizeOf(buffer);
+                }
+            });
+        }
+
+        protected abstract T newInstance(int size);
+
+        protected abstract long sizeOf(T buffer);
+
+        @Override
+        public T newBuffer() {
+            onRequest();
+            final T buffer = pool.acquire();
+            if (buffer == null) {
+                onCreate();
+                return newInstance(size);
+            }
+            return buffer;
+        }
+
+        @Override
+        public void release(final T value) {
+            onRelease(pool.release(value, getStats()));
+        }
+    }
+
+    private static class CharBufferBoundedProvider extends BoundedProvider<char[]> {
+        private static final ConcurrentMap<Integer, BoundedBufferPool<char[]>> POOLS = new ConcurrentHashMap<Integer, BoundedBufferPool<char[]>>();
+
+        public CharBufferBoundedProvider(final int size) {
+            super(size, POOLS);
+        }
+
+        @Override
+        protected char[] newInstance(final int size) {
+            return new char[size];
+        }
+
+        @Override
+        protected long sizeOf(final char[] buffer) {
+            return buffer.length * 2L;
+        }
+
+        private Object readResolve() {
+            return new CharBufferBoundedProvider(size);
+        }
+    }
+
+    private static class StringBuilderBoundedProvider extends BoundedProvider<StringBuilder> {
+        private static final ConcurrentMap<Integer, BoundedBufferPool<StringBuilder>> POOLS =
+                new ConcurrentHashMap<Integer, BoundedBufferPool<StringBuilder>>();
+
+        public StringBuilderBoundedProvider(final int size) {
+            super(size, POOLS);
+        }
+
+        @Override
+        protected StringBuilder newInstance(final int size) {
+            return new StringBuilder(size);
+        }
+
+        @Override
+        protected long sizeOf(final StringBuilder buffer) {
+            final int capacity = buffer.capacity();
+            if (capacity > 2 * size) { // grew a lot while used, don't keep it in the small size class
+                return -1;
+            }
+            return capacity * 2L;
+        }
+
+        @Override
+        public void release(final StringBuilder value) {
+            value.setLength(0);
+            super.release(value);
+        }
+
+        private Object readResolve() {
+            return new StringBuilderBoundedProvider(size);
+        }
+    }
 }
@@ -16,14 +16,34 @@
  */
 package org.apache.johnzon.core;
 
+import java.util.concurrent.RecursiveAction;
+
 import javax.json.JsonArray;
 import javax.json.JsonObject;
 import javax.json.JsonValue;
 
 /**
  * Commonly used methods for diffs
+ *
+ * Objects and arrays with more than {@link #PARALLEL_THRESHOLD} members or elements
+ * are diffed by chunks in the common {@link java.util.concurrent.ForkJoinPool},
+ * the chunk results being then merged in order so the diff is the same as the sequential one.
+ * The parallel mode is disabled by default.
  */
 class DiffBase {
+    static final String PARALLEL_THRESHOLD = "org.apache.johnzon.diff.parallel-threshold";
+    static final int DEFAULT_PARALLEL_THRESHOLD = Integer.getInteger(PARALLEL_THRESHOLD, -1);
+
+    private final int parallelThreshold;
+
+    protected DiffBase() {
+        this(DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    protected DiffBase(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
     protected boolean isJsonObject(JsonValue jsonValue) {
         return jsonValue instanceof JsonObject;
     }
@@ -31,4 +51,44 @@ class DiffBase {
     protected boolean isJsonArray(JsonValue targetValue) {
         return targetValue instanceof JsonArray;
     }
+
+    protected boolean isParallel(int size) {
+        return parallelThreshold > 0 && size > parallelThreshold;
+    }
+
+    /**
+     * Calls the chunk for ranges of at most {@link #PARALLEL_THRESHOLD} items covering [0, size)
+     * from the fork join pool and returns once all of them are done.
+     */
+    protected void forkChunks(int size, Chunk chunk) {
+        new ChunkTask(chunk, 0, size, Math.max(1, parallelThreshold)).invoke();
+    }
+
+    interface Chunk {
+        void compute(int from, int to);
+    }
+
+    private static final class ChunkTask extends RecursiveAction {
+        private final Chunk chunk;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        private ChunkTask(Chunk chunk, int from, int to, int chunkSize) {
+            this.chunk = chunk;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                chunk.compute(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ChunkTask(chunk, from, middle, chunkSize), new ChunkTask(chunk, middle, to, chunkSize));
+        }
+    }
 }
@@ -63,4 +63,9 @@ public class HStack<T> implements Serializable {
         return size;
     }
 
+    void clear() {
+        topElement = null;
+        size = 0;
+    }
+
 }
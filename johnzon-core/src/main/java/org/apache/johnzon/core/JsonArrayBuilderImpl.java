@@ -33,12 +33,13 @@ import java.util.List;
 
 class JsonArrayBuilderImpl implements JsonArrayBuilder, Serializable {
     private List<JsonValue> tmpList;
+    private JsonArray initialData; // copied on the first modification only, immutable so build() can return it
 
     public JsonArrayBuilderImpl() {
     }
 
     public JsonArrayBuilderImpl(JsonArray initialData) {
-        tmpList = new ArrayList<>(initialData);
+        this.initialData = initialData;
     }
 
     public JsonArrayBuilderImpl(Collection<?> initialData) {
@@ -143,7 +144,10 @@ class JsonArrayBuilderImpl implements JsonArrayBuilder, Serializable {
             throw npe();
         }
         
-        if(tmpList==null){
+        if (initialData != null) {
+            tmpList = new ArrayList<>(initialData);
+            initialData = null;
+        } else if(tmpList==null){
             tmpList=new ArrayList<>();
         }
         
@@ -152,6 +156,11 @@ class JsonArrayBuilderImpl implements JsonArrayBuilder, Serializable {
 
     @Override
     public JsonArray build() {
+        if (initialData != null) {
+            final JsonArray unmodified = initialData;
+            initialData = null;
+            return unmodified;
+        }
         
         if(tmpList == null) {
             return new JsonArrayImpl(Collections.EMPTY_LIST);
@@ -31,6 +31,7 @@ import java.util.List;
 
 class JsonArrayImpl extends AbstractList<JsonValue> implements JsonArray, Serializable {
     private Integer hashCode = null;
+    private transient Integer structuralHash = null;
     private final List<JsonValue> unmodifieableBackingList;
     private int size = -1;
 
@@ -179,8 +180,23 @@ class JsonArrayImpl extends AbstractList<JsonValue> implements JsonArray, Serial
 
     @Override
     public boolean equals(final Object obj) {
-        return JsonArrayImpl.class.isInstance(obj)
-                && unmodifieableBackingList.equals(JsonArrayImpl.class.cast(obj).unmodifieableBackingList);
+        if (this == obj) {
+            return true;
+        }
+        if (!JsonArrayImpl.class.isInstance(obj)) {
+            return false;
+        }
+        final JsonArrayImpl other = JsonArrayImpl.class.cast(obj);
+        return structuralHash() == other.structuralHash() && unmodifieableBackingList.equals(other.unmodifieableBackingList);
+    }
+
+    int structuralHash() {
+        Integer h = structuralHash;
+        if (h == null) {
+            h = StructuralHash.ofArray(unmodifieableBackingList);
+            structuralHash = h;
+        }
+        return h;
     }
 
     @Override
@@ -24,56 +24,75 @@ import java.io.OutputStream;
 import java.io.Writer;
 import java.nio.charset.Charset;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentMap;
 
 import javax.json.stream.JsonGenerator;
 import javax.json.stream.JsonGeneratorFactory;
 
 public class JsonGeneratorFactoryImpl extends AbstractJsonFactory implements JsonGeneratorFactory {    
+    private static final Charset UTF8_CHARSET = Charset.forName("UTF-8");
+
     public static final String GENERATOR_BUFFER_LENGTH = "org.apache.johnzon.default-char-buffer-generator";
     public static final int DEFAULT_GENERATOR_BUFFER_LENGTH =  Integer.getInteger(GENERATOR_BUFFER_LENGTH, 64 * 1024); //64k
+    // max number of closed generators kept to be reused, 0 (default) disables generator pooling
+    public static final String GENERATOR_POOL_SIZE = "org.apache.johnzon.generator-pool-size";
+    public static final int DEFAULT_GENERATOR_POOL_SIZE = Integer.getInteger(GENERATOR_POOL_SIZE, 0);
+    // check fragments passed to RawJsonGenerator before writing them
+    public static final String GENERATOR_VALIDATE_RAW = "org.apache.johnzon.generator-validate-raw";
    
     static final Collection<String> SUPPORTED_CONFIG_KEYS = asList(
-        JsonGenerator.PRETTY_PRINTING, GENERATOR_BUFFER_LENGTH, BUFFER_STRATEGY
+        JsonGenerator.PRETTY_PRINTING, GENERATOR_BUFFER_LENGTH, BUFFER_STRATEGY, BUFFER_STATS, BUFFER_STATS_JMX_NAME, GENERATOR_POOL_SIZE, GENERATOR_VALIDATE_RAW
     );
     //key caching currently disabled
     private final ConcurrentMap<String, String> cache = null;//new ConcurrentHashMap<String, String>();
     private final boolean pretty;
+    private final boolean validateRaw;
     private final BufferStrategy.BufferProvider<char[]> bufferProvider;
+    private final BlockingQueue<JsonGeneratorImpl> pool;
 
     public JsonGeneratorFactoryImpl(final Map<String, ?> config) {
         
           super(config, SUPPORTED_CONFIG_KEYS, null); 
           
           this.pretty = getBool(JsonGenerator.PRETTY_PRINTING, false);
+          this.validateRaw = getBool(GENERATOR_VALIDATE_RAW, false);
           
           final int bufferSize = getInt(GENERATOR_BUFFER_LENGTH, DEFAULT_GENERATOR_BUFFER_LENGTH);
           if (bufferSize <= 0) {
               throw new IllegalArgumentException("buffer length must be greater than zero");
           }
 
-          this.bufferProvider = getBufferProvider().newCharProvider(bufferSize);
+          this.bufferProvider = newCharProvider("buffer", bufferSize);
+
+          final int poolSize = getInt(GENERATOR_POOL_SIZE, DEFAULT_GENERATOR_POOL_SIZE);
+          this.pool = poolSize > 0 ? new ArrayBlockingQueue<JsonGeneratorImpl>(poolSize) : null;
     }
 
     @Override
     public JsonGenerator createGenerator(final Writer writer) {
-        return new JsonGeneratorImpl(writer, bufferProvider, cache, pretty);
+        if (pool != null) {
+            final JsonGeneratorImpl pooled = pool.poll();
+            return (pooled != null ?
+                    pooled.reset(writer) : new JsonGeneratorImpl(writer, bufferProvider, cache, pretty, validateRaw, pool)).handle();
+        }
+        return new JsonGeneratorImpl(writer, bufferProvider, cache, pretty, validateRaw, pool);
     }
 
     @Override
     public JsonGenerator createGenerator(final OutputStream out) {
-        return new JsonGeneratorImpl(out, bufferProvider, cache, pretty);
+        return createGenerator(out, UTF8_CHARSET);
     }
 
     @Override
     public JsonGenerator createGenerator(final OutputStream out, final Charset charset) {
-        return new JsonGeneratorImpl(out,charset, bufferProvider, cache, pretty);
-    }
-
-    @Override
-    public Map<String, ?> getConfigInUse() {
-        return Collections.unmodifiableMap(internalConfig);
+        if (pool != null) {
+            final JsonGeneratorImpl pooled = pool.poll();
+            return (pooled != null ?
+                    pooled.reset(out, charset) : new JsonGeneratorImpl(out, charset, bufferProvider, cache, pretty, validateRaw, pool)).handle();
+        }
+        return new JsonGeneratorImpl(out, charset, bufferProvider, cache, pretty, validateRaw, pool);
     }
 }
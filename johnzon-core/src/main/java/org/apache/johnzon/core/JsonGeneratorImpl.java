@@ -28,7 +28,6 @@ import javax.json.stream.JsonGenerationException;
 import javax.json.stream.JsonGenerator;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.Serializable;
 import java.io.Writer;
 import java.math.BigDecimal;
@@ -36,16 +35,21 @@ import java.math.BigInteger;
 import java.nio.charset.Charset;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentMap;
 
-class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
+class JsonGeneratorImpl implements RawJsonGenerator, JsonChars, Serializable {
     private static final Charset UTF8_CHARSET = Charset.forName("UTF-8");
 
-    private final transient Writer writer;
+    private transient Writer writer;
+    private transient ResettableOutputStreamWriter outputStreamWriter;
+    private final transient Queue<JsonGeneratorImpl> pool;
+    private transient PooledJsonGenerator handle; // reused with this generator when it is pooled
     private final BufferStrategy.BufferProvider<char[]> bufferProvider;
-    private final char[] buffer;
+    private char[] buffer;
     private int bufferPos = 0;
     private final boolean prettyPrint;
+    private final boolean validateRaw;
     private static final String INDENT = "  ";
     //private final ConcurrentMap<String, String> cache;
     private int depth = 0;
@@ -67,22 +71,84 @@ class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
 
     JsonGeneratorImpl(final Writer writer, final BufferStrategy.BufferProvider<char[]> bufferProvider,
             final ConcurrentMap<String, String> cache, final boolean prettyPrint) {
+        this(writer, bufferProvider, cache, prettyPrint, false, null);
+    }
+
+    JsonGeneratorImpl(final OutputStream out, final BufferStrategy.BufferProvider<char[]> bufferProvider,
+            final ConcurrentMap<String, String> cache, final boolean prettyPrint) {
+        this(out, UTF8_CHARSET, bufferProvider, cache, prettyPrint);
+    }
+
+    JsonGeneratorImpl(final OutputStream out, final Charset encoding, final BufferStrategy.BufferProvider<char[]> bufferProvider,
+            final ConcurrentMap<String, String> cache, final boolean prettyPrint) {
+        this(out, encoding, bufferProvider, cache, prettyPrint, false, null);
+    }
+
+    /**
+     * @param validateRaw if true raw fragments are checked before being written.
+     * @param pool if not null the generator offers itself to this pool once closed cleanly,
+     *             it must then be {@link #reset(Writer) reset} before being used again
+     *             and only be reachable by callers through a {@link PooledJsonGenerator}.
+     */
+    JsonGeneratorImpl(final Writer writer, final BufferStrategy.BufferProvider<char[]> bufferProvider,
+            final ConcurrentMap<String, String> cache, final boolean prettyPrint,
+            final boolean validateRaw, final Queue<JsonGeneratorImpl> pool) {
         this.writer = writer;
         //this.cache = cache;
         this.buffer = bufferProvider.newBuffer();
         this.bufferProvider = bufferProvider;
         this.prettyPrint = prettyPrint;
+        this.validateRaw = validateRaw;
+        this.pool = pool;
         state.push(GeneratorState.INITIAL);
     }
 
-    JsonGeneratorImpl(final OutputStream out, final BufferStrategy.BufferProvider<char[]> bufferProvider,
-            final ConcurrentMap<String, String> cache, final boolean prettyPrint) {
-        this(new OutputStreamWriter(out, UTF8_CHARSET), bufferProvider, cache, prettyPrint);
+    JsonGeneratorImpl(final OutputStream out, final Charset encoding, final BufferStrategy.BufferProvider<char[]> bufferProvider,
+            final ConcurrentMap<String, String> cache, final boolean prettyPrint,
+            final boolean validateRaw, final Queue<JsonGeneratorImpl> pool) {
+        this(new ResettableOutputStreamWriter(out, encoding), bufferProvider, cache, prettyPrint, validateRaw, pool);
+        this.outputStreamWriter = ResettableOutputStreamWriter.class.cast(writer);
     }
 
-    JsonGeneratorImpl(final OutputStream out, final Charset encoding, final BufferStrategy.BufferProvider<char[]> bufferProvider,
-            final ConcurrentMap<String, String> cache, final boolean prettyPrint) {
-        this(new OutputStreamWriter(out, encoding), bufferProvider, cache, prettyPrint);
+    /**
+     * Makes this generator ready to write a new document to the given writer.
+     * Any pending state of the previous document is dropped.
+     */
+    JsonGeneratorImpl reset(final Writer newWriter) {
+        if (buffer == null) {
+            buffer = bufferProvider.newBuffer();
+        }
+        writer = newWriter;
+        bufferPos = 0;
+        depth = 0;
+        state.clear();
+        state.push(GeneratorState.INITIAL);
+        return this;
+    }
+
+    /**
+     * @return the handle callers use when this generator is pooled, it is reattached to this generator each time.
+     */
+    PooledJsonGenerator handle() {
+        if (handle == null) {
+            handle = new PooledJsonGenerator(this);
+        } else {
+            handle.generator = this;
+        }
+        return handle;
+    }
+
+    JsonGeneratorImpl reset(final OutputStream out) {
+        return reset(out, UTF8_CHARSET);
+    }
+
+    JsonGeneratorImpl reset(final OutputStream out, final Charset encoding) {
+        if (outputStreamWriter == null || !outputStreamWriter.getCharset().equals(encoding)) {
+            outputStreamWriter = new ResettableOutputStreamWriter(out, encoding);
+        } else {
+            outputStreamWriter.reset(out);
+        }
+        return reset(outputStreamWriter);
     }
 
     private void writeEol() {
@@ -430,6 +496,30 @@ class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
         return this;
     }
 
+    @Override
+    public RawJsonGenerator writeRaw(final String name, final CharSequence json) {
+        checkObject(false);
+        writeKey(name);
+        writeRawValue0(json);
+        return this;
+    }
+
+    @Override
+    public RawJsonGenerator writeRaw(final String name, final byte[] json) {
+        return writeRaw(name, new String(json, UTF8_CHARSET));
+    }
+
+    @Override
+    public RawJsonGenerator writeRawValue(final CharSequence json) {
+        writeRawValue0(json);
+        return this;
+    }
+
+    @Override
+    public RawJsonGenerator writeRawValue(final byte[] json) {
+        return writeRawValue(new String(json, UTF8_CHARSET));
+    }
+
     @Override
     public JsonGenerator writeKey(final String key) {
         final GeneratorState currentState = currentState();
@@ -452,18 +542,30 @@ class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
 
     @Override
     public void close() {
+        if (writer == null) { // already closed
+            return;
+        }
+        final boolean complete = currentState() == GeneratorState.END;
+        boolean written = false;
         try {
-            if (currentState() != GeneratorState.END) {
+            if (!complete) {
                 throw new JsonGenerationException("Invalid json");
             }
         } finally {
-            flushBuffer();
             try {
+                flushBuffer();
                 writer.close();
+                written = true;
             } catch (final IOException e) {
                 throw new JsonException(e.getMessage(), e);
+            } finally {
+                writer = null;
+                // only a generator which wrote a whole document without error goes back to the pool
+                if (!complete || !written || pool == null || !pool.offer(this)) {
+                    bufferProvider.release(buffer);
+                    buffer = null;
+                }
             }
-            bufferProvider.release(buffer);
         }
     }
 
@@ -608,7 +710,8 @@ class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
 
     private void checkArray(final boolean allowInitial) {
         final GeneratorState currentState = currentState();
-        if (currentState != GeneratorState.IN_ARRAY && currentState != GeneratorState.START_ARRAY) {
+        if (currentState != GeneratorState.IN_ARRAY && currentState != GeneratorState.START_ARRAY
+                && currentState != GeneratorState.AFTER_KEY) { // JSON-P 1.1 writeKey() then write(param)
             if (!allowInitial || currentState != GeneratorState.INITIAL) {
                 throw new JsonGenerationException("write(param) is only valid in arrays");
             }
@@ -682,6 +785,103 @@ class JsonGeneratorImpl implements JsonGenerator, JsonChars, Serializable {
         alignState();
     }
 
+    private void writeRawValue0(final CharSequence json) {
+        if (json == null) {
+            throw new NullPointerException("raw json must not be null");
+        }
+        if (validateRaw) {
+            validateRaw(json);
+        }
+        prepareValue();
+        final GeneratorState peek = state.peek();
+        if (peek == GeneratorState.START_ARRAY || peek == GeneratorState.IN_ARRAY) {
+            writeIndent();
+        }
+        if (String.class.isInstance(json)) {
+            justWrite(String.class.cast(json));
+        } else {
+            final int length = json.length();
+            for (int i = 0; i < length; i++) {
+                justWrite(json.charAt(i));
+            }
+        }
+        alignState();
+    }
+
+    // cheap structural check: strings are closed, brackets are balanced and there is a single value,
+    // literals and numbers are not parsed
+    private static void validateRaw(final CharSequence json) {
+        final int length = json.length();
+        char[] closers = new char[8];
+        int depth = 0;
+        boolean inString = false;
+        boolean started = false;
+        boolean ended = false;
+        for (int i = 0; i < length; i++) {
+            final char c = json.charAt(i);
+            if (inString) {
+                if (c == ESCAPE_CHAR) {
+                    i++;
+                } else if (c == QUOTE_CHAR) {
+                    inString = false;
+                    ended = depth == 0;
+                } else if (c < SPACE) {
+                    throw invalidRaw(json, "unescaped control character in a string");
+                }
+                continue;
+            }
+            if (c == SPACE || c == EOL || c == TAB || c == CR || (depth > 0 && (c == COMMA_CHAR || c == KEY_SEPARATOR))) {
+                continue;
+            }
+            if (ended) {
+                throw invalidRaw(json, "more than one value");
+            }
+            started = true;
+            switch (c) {
+                case QUOTE_CHAR:
+                    inString = true;
+                    break;
+                case START_OBJECT_CHAR:
+                case START_ARRAY_CHAR:
+                    if (depth == closers.length) {
+                        final char[] newClosers = new char[depth * 2];
+                        System.arraycopy(closers, 0, newClosers, 0, depth);
+                        closers = newClosers;
+                    }
+                    closers[depth++] = c == START_OBJECT_CHAR ? END_OBJECT_CHAR : END_ARRAY_CHAR;
+                    break;
+                case END_OBJECT_CHAR:
+                case END_ARRAY_CHAR:
+                    if (depth == 0 || closers[--depth] != c) {
+                        throw invalidRaw(json, "unbalanced '" + c + "'");
+                    }
+                    ended = depth == 0;
+                    break;
+                default:
+                    if (!isRawLiteralChar(c)) {
+                        throw invalidRaw(json, "unexpected '" + c + "'");
+                    }
+                    if (depth == 0) { // a top level literal/number ends with its last char
+                        while (i + 1 < length && isRawLiteralChar(json.charAt(i + 1))) {
+                            i++;
+                        }
+                        ended = true;
+                    }
+            }
+        }
+        if (inString || depth != 0 || !started) {
+            throw invalidRaw(json, "incomplete value");
+        }
+    }
+
+    private static boolean isRawLiteralChar(final char c) {
+        return Character.isLetterOrDigit(c) || c == MINUS || c == PLUS || c == DOT;
+    }
+
+    private static JsonGenerationException invalidRaw(final CharSequence json, final String reason) {
+        return new JsonGenerationException("Invalid raw json (" + reason + "): " + json);
+    }
+
     private void writeValue(final String value) {
         prepareValue();
         final GeneratorState peek = state.peek();
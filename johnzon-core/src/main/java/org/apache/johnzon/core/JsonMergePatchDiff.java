@@ -16,6 +16,8 @@
  */
 package org.apache.johnzon.core;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import javax.json.JsonMergePatch;
@@ -25,12 +27,19 @@ import javax.json.JsonValue;
 
 /**
  * Creates a JsonMergePatch as diff between two JsonValues
+ *
+ * Members of large objects can be diffed in parallel, see {@link DiffBase#PARALLEL_THRESHOLD}.
  */
 class JsonMergePatchDiff extends DiffBase {
     private final JsonValue source;
     private final JsonValue target;
 
     public JsonMergePatchDiff(JsonValue source, JsonValue target) {
+        this(source, target, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    JsonMergePatchDiff(JsonValue source, JsonValue target, int parallelThreshold) {
+        super(parallelThreshold);
         this.source = source;
         this.target = target;
     }
@@ -40,22 +49,38 @@ class JsonMergePatchDiff extends DiffBase {
     }
 
     private JsonValue diff(JsonValue source, JsonValue target) {
+        if (StructuralHash.same(source, target)) {
+            // if the two values are identical, then return an empty patch
+            return JsonValue.EMPTY_JSON_OBJECT;
+        }
+
         JsonObjectBuilder builder = new JsonObjectBuilderImpl();
 
         if (isJsonObject(source) && isJsonObject(target)) {
             JsonObject srcObj = source.asJsonObject();
-            JsonObject targetObj = target.asJsonObject();
-            for (Map.Entry<String, JsonValue> sourceEntry : srcObj.entrySet()) {
-                String attributeName = sourceEntry.getKey();
-                if (targetObj.containsKey(attributeName)) {
-                    // compare the attribute values
-                    JsonValue attribDiff = diff(sourceEntry.getValue(), targetObj.get(attributeName));
-                    if (!JsonValue.EMPTY_JSON_OBJECT.equals(attribDiff)) {
-                        builder.add(attributeName, attribDiff);
+            final JsonObject targetObj = target.asJsonObject();
+            if (isParallel(srcObj.size())) {
+                final List<Map.Entry<String, JsonValue>> sourceEntries = new ArrayList<>(srcObj.entrySet());
+                final JsonValue[] attribDiffs = new JsonValue[sourceEntries.size()];
+                forkChunks(attribDiffs.length, new Chunk() {
+                    @Override
+                    public void compute(int from, int to) {
+                        for (int i = from; i < to; i++) {
+                            attribDiffs[i] = diffMember(sourceEntries.get(i), targetObj);
+                        }
+                    }
+                });
+                for (int i = 0; i < attribDiffs.length; i++) {
+                    if (attribDiffs[i] != null) {
+                        builder.add(sourceEntries.get(i).getKey(), attribDiffs[i]);
+                    }
+                }
+            } else {
+                for (Map.Entry<String, JsonValue> sourceEntry : srcObj.entrySet()) {
+                    JsonValue attribDiff = diffMember(sourceEntry, targetObj);
+                    if (attribDiff != null) {
+                        builder.add(sourceEntry.getKey(), attribDiff);
                     }
-                } else {
-                    // attribute got removed
-                    builder.add(attributeName, JsonValue.NULL);
                 }
             }
 
@@ -68,9 +93,6 @@ class JsonMergePatchDiff extends DiffBase {
             }
 
             return builder.build();
-        } else if (source.equals(target)) {
-            // if the two objects are identical, then return an empty patch
-            return JsonValue.EMPTY_JSON_OBJECT;
         } else {
             // as defined in the RFC anything else than comparing JsonObjects will result
             // in completely replacing the source with the target
@@ -78,4 +100,16 @@ class JsonMergePatchDiff extends DiffBase {
             return target;
         }
     }
+
+    // null if the member didn't change
+    private JsonValue diffMember(Map.Entry<String, JsonValue> sourceEntry, JsonObject targetObj) {
+        String attributeName = sourceEntry.getKey();
+        if (targetObj.containsKey(attributeName)) {
+            // compare the attribute values
+            JsonValue attribDiff = diff(sourceEntry.getValue(), targetObj.get(attributeName));
+            return JsonValue.EMPTY_JSON_OBJECT.equals(attribDiff) ? null : attribDiff;
+        }
+        // attribute got removed
+        return JsonValue.NULL;
+    }
 }
@@ -32,12 +32,13 @@ import java.util.Map;
 
 class JsonObjectBuilderImpl implements JsonObjectBuilder, Serializable {
     private Map<String, JsonValue> attributeMap = new LinkedHashMap<>();
+    private JsonObject initialData; // copied on the first modification only, immutable so build() can return it
 
     public JsonObjectBuilderImpl() {
     }
 
     public JsonObjectBuilderImpl(JsonObject initialData) {
-        attributeMap = new LinkedHashMap<>(initialData);
+        this.initialData = initialData;
     }
 
     public JsonObjectBuilderImpl(Map<String, Object> initialValues) {
@@ -144,14 +145,14 @@ class JsonObjectBuilderImpl implements JsonObjectBuilder, Serializable {
     @Override
     public JsonObjectBuilder addAll(JsonObjectBuilder builder) {
         if (builder instanceof JsonObjectBuilderImpl) {
-            attributeMap.putAll(builder.build());
+            attributes().putAll(builder.build());
         }
         return this;
     }
 
     @Override
     public JsonObjectBuilder remove(String name) {
-        attributeMap.remove(name);
+        attributes().remove(name);
         return this;
     }
 
@@ -160,12 +161,26 @@ class JsonObjectBuilderImpl implements JsonObjectBuilder, Serializable {
             throw new NullPointerException("name or value/builder must not be null");
         }
         
-        attributeMap.put(name, value);
+        attributes().put(name, value);
+    }
+
+    private Map<String, JsonValue> attributes() {
+        if (initialData != null) {
+            attributeMap = new LinkedHashMap<>(initialData);
+            initialData = null;
+        }
+        return attributeMap;
     }
     
 
     @Override
     public JsonObject build() {
+        if (initialData != null) {
+            final JsonObject unmodified = initialData;
+            initialData = null;
+            attributeMap = null;
+            return unmodified;
+        }
         
         if(attributeMap == null || attributeMap.isEmpty()) {
             return new JsonObjectImpl(Collections.EMPTY_MAP);
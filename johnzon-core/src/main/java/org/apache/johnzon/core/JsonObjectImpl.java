@@ -33,6 +33,7 @@ import java.util.Set;
 
 final class JsonObjectImpl extends AbstractMap<String, JsonValue> implements JsonObject, Serializable {
     private transient Integer hashCode = null;
+    private transient Integer structuralHash = null;
     private final Map<String, JsonValue> unmodifieableBackingMap;
 
     private <T> T value(final String name, final Class<T> clazz) {
@@ -159,8 +160,23 @@ final class JsonObjectImpl extends AbstractMap<String, JsonValue> implements Jso
 
     @Override
     public boolean equals(final Object obj) {
-        return JsonObjectImpl.class.isInstance(obj)
-                && unmodifieableBackingMap.equals(JsonObjectImpl.class.cast(obj).unmodifieableBackingMap);
+        if (this == obj) {
+            return true;
+        }
+        if (!JsonObjectImpl.class.isInstance(obj)) {
+            return false;
+        }
+        final JsonObjectImpl other = JsonObjectImpl.class.cast(obj);
+        return structuralHash() == other.structuralHash() && unmodifieableBackingMap.equals(other.unmodifieableBackingMap);
+    }
+
+    int structuralHash() {
+        Integer h = structuralHash;
+        if (h == null) {
+            h = StructuralHash.ofObject(unmodifieableBackingMap);
+            structuralHash = h;
+        }
+        return h;
     }
 
     @Override
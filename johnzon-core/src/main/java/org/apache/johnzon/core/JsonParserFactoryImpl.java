@@ -24,7 +24,6 @@ import java.io.InputStream;
 import java.io.Reader;
 import java.nio.charset.Charset;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Map;
 
 import javax.json.JsonArray;
@@ -43,7 +42,7 @@ public class JsonParserFactoryImpl extends AbstractJsonFactory implements JsonPa
     public static final boolean DEFAULT_SUPPORTS_COMMENT = Boolean.getBoolean(SUPPORTS_COMMENTS); //default is false;
 
     static final Collection<String> SUPPORTED_CONFIG_KEYS = asList(
-        BUFFER_STRATEGY, MAX_STRING_LENGTH, BUFFER_LENGTH, SUPPORTS_COMMENTS
+        BUFFER_STRATEGY, BUFFER_STATS, BUFFER_STATS_JMX_NAME, MAX_STRING_LENGTH, BUFFER_LENGTH, SUPPORTS_COMMENTS
     );
       
     private final int maxSize;
@@ -60,8 +59,8 @@ public class JsonParserFactoryImpl extends AbstractJsonFactory implements JsonPa
         }
 
         this.maxSize = getInt(MAX_STRING_LENGTH, DEFAULT_MAX_STRING_LENGTH);
-        this.bufferProvider = getBufferProvider().newCharProvider(bufferSize);
-        this.valueBufferProvider = getBufferProvider().newCharProvider(maxSize);
+        this.bufferProvider = newCharProvider("buffer", bufferSize);
+        this.valueBufferProvider = newCharProvider("value", maxSize);
         this.supportsComments = getBool(SUPPORTS_COMMENTS, DEFAULT_SUPPORTS_COMMENT);
     }
 
@@ -116,11 +115,6 @@ public class JsonParserFactoryImpl extends AbstractJsonFactory implements JsonPa
         return new JsonInMemoryParser(array);
     }
 
-    @Override
-    public Map<String, ?> getConfigInUse() {
-        return Collections.unmodifiableMap(internalConfig);
-    }
-
     public JsonStreamParserImpl createInternalParser(final InputStream in) {
         return getDefaultJsonParserImpl(in);
     }
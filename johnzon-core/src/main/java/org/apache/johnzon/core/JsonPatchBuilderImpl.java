@@ -165,6 +165,10 @@ class JsonPatchBuilderImpl implements JsonPatchBuilder {
     }
 
 
+    void append(JsonPatchBuilderImpl other) {
+        operations.addAll(other.operations);
+    }
+
     private JsonPatchBuilder addOperation(JsonPatchImpl.PatchValue operation) {
         operations.add(operation);
         return this;
@@ -16,6 +16,8 @@
  */
 package org.apache.johnzon.core;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import javax.json.JsonArray;
@@ -26,16 +28,38 @@ import javax.json.JsonStructure;
 import javax.json.JsonValue;
 
 /**
- * Create a diff from a source and target JsonStructure
+ * Create a diff from a source and target JsonStructure.
+ *
+ * By default arrays are compared index by index. With {@link #ARRAY_LCS} the elements
+ * are matched with a longest common subsequence so an insertion or a removal only generates
+ * one operation instead of shifting all the next elements.
+ *
+ * Members of large objects and elements of large arrays compared by index can be diffed
+ * in parallel, see {@link DiffBase#PARALLEL_THRESHOLD}.
  */
 class JsonPatchDiff extends DiffBase {
+    static final String ARRAY_LCS = "org.apache.johnzon.patch-diff.array-lcs";
+    private static final boolean DEFAULT_ARRAY_LCS = Boolean.getBoolean(ARRAY_LCS);
+    // above this number of cells (source x target elements once common head and tail are skipped) arrays are compared by index
+    private static final int MAX_LCS_CELLS = Integer.getInteger(ARRAY_LCS + ".max-cells", 1 << 22);
 
     private final JsonStructure source;
     private final JsonStructure target;
+    private final boolean arrayLcs;
 
     JsonPatchDiff(JsonStructure source, JsonStructure target) {
+        this(source, target, DEFAULT_ARRAY_LCS);
+    }
+
+    JsonPatchDiff(JsonStructure source, JsonStructure target, boolean arrayLcs) {
+        this(source, target, arrayLcs, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    JsonPatchDiff(JsonStructure source, JsonStructure target, boolean arrayLcs, int parallelThreshold) {
+        super(parallelThreshold);
         this.source = source;
         this.target = target;
+        this.arrayLcs = arrayLcs;
     }
 
     JsonPatch calculateDiff() {
@@ -47,25 +71,28 @@ class JsonPatchDiff extends DiffBase {
     }
 
     private void diff(JsonPatchBuilder patchBuilder, String basePath, JsonValue source, JsonValue target) {
+        if (StructuralHash.same(source, target)) {
+            return;
+        }
         if (isJsonObject(source) && isJsonObject(target)) {
             diffJsonObjects(patchBuilder, basePath + "/", (JsonObject) source, (JsonObject) target);
         } else if (isJsonArray(source) && isJsonArray(target)) {
             diffJsonArray(patchBuilder, basePath + "/", (JsonArray) source, (JsonArray) target);
-        } else if (!source.equals(target)){
+        } else {
             patchBuilder.replace(basePath, target);
         }
     }
 
     private void diffJsonArray(JsonPatchBuilder patchBuilder, String basePath, JsonArray source, JsonArray target) {
-        for (int i = 0; i < source.size(); i++) {
-            JsonValue sourceValue = source.get(i);
-
-            if (target.size() <= i) {
-                patchBuilder.remove(basePath + i);
-                continue;
-            }
+        if (arrayLcs) {
+            diffJsonArrayLcs(patchBuilder, basePath, source, target);
+            return;
+        }
 
-            diff(patchBuilder, basePath + i, sourceValue, target.get(i));
+        int common = Math.min(source.size(), target.size());
+        diffElements(patchBuilder, basePath, source, target, 0, common);
+        for (int i = common; i < source.size(); i++) {
+            patchBuilder.remove(basePath + i);
         }
 
         if (target.size() > source.size()) {
@@ -77,16 +104,158 @@ class JsonPatchDiff extends DiffBase {
 
     }
 
-    private void diffJsonObjects(JsonPatchBuilder patchBuilder, String basePath, JsonObject source, JsonObject target) {
+    private void diffJsonArrayLcs(JsonPatchBuilder patchBuilder, String basePath, JsonArray source, JsonArray target) {
+        int[] sourceHashes = hashes(source);
+        int[] targetHashes = hashes(target);
 
-        for (Map.Entry<String, JsonValue> sourceEntry : source.entrySet()) {
-            String attributeName = sourceEntry.getKey();
+        // common head and tail don't need the lcs table
+        int start = 0;
+        int sourceEnd = source.size();
+        int targetEnd = target.size();
+        while (start < sourceEnd && start < targetEnd && same(source, sourceHashes, start, target, targetHashes, start)) {
+            start++;
+        }
+        while (sourceEnd > start && targetEnd > start
+                && same(source, sourceHashes, sourceEnd - 1, target, targetHashes, targetEnd - 1)) {
+            sourceEnd--;
+            targetEnd--;
+        }
 
-            if (target.containsKey(attributeName)) {
-                diff(patchBuilder, basePath + JsonPointerUtil.encode(attributeName), sourceEntry.getValue(), target.get(attributeName));
+        int sourceLength = sourceEnd - start;
+        int targetLength = targetEnd - start;
+        if ((long) (sourceLength + 1) * (targetLength + 1) > MAX_LCS_CELLS) {
+            diffByIndex(patchBuilder, basePath, source, sourceEnd, target, targetEnd, start);
+            return;
+        }
+
+        // lcs[i][j] = length of the lcs of source[start + i...] and target[start + j...]
+        int width = targetLength + 1;
+        int[] lcs = new int[(sourceLength + 1) * width];
+        for (int i = sourceLength - 1; i >= 0; i--) {
+            for (int j = targetLength - 1; j >= 0; j--) {
+                lcs[i * width + j] = same(source, sourceHashes, start + i, target, targetHashes, start + j) ?
+                        lcs[(i + 1) * width + j + 1] + 1 : Math.max(lcs[(i + 1) * width + j], lcs[i * width + j + 1]);
+            }
+        }
+
+        // position is the index in the array patched by the previous operations
+        int position = start;
+        List<JsonValue> removed = new ArrayList<>();
+        List<JsonValue> added = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < sourceLength || j < targetLength) {
+            if (i < sourceLength && j < targetLength && same(source, sourceHashes, start + i, target, targetHashes, start + j)) {
+                position = flush(patchBuilder, basePath, position, removed, added) + 1;
+                i++;
+                j++;
+            } else if (j == targetLength || (i < sourceLength && lcs[(i + 1) * width + j] >= lcs[i * width + j + 1])) {
+                removed.add(source.get(start + i++));
             } else {
-                // the value got removed
-                patchBuilder.remove(basePath + JsonPointerUtil.encode(attributeName));
+                added.add(target.get(start + j++));
+            }
+        }
+        flush(patchBuilder, basePath, position, removed, added);
+    }
+
+    // a removed element followed by an added one is a change of this element
+    private int flush(JsonPatchBuilder patchBuilder, String basePath, int position, List<JsonValue> removed, List<JsonValue> added) {
+        int changed = Math.min(removed.size(), added.size());
+        for (int k = 0; k < changed; k++) {
+            diff(patchBuilder, basePath + position++, removed.get(k), added.get(k));
+        }
+        for (int k = changed; k < removed.size(); k++) {
+            patchBuilder.remove(basePath + position);
+        }
+        for (int k = changed; k < added.size(); k++) {
+            patchBuilder.add(basePath + position++, added.get(k));
+        }
+        removed.clear();
+        added.clear();
+        return position;
+    }
+
+    private void diffByIndex(JsonPatchBuilder patchBuilder, String basePath, JsonArray source, int sourceEnd,
+                             JsonArray target, int targetEnd, int start) {
+        int common = Math.min(sourceEnd, targetEnd);
+        diffElements(patchBuilder, basePath, source, target, start, common);
+        for (int i = common; i < sourceEnd; i++) {
+            patchBuilder.remove(basePath + common);
+        }
+        for (int i = common; i < targetEnd; i++) {
+            patchBuilder.add(basePath + i, target.get(i));
+        }
+    }
+
+    // diff of the elements with the same index in [start, end)
+    private void diffElements(JsonPatchBuilder patchBuilder, final String basePath, final JsonArray source, final JsonArray target,
+                              final int start, int end) {
+        if (!isParallel(end - start)) {
+            for (int i = start; i < end; i++) {
+                diff(patchBuilder, basePath + i, source.get(i), target.get(i));
+            }
+            return;
+        }
+
+        final JsonPatchBuilderImpl[] chunks = new JsonPatchBuilderImpl[end - start];
+        forkChunks(chunks.length, new Chunk() {
+            @Override
+            public void compute(int from, int to) {
+                JsonPatchBuilderImpl chunkBuilder = new JsonPatchBuilderImpl();
+                for (int i = start + from; i < start + to; i++) {
+                    diff(chunkBuilder, basePath + i, source.get(i), target.get(i));
+                }
+                chunks[from] = chunkBuilder;
+            }
+        });
+        append(patchBuilder, chunks);
+    }
+
+    private static void append(JsonPatchBuilder patchBuilder, JsonPatchBuilderImpl[] chunks) {
+        for (JsonPatchBuilderImpl chunk : chunks) {
+            if (chunk != null) {
+                ((JsonPatchBuilderImpl) patchBuilder).append(chunk);
+            }
+        }
+    }
+
+    private static int[] hashes(JsonArray array) {
+        int[] hashes = new int[array.size()];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = StructuralHash.of(array.get(i)); // cached by our structures
+        }
+        return hashes;
+    }
+
+    private static boolean same(JsonArray source, int[] sourceHashes, int sourceIndex,
+                                JsonArray target, int[] targetHashes, int targetIndex) {
+        if (sourceHashes[sourceIndex] != targetHashes[targetIndex]) {
+            return false;
+        }
+        JsonValue sourceValue = source.get(sourceIndex);
+        JsonValue targetValue = target.get(targetIndex);
+        return sourceValue == targetValue || sourceValue.equals(targetValue);
+    }
+
+    private void diffJsonObjects(JsonPatchBuilder patchBuilder, final String basePath, JsonObject source, final JsonObject target) {
+
+        if (isParallel(source.size())) {
+            final List<Map.Entry<String, JsonValue>> sourceEntries = new ArrayList<>(source.entrySet());
+            final JsonPatchBuilderImpl[] chunks = new JsonPatchBuilderImpl[sourceEntries.size()];
+            forkChunks(chunks.length, new Chunk() {
+                @Override
+                public void compute(int from, int to) {
+                    JsonPatchBuilderImpl chunkBuilder = new JsonPatchBuilderImpl();
+                    for (int i = from; i < to; i++) {
+                        diffMember(chunkBuilder, basePath, sourceEntries.get(i), target);
+                    }
+                    chunks[from] = chunkBuilder;
+                }
+            });
+            append(patchBuilder, chunks);
+        } else {
+            for (Map.Entry<String, JsonValue> sourceEntry : source.entrySet()) {
+                diffMember(patchBuilder, basePath, sourceEntry, target);
             }
         }
 
@@ -98,5 +267,14 @@ class JsonPatchDiff extends DiffBase {
 
     }
 
+    private void diffMember(JsonPatchBuilder patchBuilder, String basePath, Map.Entry<String, JsonValue> sourceEntry, JsonObject target) {
+        String attributeName = sourceEntry.getKey();
 
+        if (target.containsKey(attributeName)) {
+            diff(patchBuilder, basePath + JsonPointerUtil.encode(attributeName), sourceEntry.getValue(), target.get(attributeName));
+        } else {
+            // the value got removed
+            patchBuilder.remove(basePath + JsonPointerUtil.encode(attributeName));
+        }
+    }
 }
@@ -54,32 +54,29 @@ class JsonPatchImpl implements JsonPatch {
     @Override
     public <T extends JsonStructure> T apply(T target) {
 
-        //X TODO JsonPointer should use generics like JsonPatch
-        JsonStructure patched = target;
+        // all operations are applied on a working copy which is rebuilt once at the end
+        MutableJsonStructure patched = new MutableJsonStructure(target);
 
         for (PatchValue patch : patches) {
 
             switch (patch.operation) {
                 case ADD:
-                    patched = patch.path.add(patched, patch.value);
+                    patched.add(patch.path, patch.value);
                     break;
                 case REMOVE:
-                    patched = patch.path.remove(patched);
+                    patched.remove(patch.path);
                     break;
                 case REPLACE:
-                    // first remove the existing element and then add the new value
-                    patched = patch.path.add(patch.path.remove(patched), patch.value);
+                    patched.replace(patch.path, patch.value);
                     break;
                 case MOVE:
-                    JsonValue valueToMove = patch.from.getValue(patched);
-                    patched = patch.path.add(patch.from.remove(patched), valueToMove);
+                    patched.add(patch.path, patched.remove(patch.from));
                     break;
                 case COPY:
-                    JsonValue toCopy = patch.from.getValue(patched);
-                    patched = patch.path.add(patched, toCopy);
+                    patched.add(patch.path, patched.getValue(patch.from));
                     break;
                 case TEST:
-                    JsonValue toTest = patch.path.getValue(patched);
+                    JsonValue toTest = patched.getValue(patch.path);
                     if (!toTest.equals(patch.value)) {
                         throw new JsonException("JsonPatch.Operation.TEST fails! Values are not equal");
                     }
@@ -90,7 +87,12 @@ class JsonPatchImpl implements JsonPatch {
         }
 
         //X TODO dirty cast can be removed after JsonPointer uses generics like JsonPatch
-        return (T) patched;
+        return (T) patched.freeze();
+    }
+
+
+    List<PatchValue> getPatches() {
+        return patches;
     }
 
 
@@ -128,17 +130,17 @@ class JsonPatchImpl implements JsonPatch {
 
 
     static class PatchValue {
-        private final JsonPatch.Operation operation;
-        private final JsonPointerImpl path;
-        private final JsonPointerImpl from;
-        private final JsonValue value;
+        final JsonPatch.Operation operation;
+        final JsonPointerImpl path;
+        final JsonPointerImpl from;
+        final JsonValue value;
 
         PatchValue(JsonPatch.Operation operation,
                    String path,
                    String from,
                    JsonValue value) {
             this.operation = operation;
-            this.path = new JsonPointerImpl(path);
+            this.path = new JsonPointerImpl(path); // not cached, a diff can create many paths used once
 
             // ignore from if we do not need it
             if (operation == JsonPatch.Operation.MOVE || operation == JsonPatch.Operation.COPY) {
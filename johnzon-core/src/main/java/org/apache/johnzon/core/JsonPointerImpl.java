@@ -18,25 +18,30 @@
  */
 package org.apache.johnzon.core;
 
-import javax.json.Json;
 import javax.json.JsonArray;
-import javax.json.JsonArrayBuilder;
 import javax.json.JsonException;
 import javax.json.JsonObject;
-import javax.json.JsonObjectBuilder;
 import javax.json.JsonPointer;
 import javax.json.JsonStructure;
 import javax.json.JsonValue;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 
 public class JsonPointerImpl implements JsonPointer {
+    // max number of pointers kept by JsonPointerImpl.of(), 0 disables the cache
+    public static final String POINTER_CACHE_SIZE = "org.apache.johnzon.pointer-cache-size";
+    private static final int CACHE_SIZE = Integer.getInteger(POINTER_CACHE_SIZE, 512);
+    private static final Map<String, JsonPointerImpl> CACHE = new LinkedHashMap<String, JsonPointerImpl>(16, 0.75f, true) { // LRU
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, JsonPointerImpl> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
 
     private final String jsonPointer;
-    private final List<String> referenceTokens = new ArrayList<>();
-    private final String lastReferenceToken;
+    private final String[] referenceTokens; // decoded, the first one is the root ("")
+    private final int[] arrayIndexes; // index of each token, -1 if it is not a plain array index
 
     /**
      * Constructs and initializes a JsonPointer.
@@ -54,12 +59,53 @@ public class JsonPointerImpl implements JsonPointer {
         }
 
         this.jsonPointer = jsonPointer;
-        String[] encodedReferenceTokens = jsonPointer.split("/", -1);
 
-        for (String encodedReferenceToken : encodedReferenceTokens) {
-            referenceTokens.add(JsonPointerUtil.decode(encodedReferenceToken));
+        int count = 1;
+        for (int i = 0; i < jsonPointer.length(); i++) {
+            if (jsonPointer.charAt(i) == '/') {
+                count++;
+            }
+        }
+        referenceTokens = new String[count];
+        arrayIndexes = new int[count];
+
+        int start = 0;
+        for (int i = 0; i < count; i++) {
+            int end = jsonPointer.indexOf('/', start);
+            if (end < 0) {
+                end = jsonPointer.length();
+            }
+            final String encoded = jsonPointer.substring(start, end);
+            referenceTokens[i] = encoded.indexOf('~') >= 0 ? JsonPointerUtil.decode(encoded) : encoded;
+            arrayIndexes[i] = toArrayIndex(referenceTokens[i]);
+            start = end + 1;
+        }
+    }
+
+    /**
+     * Same as the constructor but the pointers are cached (see {@link #POINTER_CACHE_SIZE})
+     * since they are immutable, it avoids to parse again and again the same pointers.
+     * The least recently used pointers are dropped once the cache is full.
+     *
+     * @param jsonPointer the JSON Pointer string
+     * @return the (potentially shared) pointer.
+     */
+    static JsonPointerImpl of(final String jsonPointer) {
+        if (CACHE_SIZE <= 0 || jsonPointer == null) {
+            return new JsonPointerImpl(jsonPointer);
+        }
+
+        synchronized (CACHE) {
+            final JsonPointerImpl cached = CACHE.get(jsonPointer);
+            if (cached != null) {
+                return cached;
+            }
         }
-        lastReferenceToken = referenceTokens.get(referenceTokens.size() - 1);
+        final JsonPointerImpl pointer = new JsonPointerImpl(jsonPointer); // parse outside of the lock, it can fail
+        synchronized (CACHE) {
+            CACHE.put(jsonPointer, pointer);
+        }
+        return pointer;
     }
 
     /**
@@ -110,8 +156,8 @@ public class JsonPointerImpl implements JsonPointer {
         }
 
         JsonValue jsonValue = target;
-        for (int i = 1; i < referenceTokens.size(); i++) {
-            jsonValue = getValue(jsonValue, referenceTokens.get(i), i, referenceTokens.size() - 1);
+        for (int i = 1; i < referenceTokens.length; i++) {
+            jsonValue = getValue(jsonValue, i, referenceTokens.length - 1);
         }
         return jsonValue;
     }
@@ -280,7 +326,7 @@ public class JsonPointerImpl implements JsonPointer {
     public JsonObject remove(JsonObject target) {
         validateRemove(target);
 
-        return (JsonObject) remove(target, 1, referenceTokens.size() - 1);
+        return removeInternal(target);
     }
 
     /**
@@ -296,19 +342,27 @@ public class JsonPointerImpl implements JsonPointer {
     public JsonArray remove(JsonArray target) {
         validateRemove(target);
 
-        return (JsonArray) remove(target, 1, referenceTokens.size() - 1);
+        return removeInternal(target);
     }
 
     String getJsonPointer() {
         return jsonPointer;
     }
 
+    int getReferenceTokenCount() {
+        return referenceTokens.length;
+    }
+
+    String getReferenceToken(int position) {
+        return referenceTokens[position];
+    }
+
     private void validateAdd(JsonValue target) {
-        validateJsonPointer(target, referenceTokens.size() - 1);
+        validateJsonPointer(target, referenceTokens.length - 1);
     }
 
     private void validateRemove(JsonValue target) {
-        validateJsonPointer(target, referenceTokens.size());
+        validateJsonPointer(target, referenceTokens.length);
         if (isEmptyJsonPointer()) {
             throw new JsonException("The reference must not be the target");
         }
@@ -318,7 +372,8 @@ public class JsonPointerImpl implements JsonPointer {
         return jsonPointer.equals("");
     }
 
-    private JsonValue getValue(JsonValue jsonValue, String referenceToken, int currentPosition, int referencePosition) {
+    private JsonValue getValue(JsonValue jsonValue, int currentPosition, int referencePosition) {
+        final String referenceToken = referenceTokens[currentPosition];
         if (jsonValue instanceof JsonObject) {
             JsonObject jsonObject = (JsonObject) jsonValue;
             jsonValue = jsonObject.get(referenceToken);
@@ -328,16 +383,10 @@ public class JsonPointerImpl implements JsonPointer {
             }
             throw new JsonException("'" + jsonObject + "' contains no value for name '" + referenceToken + "'");
         } else if (jsonValue instanceof JsonArray) {
-            validateArrayIndex(referenceToken);
-
-            try {
-                JsonArray jsonArray = (JsonArray) jsonValue;
-                int arrayIndex = Integer.parseInt(referenceToken);
-                validateArraySize(jsonArray, arrayIndex, jsonArray.size());
-                return jsonArray.get(arrayIndex);
-            } catch (NumberFormatException e) {
-                throw new JsonException("'" + referenceToken + "' is no valid array index", e);
-            }
+            JsonArray jsonArray = (JsonArray) jsonValue;
+            int arrayIndex = getArrayIndex(currentPosition);
+            validateArraySize(jsonArray, arrayIndex, jsonArray.size());
+            return jsonArray.get(arrayIndex);
         } else {
             if (currentPosition != referencePosition) {
                 return jsonValue;
@@ -346,115 +395,52 @@ public class JsonPointerImpl implements JsonPointer {
         }
     }
 
+    // only the containers on the path are copied, the rest of the document is shared with the target
     private <T extends JsonStructure> T addInternal(T jsonValue, JsonValue newValue) {
-        List<String> currentPath = new ArrayList<>();
-        currentPath.add("");
-
-        return (T) addInternal(jsonValue, newValue, currentPath);
-    }
-
-    private JsonValue addInternal(JsonValue jsonValue, JsonValue newValue, List<String> currentPath) {
-        if (jsonValue instanceof JsonObject) {
-            JsonObject jsonObject = (JsonObject) jsonValue;
-            JsonObjectBuilder objectBuilder = Json.createObjectBuilder();
-
-            if (jsonObject.isEmpty()) {
-                objectBuilder.add(lastReferenceToken, newValue);
-            } else {
-                for (Map.Entry<String, JsonValue> entry : jsonObject.entrySet()) {
-
-                    currentPath.add(entry.getKey());
-                    objectBuilder.add(entry.getKey(), addInternal(entry.getValue(), newValue, currentPath));
-                    currentPath.remove(entry.getKey());
-
-                    if (currentPath.size() == referenceTokens.size() - 1 &&
-                        currentPath.get(currentPath.size() - 1).equals(referenceTokens.get(referenceTokens.size() - 2))) {
-                        objectBuilder.add(lastReferenceToken, newValue);
-                    }
-                }
-            }
-            return objectBuilder.build();
-        } else if (jsonValue instanceof JsonArray) {
-            JsonArray jsonArray = (JsonArray) jsonValue;
-            JsonArrayBuilder arrayBuilder = Json.createArrayBuilder();
-
-            int arrayIndex = -1;
-            if (currentPath.size() == referenceTokens.size() - 1 &&
-                currentPath.get(currentPath.size() - 1).equals(referenceTokens.get(referenceTokens.size() - 2))) {
-
-                arrayIndex = getArrayIndex(lastReferenceToken, jsonArray, true);
-            }
-
-            int jsonArraySize = jsonArray.size();
-            for (int i = 0; i <= jsonArraySize; i++) {
-                if (i == arrayIndex) {
-                    arrayBuilder.add(newValue);
-                }
-                if (i == jsonArraySize) {
-                    break;
-                }
-
-                String path = String.valueOf(i);
-                currentPath.add(path);
-                arrayBuilder.add(addInternal(jsonArray.get(i), newValue, currentPath));
-                currentPath.remove(path);
-            }
-            return arrayBuilder.build();
-        }
-        return jsonValue;
+        MutableJsonStructure structure = new MutableJsonStructure(jsonValue);
+        structure.add(this, newValue);
+        return (T) structure.freeze();
     }
 
-    private JsonValue remove(JsonValue jsonValue, int currentPosition, int referencePosition) {
-        if (jsonValue instanceof JsonObject) {
-            JsonObject jsonObject = (JsonObject) jsonValue;
-            JsonObjectBuilder objectBuilder = Json.createObjectBuilder();
-
-            for (Map.Entry<String, JsonValue> entry : jsonObject.entrySet()) {
-                if (currentPosition == referencePosition
-                        && lastReferenceToken.equals(entry.getKey())) {
-                    continue;
-                }
-                objectBuilder.add(entry.getKey(), remove(entry.getValue(), currentPosition + 1, referencePosition));
-            }
-            return objectBuilder.build();
-        } else if (jsonValue instanceof JsonArray) {
-            JsonArray jsonArray = (JsonArray) jsonValue;
-            JsonArrayBuilder arrayBuilder = Json.createArrayBuilder();
-
-            int arrayIndex = -1;
-            if (currentPosition == referencePosition) {
-                arrayIndex = getArrayIndex(lastReferenceToken, jsonArray, false);
-            }
-
-            int jsonArraySize = jsonArray.size();
-            for (int i = 0; i < jsonArraySize; i++) {
-                if (i == arrayIndex) {
-                    continue;
-                }
-                arrayBuilder.add(remove(jsonArray.get(i), currentPosition + 1, referencePosition));
-            }
-            return arrayBuilder.build();
-        }
-        return jsonValue;
+    private <T extends JsonStructure> T removeInternal(T jsonValue) {
+        MutableJsonStructure structure = new MutableJsonStructure(jsonValue);
+        structure.remove(this);
+        return (T) structure.freeze();
     }
 
-    private int getArrayIndex(String referenceToken, JsonArray jsonArray, boolean addOperation) {
-        if (addOperation && referenceToken.equals("-")) {
-            return jsonArray.size();
+    int getArrayIndex(int position) {
+        int arrayIndex = arrayIndexes[position];
+        if (arrayIndex >= 0) {
+            return arrayIndex;
         }
 
+        // not precomputed, either invalid or a big number, let the slow path report the error
+        String referenceToken = referenceTokens[position];
         validateArrayIndex(referenceToken);
-
         try {
-            int arrayIndex = Integer.parseInt(referenceToken);
-            int arraySize = addOperation ? jsonArray.size() + 1 : jsonArray.size();
-            validateArraySize(jsonArray, arrayIndex, arraySize);
-            return arrayIndex;
+            return Integer.parseInt(referenceToken);
         } catch (NumberFormatException e) {
             throw new JsonException("'" + referenceToken + "' is no valid array index", e);
         }
     }
 
+    private static int toArrayIndex(String referenceToken) {
+        int length = referenceToken.length();
+        if (length == 0 || length > 9 || (length > 1 && referenceToken.charAt(0) == '0')) { // 9 digits never overflow
+            return -1;
+        }
+
+        int arrayIndex = 0;
+        for (int i = 0; i < length; i++) {
+            char c = referenceToken.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            arrayIndex = arrayIndex * 10 + (c - '0');
+        }
+        return arrayIndex;
+    }
+
     private void validateJsonPointer(JsonValue target, int size) throws NullPointerException, JsonException {
         if (target == null) {
             throw new NullPointerException("target must not be null");
@@ -462,7 +448,7 @@ public class JsonPointerImpl implements JsonPointer {
 
         JsonValue jsonValue = target;
         for (int i = 1; i < size; i++) {
-            jsonValue = getValue(jsonValue, referenceTokens.get(i), i, referenceTokens.size() - 1);
+            jsonValue = getValue(jsonValue, i, referenceTokens.length - 1);
         }
     }
 
@@ -357,7 +357,7 @@ public class JsonProviderImpl extends JsonProvider implements Serializable {
 
         @Override
         public JsonPointer createPointer(String path) {
-            return new JsonPointerImpl(path);
+            return JsonPointerImpl.of(path);
         }
 
         public JsonPatch createPatch(JsonArray array) {
@@ -24,7 +24,6 @@ import java.io.InputStream;
 import java.io.Reader;
 import java.nio.charset.Charset;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Map;
 
 import javax.json.JsonReader;
@@ -58,6 +57,11 @@ class JsonReaderFactoryImpl extends AbstractJsonFactory implements JsonReaderFac
 
     @Override
     public Map<String, ?> getConfigInUse() {
-        return Collections.unmodifiableMap(internalConfig);
+        return parserFactory.getConfigInUse();
+    }
+
+    @Override
+    public void close() {
+        parserFactory.close();
     }
 }
@@ -125,7 +125,7 @@ public class JsonReaderImpl implements JsonReader {
 
     }
 
-    private void parseObject(final JsonObjectBuilder builder) {
+    void parseObject(final JsonObjectBuilder builder) {
         String key = null;
         while (parser.hasNext()) {
             final JsonParser.Event next = parser.next();
@@ -182,7 +182,7 @@ public class JsonReaderImpl implements JsonReader {
         }
     }
 
-    private void parseArray(final JsonArrayBuilder builder) {
+    void parseArray(final JsonArrayBuilder builder) {
         while (parser.hasNext()) {
             final JsonParser.Event next = parser.next();
             switch (next) {
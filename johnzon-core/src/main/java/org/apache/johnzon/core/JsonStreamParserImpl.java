@@ -18,7 +18,10 @@
  */
 package org.apache.johnzon.core;
 
+import javax.json.JsonArray;
 import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
 import javax.json.stream.JsonLocation;
 import javax.json.stream.JsonParser;
 import javax.json.stream.JsonParsingException;
@@ -915,6 +918,67 @@ public class JsonStreamParserImpl implements JsonChars, JsonParser{
         return createLocation();
     }
 
+    @Override
+    public JsonObject getObject() {
+        if (previousEvent != START_OBJECT) {
+            throw new IllegalStateException(EVT_MAP[previousEvent] + " doesn't support getObject()");
+        }
+        final JsonObjectBuilderImpl builder = new JsonObjectBuilderImpl();
+        new JsonReaderImpl(this).parseObject(builder);
+        return builder.build();
+    }
+
+    @Override
+    public JsonArray getArray() {
+        if (previousEvent != START_ARRAY) {
+            throw new IllegalStateException(EVT_MAP[previousEvent] + " doesn't support getArray()");
+        }
+        final JsonArrayBuilderImpl builder = new JsonArrayBuilderImpl();
+        new JsonReaderImpl(this).parseArray(builder);
+        return builder.build();
+    }
+
+    @Override
+    public JsonValue getValue() {
+        if (previousEvent == START_OBJECT) {
+            return getObject();
+        } else if (previousEvent == START_ARRAY) {
+            return getArray();
+        } else if (previousEvent == VALUE_STRING || previousEvent == KEY_NAME) {
+            return new JsonStringImpl(getString());
+        } else if (previousEvent == VALUE_NUMBER) {
+            return isCurrentNumberIntegral && isNotTooLong() ? new JsonLongImpl(getLong()) : new JsonNumberImpl(getBigDecimal());
+        } else if (previousEvent == VALUE_TRUE) {
+            return JsonValue.TRUE;
+        } else if (previousEvent == VALUE_FALSE) {
+            return JsonValue.FALSE;
+        } else if (previousEvent == VALUE_NULL) {
+            return JsonValue.NULL;
+        }
+        throw new IllegalStateException(EVT_MAP[previousEvent] + " doesn't support getValue()");
+    }
+
+    @Override
+    public void skipObject() {
+        skip(false);
+    }
+
+    @Override
+    public void skipArray() {
+        skip(true);
+    }
+
+    // goes to the end of the current structure if it has the requested type, the skipped values are not built
+    private void skip(final boolean array) {
+        final StructureElement current = currentStructureElement;
+        if (current == null || current.isArray != array) {
+            return;
+        }
+        while (currentStructureElement != current.previous) {
+            next();
+        }
+    }
+
     @Override
     public void close() {
         bufferProvider.release(buffer);
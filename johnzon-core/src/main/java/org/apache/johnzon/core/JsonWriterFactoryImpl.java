@@ -21,23 +21,20 @@ package org.apache.johnzon.core;
 import static java.util.Arrays.asList;
 
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.charset.Charset;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Map;
 
 import javax.json.JsonWriter;
 import javax.json.JsonWriterFactory;
-import javax.json.stream.JsonGeneratorFactory;
 
 class JsonWriterFactoryImpl extends AbstractJsonFactory implements JsonWriterFactory{
     private static final Charset UTF8_CHARSET = Charset.forName("UTF-8");
     static final Collection<String> SUPPORTED_CONFIG_KEYS = asList(
 
     );
-    private final JsonGeneratorFactory factory;
+    private final JsonGeneratorFactoryImpl factory;
 
     JsonWriterFactoryImpl(final Map<String, ?> config) {
         super(config, SUPPORTED_CONFIG_KEYS, JsonGeneratorFactoryImpl.SUPPORTED_CONFIG_KEYS);
@@ -51,16 +48,21 @@ class JsonWriterFactoryImpl extends AbstractJsonFactory implements JsonWriterFac
 
     @Override
     public JsonWriter createWriter(final OutputStream out) {
-        return createWriter(new OutputStreamWriter(out, UTF8_CHARSET));
+        return new JsonWriterImpl(factory.createGenerator(out, UTF8_CHARSET));
     }
 
     @Override
     public JsonWriter createWriter(final OutputStream out, final Charset charset) {
-        return createWriter(new OutputStreamWriter(out, charset));
+        return new JsonWriterImpl(factory.createGenerator(out, charset));
     }
 
     @Override
     public Map<String, ?> getConfigInUse() {
-        return Collections.unmodifiableMap(internalConfig);
+        return factory.getConfigInUse();
+    }
+
+    @Override
+    public void close() {
+        factory.close();
     }
 }
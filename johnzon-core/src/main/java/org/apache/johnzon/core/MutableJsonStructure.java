@@ -0,0 +1,392 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import javax.json.JsonArray;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.JsonStructure;
+import javax.json.JsonValue;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Working copy of a document used to apply all the operations of a {@link javax.json.JsonPatch}.
+ *
+ * A container is copied (shallowly) into a mutable one the first time an operation goes through it
+ * and is then updated in place, so an operation costs the size of the containers on its path the first time
+ * and then only the walk of its path (plus the shift of the elements for array insertions and removals),
+ * not the size of the document. The result is frozen back to immutable values once at the end.
+ */
+final class MutableJsonStructure {
+    private Object root; // JsonValue or MutableObject/MutableArray
+
+    MutableJsonStructure(final JsonStructure target) {
+        if (target == null) {
+            throw new NullPointerException("target must not be null");
+        }
+        this.root = target;
+    }
+
+    JsonStructure freeze() {
+        return (JsonStructure) freeze(root);
+    }
+
+    /**
+     * @return an immutable copy of the referenced value, it is not impacted by the next operations.
+     */
+    JsonValue getValue(final JsonPointerImpl pointer) {
+        Object current = root;
+        for (int i = 1; i < pointer.getReferenceTokenCount(); i++) {
+            current = child(current, pointer, i, false);
+        }
+        return freeze(current);
+    }
+
+    void add(final JsonPointerImpl pointer, final Object value) {
+        final int last = pointer.getReferenceTokenCount() - 1;
+        if (last == 0) {
+            if (valueType(value) != valueType(root)) {
+                throw new JsonException("The value must have the same type as the target");
+            }
+            root = value;
+            return;
+        }
+
+        final Object parent = parent(pointer);
+        final String referenceToken = pointer.getReferenceToken(last);
+        if (parent instanceof MutableObject) {
+            MutableObject.class.cast(parent).add(referenceToken, value);
+        } else if (parent instanceof MutableArray) {
+            final MutableArray array = MutableArray.class.cast(parent);
+            array.add("-".equals(referenceToken) ? array.size() : index(array, pointer, last, array.size() + 1), value);
+        } else {
+            throw noElement(parent, referenceToken);
+        }
+    }
+
+    /**
+     * @return the removed value, it can be mutable so it must only be used to be added back (move).
+     */
+    Object remove(final JsonPointerImpl pointer) {
+        final int last = pointer.getReferenceTokenCount() - 1;
+        if (last == 0) {
+            throw new JsonException("The reference must not be the target");
+        }
+
+        final Object parent = parent(pointer);
+        final String referenceToken = pointer.getReferenceToken(last);
+        if (parent instanceof MutableObject) {
+            final Object removed = MutableObject.class.cast(parent).remove(referenceToken);
+            if (removed == null) {
+                throw noValue(parent, referenceToken);
+            }
+            return removed;
+        } else if (parent instanceof MutableArray) {
+            final MutableArray array = MutableArray.class.cast(parent);
+            return array.remove(index(array, pointer, last, array.size()));
+        }
+        throw noElement(parent, referenceToken);
+    }
+
+    void replace(final JsonPointerImpl pointer, final JsonValue value) {
+        final int last = pointer.getReferenceTokenCount() - 1;
+        if (last == 0) {
+            throw new JsonException("The reference must not be the target");
+        }
+
+        final Object parent = parent(pointer);
+        final String referenceToken = pointer.getReferenceToken(last);
+        if (parent instanceof MutableObject) {
+            final MutableObject object = MutableObject.class.cast(parent);
+            if (object.remove(referenceToken) == null) {
+                throw noValue(parent, referenceToken);
+            }
+            object.add(referenceToken, value);
+        } else if (parent instanceof MutableArray) {
+            final MutableArray array = MutableArray.class.cast(parent);
+            array.set(index(array, pointer, last, array.size()), value);
+        } else {
+            throw noElement(parent, referenceToken);
+        }
+    }
+
+    // makes mutable all the containers up to the parent of the referenced value
+    private Object parent(final JsonPointerImpl pointer) {
+        root = toMutable(root);
+        Object current = root;
+        for (int i = 1; i < pointer.getReferenceTokenCount() - 1; i++) {
+            current = child(current, pointer, i, true);
+        }
+        return current;
+    }
+
+    private Object child(final Object parent, final JsonPointerImpl pointer, final int position, final boolean mutable) {
+        final String referenceToken = pointer.getReferenceToken(position);
+        if (parent instanceof Map) {
+            final Object value = Map.class.cast(parent).get(referenceToken);
+            if (value == null) {
+                throw noValue(parent, referenceToken);
+            }
+            if (mutable) {
+                final Object copy = toMutable(value);
+                if (copy != value) {
+                    MutableObject.class.cast(parent).put(referenceToken, copy);
+                }
+                return copy;
+            }
+            return value;
+        } else if (parent instanceof List) {
+            final List<?> array = List.class.cast(parent);
+            final int index = index(array, pointer, position, array.size());
+            final Object value = array.get(index);
+            if (mutable) {
+                final Object copy = toMutable(value);
+                if (copy != value) {
+                    MutableArray.class.cast(parent).set(index, copy);
+                }
+                return copy;
+            }
+            return value;
+        }
+        throw noElement(parent, referenceToken);
+    }
+
+    private static int index(final List<?> array, final JsonPointerImpl pointer, final int position, final int size) {
+        final int index = pointer.getArrayIndex(position);
+        if (index >= size) {
+            throw new JsonException("'" + array + "' contains no element for index " + index);
+        }
+        return index;
+    }
+
+    private static Object toMutable(final Object value) {
+        if (value instanceof MutableObject || value instanceof MutableArray) {
+            return value;
+        }
+        if (value instanceof JsonObject) {
+            return new MutableObject(JsonObject.class.cast(value));
+        }
+        if (value instanceof JsonArray) {
+            return new MutableArray(JsonArray.class.cast(value));
+        }
+        return value;
+    }
+
+    private static JsonValue freeze(final Object value) {
+        if (value instanceof MutableObject) {
+            final MutableObject object = MutableObject.class.cast(value);
+            final Map<String, JsonValue> frozen = new LinkedHashMap<String, JsonValue>(object.size());
+            for (final Map.Entry<String, Object> entry : object.entrySet()) {
+                frozen.put(entry.getKey(), freeze(entry.getValue()));
+            }
+            return new JsonObjectImpl(Collections.unmodifiableMap(frozen));
+        }
+        if (value instanceof MutableArray) {
+            final MutableArray array = MutableArray.class.cast(value);
+            final List<JsonValue> frozen = new ArrayList<JsonValue>(array.size());
+            for (final Object item : array) {
+                frozen.add(freeze(item));
+            }
+            return new JsonArrayImpl(Collections.unmodifiableList(frozen));
+        }
+        return JsonValue.class.cast(value);
+    }
+
+    private static JsonValue.ValueType valueType(final Object value) {
+        if (value instanceof Map) {
+            return JsonValue.ValueType.OBJECT;
+        }
+        if (value instanceof List) {
+            return JsonValue.ValueType.ARRAY;
+        }
+        return JsonValue.class.cast(value).getValueType();
+    }
+
+    private static JsonException noValue(final Object object, final String referenceToken) {
+        return new JsonException("'" + object + "' contains no value for name '" + referenceToken + "'");
+    }
+
+    private static JsonException noElement(final Object value, final String referenceToken) {
+        return new JsonException("'" + value + "' contains no element for '" + referenceToken + "'");
+    }
+
+    /**
+     * Members are linked to keep the order of JsonPointerImpl.add() (an added member goes right after the first one)
+     * without moving the other members, adding or removing a member doesn't depend on the size of the object.
+     */
+    private static final class MutableObject extends AbstractMap<String, Object> {
+        private final Map<String, Member> members;
+        private Member first;
+        private Member last;
+
+        private MutableObject(final Map<String, ?> values) {
+            members = new HashMap<String, Member>(values.size() * 4 / 3 + 1);
+            for (final Map.Entry<String, ?> entry : values.entrySet()) {
+                link(new Member(entry.getKey(), entry.getValue()), last);
+            }
+        }
+
+        // same member order as JsonPointerImpl.add(): the added member is set after the first one
+        private void add(final String name, final Object value) {
+            if (first != null && first.getKey().equals(name)) {
+                first.setValue(value);
+                return;
+            }
+            remove(name);
+            link(new Member(name, value), first);
+        }
+
+        @Override
+        public int size() {
+            return members.size();
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return members.containsKey(key);
+        }
+
+        @Override
+        public Object get(final Object key) {
+            final Member member = members.get(key);
+            return member == null ? null : member.getValue();
+        }
+
+        // an existing member keeps its position
+        @Override
+        public Object put(final String key, final Object value) {
+            final Member member = members.get(key);
+            if (member != null) {
+                return member.setValue(value);
+            }
+            link(new Member(key, value), last);
+            return null;
+        }
+
+        @Override
+        public Object remove(final Object key) {
+            final Member member = members.remove(key);
+            if (member == null) {
+                return null;
+            }
+            if (member.previous == null) {
+                first = member.next;
+            } else {
+                member.previous.next = member.next;
+            }
+            if (member.next == null) {
+                last = member.previous;
+            } else {
+                member.next.previous = member.previous;
+            }
+            return member.getValue();
+        }
+
+        @Override
+        public Set<Map.Entry<String, Object>> entrySet() {
+            return new AbstractSet<Map.Entry<String, Object>>() {
+                @Override
+                public Iterator<Map.Entry<String, Object>> iterator() {
+                    return new Iterator<Map.Entry<String, Object>>() {
+                        private Member next = first;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next != null;
+                        }
+
+                        @Override
+                        public Map.Entry<String, Object> next() {
+                            if (next == null) {
+                                throw new NoSuchElementException();
+                            }
+                            final Member current = next;
+                            next = current.next;
+                            return current;
+                        }
+
+                        @Override
+                        public void remove() {
+                            throw new UnsupportedOperationException();
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return members.size();
+                }
+            };
+        }
+
+        @Override
+        public String toString() { // JSON as JsonObjectImpl for the error messages
+            return freeze(this).toString();
+        }
+
+        // links the member after the given one, as first member if it is null
+        private void link(final Member member, final Member after) {
+            if (after == null) {
+                member.next = first;
+                first = member;
+            } else {
+                member.previous = after;
+                member.next = after.next;
+                after.next = member;
+            }
+            if (member.next == null) {
+                last = member;
+            } else {
+                member.next.previous = member;
+            }
+            members.put(member.getKey(), member);
+        }
+    }
+
+    private static final class Member extends AbstractMap.SimpleEntry<String, Object> {
+        private Member previous;
+        private Member next;
+
+        private Member(final String name, final Object value) {
+            super(name, value);
+        }
+    }
+
+    private static final class MutableArray extends ArrayList<Object> {
+        private MutableArray(final Collection<?> values) {
+            super(values);
+        }
+
+        @Override
+        public String toString() {
+            return freeze(this).toString();
+        }
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Handle given to the caller when generators are pooled.
+ *
+ * The pooled generator is only reachable through the handle until it is closed, then the handle
+ * forgets it so a late close() is a no-op and a late write or flush fails until the generator is reused.
+ * The handle is pooled with its generator so it must not be kept once closed.
+ */
+final class PooledJsonGenerator implements RawJsonGenerator {
+    JsonGeneratorImpl generator;
+
+    PooledJsonGenerator(final JsonGeneratorImpl generator) {
+        this.generator = generator;
+    }
+
+    private JsonGeneratorImpl generator() {
+        final JsonGeneratorImpl current = generator;
+        if (current == null) {
+            throw new IllegalStateException("Generator closed");
+        }
+        return current;
+    }
+
+    @Override
+    public JsonGenerator writeStartObject() {
+        generator().writeStartObject();
+        return this;
+    }
+
+    @Override
+    public JsonGenerator writeStartObject(final String name) {
+        generator().writeStartObject(name);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator writeKey(final String name) {
+        generator().writeKey(name);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator writeStartArray() {
+        generator().writeStartArray();
+        return this;
+    }
+
+    @Override
+    public JsonGenerator writeStartArray(final String name) {
+        generator().writeStartArray(name);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final String name, final JsonValue value) {
+        generator().write(name, value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final String name, final String value) {
+        generator().write(name, value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final String name, final BigInteger value) {
+        generator().write(name, value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final String name, final BigDecimal value) {
+        generator().write(name, value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final String name, final int value) {
+        generator().write(name, value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final String name, final long value) {
+        generator().write(name, value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final String name, final double value) {
+        generator().write(name, value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final String name, final boolean value) {
+        generator().write(name, value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator writeNull(final String name) {
+        generator().writeNull(name);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator writeEnd() {
+        generator().writeEnd();
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final JsonValue value) {
+        generator().write(value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final String value) {
+        generator().write(value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final BigDecimal value) {
+        generator().write(value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final BigInteger value) {
+        generator().write(value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final int value) {
+        generator().write(value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final long value) {
+        generator().write(value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final double value) {
+        generator().write(value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(final boolean value) {
+        generator().write(value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator writeNull() {
+        generator().writeNull();
+        return this;
+    }
+
+    @Override
+    public RawJsonGenerator writeRaw(final String name, final CharSequence json) {
+        generator().writeRaw(name, json);
+        return this;
+    }
+
+    @Override
+    public RawJsonGenerator writeRaw(final String name, final byte[] json) {
+        generator().writeRaw(name, json);
+        return this;
+    }
+
+    @Override
+    public RawJsonGenerator writeRawValue(final CharSequence json) {
+        generator().writeRawValue(json);
+        return this;
+    }
+
+    @Override
+    public RawJsonGenerator writeRawValue(final byte[] json) {
+        generator().writeRawValue(json);
+        return this;
+    }
+
+    @Override
+    public void flush() {
+        generator().flush();
+    }
+
+    @Override
+    public void close() {
+        final JsonGeneratorImpl current = generator;
+        if (current == null) { // already closed
+            return;
+        }
+        generator = null; // the generator can be pooled and handed to another caller once closed
+        current.close();
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import javax.json.stream.JsonGenerator;
+
+/**
+ * Generator extension to splice already serialized json fragments in the output.
+ *
+ * The fragment is written as it is (no escaping, no pretty printing) but it takes
+ * the place of a value so commas and keys are handled like for any other value.
+ * If {@link JsonGeneratorFactoryImpl#GENERATOR_VALIDATE_RAW} is set the fragment is
+ * checked to be a single well balanced json value before being written.
+ *
+ * Generators created by {@link JsonGeneratorFactoryImpl} implement this interface.
+ */
+@Experimental
+public interface RawJsonGenerator extends JsonGenerator {
+    RawJsonGenerator writeRaw(String name, CharSequence json);
+
+    /**
+     * @param json UTF-8 encoded fragment.
+     */
+    RawJsonGenerator writeRaw(String name, byte[] json);
+
+    RawJsonGenerator writeRawValue(CharSequence json);
+
+    /**
+     * @param json UTF-8 encoded fragment.
+     */
+    RawJsonGenerator writeRawValue(byte[] json);
+}
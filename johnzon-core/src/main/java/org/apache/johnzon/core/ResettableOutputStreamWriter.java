@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Same contract as {@link java.io.OutputStreamWriter} but the encoder and its byte buffer
+ * can be pointed to another stream through {@link #reset(OutputStream)}.
+ * This way a pooled generator doesn't need to allocate a new encoder for each document.
+ */
+final class ResettableOutputStreamWriter extends Writer {
+    private static final int BYTE_BUFFER_LENGTH = 8192;
+
+    private final Charset charset;
+    private final CharsetEncoder encoder;
+    private final ByteBuffer bytes = ByteBuffer.allocate(BYTE_BUFFER_LENGTH);
+    private OutputStream out;
+
+    // a high surrogate at the end of a chunk needs to wait for its low surrogate
+    private char leftover;
+    private boolean hasLeftover;
+
+    ResettableOutputStreamWriter(final OutputStream out, final Charset charset) {
+        this.charset = charset;
+        this.encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.out = out;
+    }
+
+    Charset getCharset() {
+        return charset;
+    }
+
+    void reset(final OutputStream newOut) {
+        encoder.reset();
+        bytes.clear();
+        hasLeftover = false;
+        out = newOut;
+    }
+
+    @Override
+    public void write(final char[] cbuf, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return;
+        }
+
+        int start = off;
+        if (hasLeftover) {
+            hasLeftover = false;
+            encode(CharBuffer.wrap(new char[] { leftover, cbuf[off] }), false);
+            start++;
+        }
+
+        final CharBuffer chars = CharBuffer.wrap(cbuf, start, off + len - start);
+        encode(chars, false);
+        if (chars.hasRemaining()) {
+            leftover = chars.get();
+            hasLeftover = true;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            encode(hasLeftover ? CharBuffer.wrap(new char[] { leftover }) : CharBuffer.allocate(0), true);
+            hasLeftover = false;
+            while (encoder.flush(bytes).isOverflow()) {
+                drain();
+            }
+            drain();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void encode(final CharBuffer chars, final boolean endOfInput) throws IOException {
+        while (true) {
+            final CoderResult result = encoder.encode(chars, bytes, endOfInput);
+            if (result.isOverflow()) {
+                drain();
+            } else if (result.isUnderflow()) {
+                return;
+            } else {
+                result.throwException();
+            }
+        }
+    }
+
+    private void drain() throws IOException {
+        if (bytes.position() > 0) {
+            out.write(bytes.array(), 0, bytes.position());
+            bytes.clear();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import javax.json.JsonMergePatch;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParsingException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies a {@link JsonMergePatch} (RFC 7396) while copying a document from a {@link JsonParser}
+ * to a {@link JsonGenerator}. Only the patch is kept in memory: members removed or replaced by the patch
+ * are skipped in the parser, the others are streamed.
+ *
+ * The result is the same as {@link JsonMergePatchImpl#apply(JsonValue)} except that members
+ * added by the patch are written at the end of their object.
+ */
+@Experimental
+public final class StreamingJsonMergePatch {
+    private StreamingJsonMergePatch() {
+        // no-op
+    }
+
+    /**
+     * @param patch the patch to apply.
+     * @param parser the target document, no event must have been consumed yet.
+     * @param generator where to write the merged document, it is not closed.
+     */
+    public static void apply(final JsonMergePatch patch, final JsonParser parser, final JsonGenerator generator) {
+        apply(patch.toJsonValue(), parser, generator);
+    }
+
+    public static void apply(final JsonValue patch, final JsonParser parser, final JsonGenerator generator) {
+        if (!parser.hasNext()) {
+            throw new JsonParsingException("Nothing to read", parser.getLocation());
+        }
+        merge(parser, generator, parser.next(), null, patch == null ? JsonValue.NULL : patch);
+    }
+
+    private static void merge(final JsonParser parser, final JsonGenerator generator, final JsonParser.Event event,
+                              final String key, final JsonValue patch) {
+        if (event != JsonParser.Event.START_OBJECT || !JsonObject.class.isInstance(patch)) {
+            // merging is only done between objects, anything else is replaced by the patch
+            skip(parser, event);
+            write(generator, key, patch);
+            return;
+        }
+
+        final JsonObject patchObject = JsonObject.class.cast(patch);
+        if (key == null) {
+            generator.writeStartObject();
+        } else {
+            generator.writeStartObject(key);
+        }
+
+        final Set<String> merged = new HashSet<>();
+        JsonParser.Event next;
+        while ((next = parser.next()) != JsonParser.Event.END_OBJECT) {
+            final String name = parser.getString();
+            final JsonParser.Event valueEvent = parser.next();
+            final JsonValue patchValue = patchObject.get(name);
+            if (patchValue == null) {
+                copy(parser, generator, valueEvent, name);
+            } else {
+                merged.add(name);
+                if (JsonValue.NULL.equals(patchValue)) {
+                    skip(parser, valueEvent);
+                } else {
+                    merge(parser, generator, valueEvent, name, patchValue);
+                }
+            }
+        }
+
+        for (final Map.Entry<String, JsonValue> member : patchObject.entrySet()) {
+            if (!merged.contains(member.getKey()) && !JsonValue.NULL.equals(member.getValue())) {
+                generator.write(member.getKey(), member.getValue());
+            }
+        }
+        generator.writeEnd();
+    }
+
+    private static void copy(final JsonParser parser, final JsonGenerator generator, final JsonParser.Event event, final String key) {
+        switch (event) {
+            case START_OBJECT:
+                if (key == null) {
+                    generator.writeStartObject();
+                } else {
+                    generator.writeStartObject(key);
+                }
+                JsonParser.Event next;
+                while ((next = parser.next()) != JsonParser.Event.END_OBJECT) {
+                    final String name = parser.getString();
+                    copy(parser, generator, parser.next(), name);
+                }
+                generator.writeEnd();
+                break;
+            case START_ARRAY:
+                if (key == null) {
+                    generator.writeStartArray();
+                } else {
+                    generator.writeStartArray(key);
+                }
+                while ((next = parser.next()) != JsonParser.Event.END_ARRAY) {
+                    copy(parser, generator, next, null);
+                }
+                generator.writeEnd();
+                break;
+            case VALUE_STRING:
+                if (key == null) {
+                    generator.write(parser.getString());
+                } else {
+                    generator.write(key, parser.getString());
+                }
+                break;
+            case VALUE_NUMBER:
+                if (key == null) {
+                    generator.write(parser.getBigDecimal());
+                } else {
+                    generator.write(key, parser.getBigDecimal());
+                }
+                break;
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                if (key == null) {
+                    generator.write(event == JsonParser.Event.VALUE_TRUE);
+                } else {
+                    generator.write(key, event == JsonParser.Event.VALUE_TRUE);
+                }
+                break;
+            case VALUE_NULL:
+                if (key == null) {
+                    generator.writeNull();
+                } else {
+                    generator.writeNull(key);
+                }
+                break;
+            default:
+                throw new JsonParsingException(event.name() + ", shouldn't occur", parser.getLocation());
+        }
+    }
+
+    private static void skip(final JsonParser parser, final JsonParser.Event event) {
+        if (event != JsonParser.Event.START_OBJECT && event != JsonParser.Event.START_ARRAY) {
+            return;
+        }
+        int depth = 1;
+        while (depth > 0) {
+            switch (parser.next()) {
+                case START_OBJECT:
+                case START_ARRAY:
+                    depth++;
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                    depth--;
+                    break;
+                default:
+            }
+        }
+    }
+
+    private static void write(final JsonGenerator generator, final String key, final JsonValue value) {
+        if (key == null) {
+            generator.write(value);
+        } else {
+            generator.write(key, value);
+        }
+    }
+}
@@ -0,0 +1,470 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonPatch;
+import javax.json.JsonStructure;
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParsingException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Applies a {@link JsonPatch} while copying a document from a {@link JsonParser} to a {@link JsonGenerator}
+ * so the patched document is never fully loaded in memory.
+ *
+ * Each operation is attached to the deepest container holding all the paths it uses (path and from)
+ * and only the members of this container touched by the operation are read in memory,
+ * with the operations nested in these members to keep the patch order.
+ * The rest of the document is streamed as it is. Arrays are streamed element by element when their own
+ * operations only replace/test elements or append ("-") values, otherwise the whole array is read.
+ * An operation on the document itself ("") reads the whole document.
+ *
+ * The members only used by operations on a single member are patched where they are, added members and
+ * the members used by an operation on several members (move, copy) are written at the end of their object.
+ * A value removed or replaced before being used is skipped ({@link JsonParser#skipObject()},
+ * {@link JsonParser#skipArray()}) instead of being read.
+ */
+@Experimental
+public final class StreamingJsonPatch {
+    private final List<JsonPatchImpl.PatchValue> patches;
+    private final Node root = new Node();
+    private boolean wholeDocument;
+
+    private StreamingJsonPatch(final List<JsonPatchImpl.PatchValue> patches) {
+        this.patches = patches;
+        for (int i = 0; i < patches.size(); i++) {
+            final JsonPatchImpl.PatchValue patch = patches.get(i);
+            final JsonPointerImpl[] pointers = pointers(patch);
+
+            // owner = common parent of all the pointers of the operation
+            int depth = Integer.MAX_VALUE;
+            for (final JsonPointerImpl pointer : pointers) {
+                depth = Math.min(depth, pointer.getReferenceTokenCount() - 2);
+            }
+            if (depth < 0) {
+                wholeDocument = true;
+                return;
+            }
+            for (int d = 0; d < depth; d++) {
+                final String token = pointers[0].getReferenceToken(d + 1);
+                for (final JsonPointerImpl pointer : pointers) {
+                    if (!token.equals(pointer.getReferenceToken(d + 1))) {
+                        depth = d;
+                        break;
+                    }
+                }
+            }
+
+            Node node = root;
+            for (int d = 1; d <= depth; d++) {
+                node = node.child(pointers[0].getReferenceToken(d));
+            }
+            node.operations.add(i);
+            for (final JsonPointerImpl pointer : pointers) {
+                node.members.add(pointer.getReferenceToken(depth + 1));
+            }
+        }
+        root.promote();
+    }
+
+    /**
+     * @param patch the patch to apply.
+     * @param parser the source document, no event must have been consumed yet.
+     * @param generator where to write the patched document, it is not closed.
+     */
+    public static void apply(final JsonPatch patch, final JsonParser parser, final JsonGenerator generator) {
+        final JsonPatchImpl impl = JsonPatchImpl.class.isInstance(patch) ?
+                JsonPatchImpl.class.cast(patch) : JsonPatchImpl.class.cast(new JsonPatchBuilderImpl(patch.toJsonArray()).build());
+        new StreamingJsonPatch(impl.getPatches()).apply(parser, generator);
+    }
+
+    private void apply(final JsonParser parser, final JsonGenerator generator) {
+        if (!parser.hasNext()) {
+            throw new JsonParsingException("Nothing to read", parser.getLocation());
+        }
+        final JsonParser.Event event = parser.next();
+        if (wholeDocument) {
+            final JsonValue document = read(parser, event);
+            if (!JsonStructure.class.isInstance(document)) {
+                throw new JsonException("'" + document + "' is not a json structure");
+            }
+            generator.write(new JsonPatchImpl(patches).apply(JsonStructure.class.cast(document)));
+            return;
+        }
+        stream(parser, generator, event, null, root, 0);
+    }
+
+    private void stream(final JsonParser parser, final JsonGenerator generator, final JsonParser.Event event,
+                        final String key, final Node node, final int depth) {
+        switch (event) {
+            case START_OBJECT:
+                streamObject(parser, generator, key, node, depth);
+                break;
+            case START_ARRAY:
+                if (node != null && !node.operations.isEmpty() && !isStreamable(node, depth)) {
+                    final List<Integer> operations = new ArrayList<>();
+                    node.collect(operations);
+                    Collections.sort(operations);
+                    write(generator, key, patch(operations, depth, null, readArray(parser)));
+                } else {
+                    streamArray(parser, generator, key, node, depth);
+                }
+                break;
+            default:
+                final JsonValue value = read(parser, event);
+                if (node != null && (!node.operations.isEmpty() || !node.children.isEmpty())) {
+                    throw new JsonException("'" + value + "' contains no element for '" + node.firstToken() + "'");
+                }
+                write(generator, key, value);
+        }
+    }
+
+    private void streamObject(final JsonParser parser, final JsonGenerator generator, final String key, final Node node, final int depth) {
+        if (key == null) {
+            generator.writeStartObject();
+        } else {
+            generator.writeStartObject(key);
+        }
+
+        // operations only using one member are applied where the member is, the others once the object is read
+        final Map<String, List<Integer>> memberOperations = new HashMap<>();
+        final List<Integer> sharedOperations = new ArrayList<>();
+        if (node != null && !node.operations.isEmpty()) {
+            split(node, depth, memberOperations, sharedOperations);
+        }
+        final Map<String, JsonValue> shared = sharedOperations.isEmpty() ? null : new LinkedHashMap<String, JsonValue>();
+
+        JsonParser.Event event;
+        while ((event = parser.next()) != JsonParser.Event.END_OBJECT) {
+            final String name = parser.getString();
+            final JsonParser.Event valueEvent = parser.next();
+            final List<Integer> operations = memberOperations.remove(name);
+            if (operations != null) {
+                final JsonValue value = readOrSkip(parser, valueEvent, operations, depth, name);
+                writeMembers(generator, patch(operations, depth, null, new JsonObjectImpl(Collections.singletonMap(name, value))));
+            } else if (shared != null && node.members.contains(name)) {
+                shared.put(name, readOrSkip(parser, valueEvent, sharedOperations, depth, name));
+            } else {
+                stream(parser, generator, valueEvent, name, node == null ? null : node.children.remove(name), depth + 1);
+            }
+        }
+
+        if (node != null && !node.children.isEmpty()) {
+            throw new JsonException("Object at depth " + depth + " contains no value for name '" + node.firstToken() + "'");
+        }
+        for (final List<Integer> operations : memberOperations.values()) { // members not in the document
+            writeMembers(generator, patch(operations, depth, null, JsonValue.EMPTY_JSON_OBJECT));
+        }
+        if (shared != null) {
+            writeMembers(generator, patch(sharedOperations, depth, null, new JsonObjectImpl(Collections.unmodifiableMap(shared))));
+        }
+        generator.writeEnd();
+    }
+
+    private void streamArray(final JsonParser parser, final JsonGenerator generator, final String key, final Node node, final int depth) {
+        if (key == null) {
+            generator.writeStartArray();
+        } else {
+            generator.writeStartArray(key);
+        }
+
+        final Map<Integer, List<Integer>> elementOperations = new TreeMap<>();
+        final List<JsonValue> appended = new ArrayList<>();
+        if (node != null) {
+            for (final Integer operation : node.operations) {
+                final JsonPatchImpl.PatchValue patch = patches.get(operation);
+                if (patch.path.getReferenceTokenCount() == depth + 2 && "-".equals(patch.path.getReferenceToken(depth + 1))) {
+                    appended.add(patch.value);
+                    continue;
+                }
+                final Integer index = patch.path.getArrayIndex(depth + 1);
+                List<Integer> operations = elementOperations.get(index);
+                if (operations == null) {
+                    operations = new ArrayList<>();
+                    elementOperations.put(index, operations);
+                }
+                operations.add(operation);
+            }
+        }
+
+        int index = 0;
+        JsonParser.Event event;
+        while ((event = parser.next()) != JsonParser.Event.END_ARRAY) {
+            final List<Integer> operations = elementOperations.remove(index);
+            if (operations != null) {
+                final JsonValue value = readOrSkip(parser, event, operations, depth, String.valueOf(index));
+                final JsonArray element = new JsonArrayImpl(Collections.singletonList(value));
+                generator.write(patch(operations, depth, "0", element).get(0));
+            } else {
+                stream(parser, generator, event, null, node == null ? null : node.children.remove(String.valueOf(index)), depth + 1);
+            }
+            index++;
+        }
+
+        if (!elementOperations.isEmpty()) {
+            throw new JsonException("Array at depth " + depth + " contains no element for index " + elementOperations.keySet().iterator().next());
+        }
+        if (node != null && !node.children.isEmpty()) {
+            throw new JsonException("Array at depth " + depth + " contains no element for '" + node.firstToken() + "'");
+        }
+        for (final JsonValue value : appended) {
+            generator.write(value);
+        }
+        generator.writeEnd();
+    }
+
+    // splits the operations of an object node between the ones using a single member and the others
+    private void split(final Node node, final int depth, final Map<String, List<Integer>> memberOperations,
+                       final List<Integer> sharedOperations) {
+        final Set<String> sharedMembers = new HashSet<>();
+        for (final Integer operation : node.operations) {
+            final JsonPointerImpl[] pointers = pointers(patches.get(operation));
+            final String member = pointers[0].getReferenceToken(depth + 1);
+            for (final JsonPointerImpl pointer : pointers) {
+                if (!member.equals(pointer.getReferenceToken(depth + 1))) {
+                    for (final JsonPointerImpl p : pointers) {
+                        sharedMembers.add(p.getReferenceToken(depth + 1));
+                    }
+                    break;
+                }
+            }
+        }
+        for (final Integer operation : node.operations) { // sorted so the lists keep the patch order
+            final String member = patches.get(operation).path.getReferenceToken(depth + 1);
+            if (sharedMembers.contains(member)) {
+                sharedOperations.add(operation);
+                continue;
+            }
+            List<Integer> operations = memberOperations.get(member);
+            if (operations == null) {
+                operations = new ArrayList<>();
+                memberOperations.put(member, operations);
+            }
+            operations.add(operation);
+        }
+    }
+
+    // the value is only read if an operation uses it, a placeholder is returned otherwise
+    private JsonValue readOrSkip(final JsonParser parser, final JsonParser.Event event, final List<Integer> operations,
+                                 final int depth, final String member) {
+        if (!isOverwritten(operations, depth, member)) {
+            return read(parser, event);
+        }
+        if (event == JsonParser.Event.START_OBJECT) {
+            parser.skipObject();
+        } else if (event == JsonParser.Event.START_ARRAY) {
+            parser.skipArray();
+        }
+        return JsonValue.NULL;
+    }
+
+    // true if the first operation using the member removes or replaces it
+    private boolean isOverwritten(final List<Integer> operations, final int depth, final String member) {
+        for (final Integer operation : operations) {
+            final JsonPatchImpl.PatchValue patch = patches.get(operation);
+            for (final JsonPointerImpl pointer : pointers(patch)) {
+                if (member.equals(pointer.getReferenceToken(depth + 1))) {
+                    return patch.from == null && patch.path.getReferenceTokenCount() == depth + 2
+                            && (patch.operation == JsonPatch.Operation.REMOVE || patch.operation == JsonPatch.Operation.REPLACE
+                            || patch.operation == JsonPatch.Operation.ADD);
+                }
+            }
+        }
+        return false;
+    }
+
+    // an array can be streamed if its operations don't shift its elements
+    private boolean isStreamable(final Node node, final int depth) {
+        int firstAppend = Integer.MAX_VALUE;
+        for (final Integer operation : node.operations) {
+            final JsonPatchImpl.PatchValue patch = patches.get(operation);
+            final JsonPointerImpl[] pointers = pointers(patch);
+            final String member = pointers[0].getReferenceToken(depth + 1);
+            for (final JsonPointerImpl pointer : pointers) {
+                if (!member.equals(pointer.getReferenceToken(depth + 1))) { // move/copy between elements
+                    return false;
+                }
+                if (pointer.getReferenceTokenCount() == depth + 2) { // operation on the element itself
+                    final boolean append = patch.operation == JsonPatch.Operation.ADD && "-".equals(member);
+                    if (append) {
+                        firstAppend = Math.min(firstAppend, operation);
+                    } else if (patch.operation != JsonPatch.Operation.REPLACE && patch.operation != JsonPatch.Operation.TEST) {
+                        return false;
+                    }
+                } else if ("-".equals(member)) {
+                    return false;
+                }
+            }
+        }
+        if (firstAppend != Integer.MAX_VALUE) { // appended elements are only written at the end, they can't be addressed by index
+            final List<Integer> operations = new ArrayList<>();
+            node.collect(operations);
+            for (final Integer operation : operations) {
+                final JsonPatchImpl.PatchValue patch = patches.get(operation);
+                if (operation > firstAppend && !"-".equals(patch.path.getReferenceToken(depth + 1))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // applies the operations relatively to the container at depth, member replaces the first token if not null
+    private <T extends JsonStructure> T patch(final List<Integer> operations, final int depth, final String member, final T target) {
+        final List<JsonPatchImpl.PatchValue> relative = new ArrayList<>(operations.size());
+        for (final Integer operation : operations) {
+            final JsonPatchImpl.PatchValue patch = patches.get(operation);
+            relative.add(new JsonPatchImpl.PatchValue(
+                    patch.operation,
+                    relative(patch.path, depth, member),
+                    patch.from == null ? null : relative(patch.from, depth, member),
+                    patch.value));
+        }
+        return new JsonPatchImpl(relative).apply(target);
+    }
+
+    private static String relative(final JsonPointerImpl pointer, final int depth, final String member) {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = depth + 1; i < pointer.getReferenceTokenCount(); i++) {
+            builder.append('/').append(JsonPointerUtil.encode(member != null && i == depth + 1 ? member : pointer.getReferenceToken(i)));
+        }
+        return builder.toString();
+    }
+
+    private static JsonPointerImpl[] pointers(final JsonPatchImpl.PatchValue patch) {
+        return patch.from == null ? new JsonPointerImpl[] { patch.path } : new JsonPointerImpl[] { patch.path, patch.from };
+    }
+
+    private static void writeMembers(final JsonGenerator generator, final JsonObject object) {
+        for (final Map.Entry<String, JsonValue> member : object.entrySet()) {
+            generator.write(member.getKey(), member.getValue());
+        }
+    }
+
+    private static void write(final JsonGenerator generator, final String key, final JsonValue value) {
+        if (key == null) {
+            generator.write(value);
+        } else {
+            generator.write(key, value);
+        }
+    }
+
+    private static JsonValue read(final JsonParser parser, final JsonParser.Event event) {
+        switch (event) {
+            case START_OBJECT:
+                return readObject(parser);
+            case START_ARRAY:
+                return readArray(parser);
+            case VALUE_STRING:
+                return new JsonStringImpl(parser.getString());
+            case VALUE_NUMBER:
+                final BigDecimal number = parser.getBigDecimal();
+                if (parser.isIntegralNumber() && number.precision() < 19) {
+                    return new JsonLongImpl(number.longValue());
+                }
+                return new JsonNumberImpl(number);
+            case VALUE_TRUE:
+                return JsonValue.TRUE;
+            case VALUE_FALSE:
+                return JsonValue.FALSE;
+            case VALUE_NULL:
+                return JsonValue.NULL;
+            default:
+                throw new JsonParsingException(event.name() + ", shouldn't occur", parser.getLocation());
+        }
+    }
+
+    private static JsonObject readObject(final JsonParser parser) {
+        final JsonObjectBuilder builder = new JsonObjectBuilderImpl();
+        JsonParser.Event event;
+        while ((event = parser.next()) != JsonParser.Event.END_OBJECT) {
+            if (event != JsonParser.Event.KEY_NAME) {
+                throw new JsonParsingException(event.name() + ", shouldn't occur", parser.getLocation());
+            }
+            final String key = parser.getString();
+            builder.add(key, read(parser, parser.next()));
+        }
+        return builder.build();
+    }
+
+    private static JsonArray readArray(final JsonParser parser) {
+        final JsonArrayBuilder builder = new JsonArrayBuilderImpl();
+        JsonParser.Event event;
+        while ((event = parser.next()) != JsonParser.Event.END_ARRAY) {
+            builder.add(read(parser, event));
+        }
+        return builder.build();
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private final List<Integer> operations = new ArrayList<>(); // indexes in the patch
+        private final Set<String> members = new HashSet<>(); // members touched by the operations
+
+        private Node child(final String token) {
+            Node child = children.get(token);
+            if (child == null) {
+                child = new Node();
+                children.put(token, child);
+            }
+            return child;
+        }
+
+        // operations nested in a touched member are applied with the operations of this node
+        private void promote() {
+            for (final String member : members) {
+                final Node child = children.remove(member);
+                if (child != null) {
+                    child.collect(operations);
+                }
+            }
+            Collections.sort(operations);
+            for (final Node child : children.values()) {
+                child.promote();
+            }
+        }
+
+        private void collect(final List<Integer> target) {
+            target.addAll(operations);
+            for (final Node child : children.values()) {
+                child.collect(target);
+            }
+        }
+
+        private String firstToken() {
+            return (members.isEmpty() ? children.keySet() : members).iterator().next();
+        }
+    }
+}
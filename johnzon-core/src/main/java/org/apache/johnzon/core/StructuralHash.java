@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.json.JsonNumber;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+/**
+ * Hash of a json tree consistent with the equals() of our values, cached on each container.
+ *
+ * It is not the {@link Object#hashCode()} of the values since numbers of different implementations
+ * can be equal (a long and a double for instance) while their hashCode() differ so
+ * numbers contribute their longValue(), which numbers equal for our equals() implementations share
+ * (they compare longValue(), doubleValue() or the BigDecimal), and other values only their value type.
+ * Numbers out of the long range only contribute their value type too since their longValue() is saturated
+ * for a double but truncated for a BigDecimal.
+ * The only exception is a double compared to a number more precise than a double,
+ * which equals() doesn't handle symmetrically either.
+ * Two values with different structural hashes are never equal which lets equals() and the diff engines
+ * reject or skip a subtree without walking it.
+ */
+final class StructuralHash {
+    private static final double LONG_RANGE = 0x1p63;
+    private StructuralHash() {
+        // no-op
+    }
+
+    static int of(final JsonValue value) {
+        if (JsonObjectImpl.class.isInstance(value)) {
+            return JsonObjectImpl.class.cast(value).structuralHash();
+        }
+        if (JsonArrayImpl.class.isInstance(value)) {
+            return JsonArrayImpl.class.cast(value).structuralHash();
+        }
+        if (JsonString.class.isInstance(value)) {
+            return JsonString.class.cast(value).getString().hashCode();
+        }
+        if (JsonNumber.class.isInstance(value)) {
+            final JsonNumber number = JsonNumber.class.cast(value);
+            final double doubleValue = number.doubleValue();
+            if (doubleValue >= -LONG_RANGE && doubleValue < LONG_RANGE) {
+                return Long.hashCode(number.longValue());
+            }
+        }
+        return value == null ? 0 : value.getValueType().ordinal();
+    }
+
+    static int ofObject(final Map<String, JsonValue> members) {
+        int h = 1;
+        for (final Map.Entry<String, JsonValue> entry : members.entrySet()) {
+            h += entry.getKey().hashCode() ^ of(entry.getValue()); // member order doesn't matter
+        }
+        return h;
+    }
+
+    static int ofArray(final List<JsonValue> items) {
+        int h = 2;
+        for (final JsonValue item : items) {
+            h = 31 * h + of(item);
+        }
+        return h;
+    }
+
+    /**
+     * @return true if both values are equal, using identity and structural hashes before a deep comparison.
+     */
+    static boolean same(final JsonValue source, final JsonValue target) {
+        return source == target || (of(source) == of(target) && source.equals(target));
+    }
+}
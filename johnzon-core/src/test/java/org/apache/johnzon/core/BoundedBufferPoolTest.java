@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import org.junit.Test;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import java.io.StringReader;
+import java.util.HashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class BoundedBufferPoolTest {
+    @Test
+    public void retainsAtMostMaxRetained() {
+        final BoundedBufferPool<char[]> pool = new CharPool(2);
+        assertNull(pool.acquire());
+
+        assertTrue(pool.release(new char[16]));
+        assertTrue(pool.release(new char[16]));
+        assertFalse(pool.release(new char[16]));
+        assertEquals(2, pool.retained());
+
+        assertNotNull(pool.acquire());
+        assertNotNull(pool.acquire());
+        assertNull(pool.acquire());
+        assertEquals(0, pool.retained());
+    }
+
+    @Test
+    public void slotsAreCappedByMaxRetained() {
+        for (int max = 0; max < 7; max++) {
+            final BoundedBufferPool<char[]> pool = new CharPool(max);
+            int retained = 0;
+            while (retained < 8 && pool.release(new char[1])) {
+                retained++;
+            }
+            assertEquals(max, retained);
+            assertEquals(max, pool.retained());
+        }
+    }
+
+    @Test
+    public void reuse() {
+        final BoundedBufferPool<char[]> pool = new CharPool(4);
+        final char[] buffer = new char[8];
+        final long before = BoundedBufferPool.retainedBytes();
+        assertTrue(pool.release(buffer));
+        assertEquals(before + 16, BoundedBufferPool.retainedBytes());
+        assertSame(buffer, pool.acquire());
+        assertEquals(before, BoundedBufferPool.retainedBytes());
+    }
+
+    @Test
+    public void idleBuffersAreEvicted() {
+        final BoundedBufferPool<char[]> pool = new CharPool(4);
+        final BufferStats stats = new BufferStats(2);
+        final long before = BoundedBufferPool.retainedBytes();
+        assertTrue(pool.release(new char[1], stats));
+        stats.onRelease(true);
+        assertEquals(1, stats.getRetained());
+
+        pool.trim(System.currentTimeMillis() + BoundedBufferPool.IDLE_TIMEOUT);
+        assertEquals(0, pool.retained());
+        assertEquals(before, BoundedBufferPool.retainedBytes());
+        assertEquals(1, stats.getEvicted());
+        assertEquals(0, stats.getRetained());
+    }
+
+    @Test
+    public void rejectsBuffersOverTheBudget() {
+        final BoundedBufferPool<char[]> pool = new CharPool(4) {
+            @Override
+            protected long sizeOf(final char[] buffer) {
+                return BoundedBufferPool.MAX_BYTES + 1;
+            }
+        };
+        assertFalse(pool.release(new char[1]));
+        assertEquals(0, pool.retained());
+    }
+
+    @Test
+    public void boundedStrategy() {
+        final HashMap<String, Object> config = new HashMap<String, Object>();
+        config.put(AbstractJsonFactory.BUFFER_STRATEGY, "bounded");
+        config.put(JsonParserFactoryImpl.MAX_STRING_LENGTH, 1024);
+        for (int i = 0; i < 3; i++) {
+            final JsonObject object = Json.createReaderFactory(config).createReader(new StringReader("{\"a\":\"b\"}")).readObject();
+            assertEquals("b", object.getString("a"));
+        }
+    }
+
+    private static class CharPool extends BoundedBufferPool<char[]> {
+        private CharPool(final int maxRetained) {
+            super(maxRetained);
+        }
+
+        @Override
+        protected long sizeOf(final char[] buffer) {
+            return buffer.length * 2L;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import org.junit.Test;
+
+import javax.json.Json;
+import javax.json.stream.JsonParser;
+import javax.management.ObjectName;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class BufferStrategyTest {
+    @Test
+    public void stripedReusesReleasedBuffer() {
+        final BufferStrategy.BufferProvider<char[]> provider = BufferStrategy.STRIPED.newCharProvider(16);
+        final char[] buffer = provider.newBuffer();
+        assertEquals(16, buffer.length);
+        assertNotSame(buffer, provider.newBuffer()); // still in use
+        provider.release(buffer);
+        assertSame(buffer, provider.newBuffer());
+    }
+
+    @Test
+    public void stripedStringBuilderIsCleared() {
+        final BufferStrategy.BufferProvider<StringBuilder> provider = BufferStrategy.STRIPED.newStringBuilderProvider(16);
+        final StringBuilder builder = provider.newBuffer();
+        builder.append("test");
+        provider.release(builder);
+        assertEquals(0, provider.newBuffer().length());
+    }
+
+    @Test
+    public void stripedConcurrentGeneration() throws Exception {
+        final HashMap<String, Object> config = new HashMap<String, Object>();
+        config.put(AbstractJsonFactory.BUFFER_STRATEGY, "striped");
+        config.put(JsonGeneratorFactoryImpl.GENERATOR_BUFFER_LENGTH, 8);
+        final JsonGeneratorFactoryImpl factory = JsonGeneratorFactoryImpl.class.cast(Json.createGeneratorFactory(config));
+
+        final ExecutorService es = Executors.newFixedThreadPool(16);
+        try {
+            final Collection<Future<String>> results = new ArrayList<Future<String>>();
+            for (int i = 0; i < 500; i++) {
+                final int value = i;
+                results.add(es.submit(new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        final StringWriter writer = new StringWriter();
+                        factory.createGenerator(writer).writeStartObject().write("value", "v" + value).writeEnd().close();
+                        return writer.toString();
+                    }
+                }));
+            }
+            int i = 0;
+            for (final Future<String> result : results) {
+                assertEquals("{\"value\":\"v" + i++ + "\"}", result.get());
+            }
+        } finally {
+            es.shutdownNow();
+        }
+    }
+
+    @Test
+    public void stats() {
+        final BufferStrategy.BufferProvider<char[]> provider = BufferStrategy.QUEUE.newCharProvider(16);
+        final BufferStats stats = BufferStrategy.instrument(provider, 32);
+        final char[] first = provider.newBuffer();
+        final char[] second = provider.newBuffer();
+        provider.release(first);
+        provider.release(second);
+        provider.release(provider.newBuffer());
+        assertEquals(2, stats.getCreated());
+        assertEquals(1, stats.getReused());
+        assertEquals(3, stats.getReleased());
+        assertEquals(0, stats.getDropped());
+        assertEquals(2, stats.getRetained());
+        assertEquals(64, stats.getPeakBytes());
+
+        final BufferStrategy.BufferProvider<char[]> byInstance = BufferStrategy.BY_INSTANCE.newCharProvider(16);
+        final BufferStats byInstanceStats = BufferStrategy.instrument(byInstance, 32);
+        byInstance.release(byInstance.newBuffer());
+        assertEquals(1, byInstanceStats.getCreated());
+        assertEquals(1, byInstanceStats.getDropped());
+        assertEquals(0, byInstanceStats.getRetained());
+    }
+
+    @Test
+    public void statsInConfigAndJmx() throws Exception {
+        final HashMap<String, Object> config = new HashMap<String, Object>();
+        config.put(AbstractJsonFactory.BUFFER_STATS_JMX_NAME, "test");
+        final JsonParserFactoryImpl factory = JsonParserFactoryImpl.class.cast(Json.createParserFactory(config));
+        for (int i = 0; i < 3; i++) {
+            final JsonParser parser = factory.createParser(new StringReader("{\"a\":\"b\"}"));
+            while (parser.hasNext()) {
+                parser.next();
+            }
+            parser.close();
+        }
+
+        final Map<String, BufferProviderStats> stats = Map.class.cast(factory.getConfigInUse().get(AbstractJsonFactory.BUFFER_STATS_IN_USE));
+        assertEquals(1, stats.get("buffer").getCreated());
+        assertEquals(2, stats.get("buffer").getReused());
+        assertEquals(1, stats.get("buffer").getRetained());
+
+        final ObjectName name = new ObjectName("org.apache.johnzon:type=BufferProviderStats,name=\"test\",factory=JsonParserFactoryImpl,buffer=buffer");
+        assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+        assertEquals(2L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Reused"));
+        factory.close();
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(new ObjectName(name.toString().replace("buffer=buffer", "buffer=value"))));
+    }
+
+    @Test
+    public void closeKeepsStatsOfNewerFactory() throws Exception {
+        final HashMap<String, Object> config = new HashMap<String, Object>();
+        config.put(AbstractJsonFactory.BUFFER_STATS_JMX_NAME, "replaced");
+        final JsonGeneratorFactoryImpl first = JsonGeneratorFactoryImpl.class.cast(Json.createGeneratorFactory(config));
+        final JsonGeneratorFactoryImpl second = JsonGeneratorFactoryImpl.class.cast(Json.createGeneratorFactory(config));
+        final ObjectName name = new ObjectName("org.apache.johnzon:type=BufferProviderStats,name=\"replaced\",factory=JsonGeneratorFactoryImpl,buffer=buffer");
+        first.close();
+        assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+        second.close();
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+}
@@ -28,16 +28,22 @@ import javax.json.JsonWriter;
 import javax.json.JsonWriterFactory;
 import javax.json.stream.JsonGenerationException;
 import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonGeneratorFactory;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.StringWriter;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.charset.Charset;
 import java.util.HashMap;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 public class JsonGeneratorImplTest {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
     @Test
     public void notFluentGeneratorUsage() {
         final ByteArrayOutputStream baos = new ByteArrayOutputStream();
@@ -414,4 +420,154 @@ public class JsonGeneratorImplTest {
 
         assertEquals("{\n" + "  \"firstName\":\"John\"\n" + "}", buffer.toString());
     }
+
+    @Test
+    public void pooledGeneratorIsReused() {
+        final JsonGeneratorFactory factory = Json.createGeneratorFactory(new HashMap<String, Object>() {{
+            put(JsonGeneratorFactoryImpl.GENERATOR_POOL_SIZE, 1);
+        }});
+
+        final ByteArrayOutputStream first = new ByteArrayOutputStream();
+        final PooledJsonGenerator generator = PooledJsonGenerator.class.cast(factory.createGenerator(first));
+        final JsonGeneratorImpl pooled = generator.generator;
+        generator.writeStartObject().write("a", "\u00e9\ud83d\ude00").writeEnd().close();
+        generator.close(); // closing twice must not pool the generator twice
+        assertEquals("{\"a\":\"\u00e9\ud83d\ude00\"}", new String(first.toByteArray(), UTF8));
+
+        final StringWriter second = new StringWriter();
+        final PooledJsonGenerator reused = PooledJsonGenerator.class.cast(factory.createGenerator(second));
+        assertSame(generator, reused); // the handle is pooled with its generator
+        assertSame(pooled, reused.generator);
+        reused.writeStartArray().write(1).writeEnd().close();
+        assertEquals("[1]", second.toString());
+
+        final ByteArrayOutputStream third = new ByteArrayOutputStream();
+        assertSame(pooled, PooledJsonGenerator.class.cast(factory.createGenerator(third)).generator);
+        assertNotSame(pooled, PooledJsonGenerator.class.cast(factory.createGenerator(new StringWriter())).generator);
+    }
+
+    @Test
+    public void closedHandleIsDetached() {
+        final JsonGeneratorFactory factory = Json.createGeneratorFactory(new HashMap<String, Object>() {{
+            put(JsonGeneratorFactoryImpl.GENERATOR_POOL_SIZE, 1);
+        }});
+
+        final JsonGenerator first = factory.createGenerator(new StringWriter());
+        first.writeStartArray().writeEnd().close();
+        first.close(); // try-with-resources + explicit close
+        try {
+            first.flush();
+            Assert.fail("closed generator shouldn't be usable");
+        } catch (final IllegalStateException ise) {
+            // expected
+        }
+
+        final StringWriter out = new StringWriter();
+        final JsonGenerator second = factory.createGenerator(out);
+        second.writeStartObject().write("a", 1).writeEnd().close();
+        assertEquals("{\"a\":1}", out.toString());
+    }
+
+    @Test
+    public void pooledGeneratorAfterFailure() {
+        final JsonGeneratorFactory factory = Json.createGeneratorFactory(new HashMap<String, Object>() {{
+            put(JsonGeneratorFactoryImpl.GENERATOR_POOL_SIZE, 1);
+        }});
+
+        final JsonGenerator generator = factory.createGenerator(new StringWriter());
+        final JsonGeneratorImpl failed = PooledJsonGenerator.class.cast(generator).generator;
+        generator.writeStartObject().write("a", 1);
+        try {
+            generator.close();
+            Assert.fail("unfinished object shouldn't be closed silently");
+        } catch (final JsonGenerationException jge) {
+            // expected
+        }
+
+        final StringWriter out = new StringWriter();
+        final JsonGenerator next = factory.createGenerator(out);
+        assertNotSame(failed, PooledJsonGenerator.class.cast(next).generator); // not pooled
+        next.writeStartObject().write("b", 2).writeEnd().close();
+        assertEquals("{\"b\":2}", out.toString());
+    }
+
+    @Test
+    public void surrogatePairSplitAcrossBuffers() {
+        final String emoji = "\ud83d\ude00";
+        final JsonGeneratorFactory factory = Json.createGeneratorFactory(new HashMap<String, Object>() {{
+            put(JsonGeneratorFactoryImpl.GENERATOR_BUFFER_LENGTH, 2);
+        }});
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        factory.createGenerator(baos).writeStartArray().write(emoji + emoji).writeEnd().close();
+        assertEquals("[\"" + emoji + emoji + "\"]", new String(baos.toByteArray(), UTF8));
+    }
+
+    @Test
+    public void rawFragments() {
+        final StringWriter out = new StringWriter();
+        final RawJsonGenerator generator = RawJsonGenerator.class.cast(Json.createGenerator(out));
+        generator.writeStartObject().write("a", 1);
+        generator.writeRaw("profile", "{\"name\":\"john\",\"tags\":[1,2]}")
+                .writeStartArray("items");
+        generator.writeRawValue("{\"id\":1}")
+                .writeRawValue("true".getBytes(UTF8))
+                .write("x")
+                .writeEnd()
+                .writeKey("last");
+        generator.writeRawValue("null")
+                .writeEnd()
+                .close();
+
+        assertEquals("{\"a\":1,\"profile\":{\"name\":\"john\",\"tags\":[1,2]},\"items\":[{\"id\":1},true,\"x\"],\"last\":null}",
+                out.toString());
+    }
+
+    @Test
+    public void writeKeyThenValue() {
+        final StringWriter out = new StringWriter();
+        Json.createGenerator(out).writeStartObject()
+                .writeKey("a").write(1)
+                .writeKey("b").write("c")
+                .writeKey("d").writeStartArray().write(true).writeEnd()
+                .writeKey("e").writeNull()
+                .writeEnd()
+                .close();
+        assertEquals("{\"a\":1,\"b\":\"c\",\"d\":[true],\"e\":null}", out.toString());
+    }
+
+    @Test
+    public void rawTopLevelValue() {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final RawJsonGenerator generator = RawJsonGenerator.class.cast(Json.createGenerator(baos));
+        generator.writeRawValue("[1,{\"a\":\"\u00e9\"}]".getBytes(UTF8)).close();
+        assertEquals("[1,{\"a\":\"\u00e9\"}]", new String(baos.toByteArray(), UTF8));
+    }
+
+    @Test(expected = JsonGenerationException.class)
+    public void rawValueInObject() {
+        final RawJsonGenerator generator = RawJsonGenerator.class.cast(Json.createGenerator(new StringWriter()));
+        generator.writeStartObject();
+        generator.writeRawValue("1");
+    }
+
+    @Test
+    public void rawValidation() {
+        final JsonGeneratorFactory factory = Json.createGeneratorFactory(new HashMap<String, Object>() {{
+            put(JsonGeneratorFactoryImpl.GENERATOR_VALIDATE_RAW, true);
+        }});
+        for (final String valid : new String[] { "1", " -1.2e3 ", "\"a]\\\"\"", "{\"a\":[1,{\"b\":null}]}", "[]" }) {
+            final StringWriter out = new StringWriter();
+            RawJsonGenerator.class.cast(factory.createGenerator(out)).writeRawValue(valid).close();
+            assertEquals(valid, out.toString());
+        }
+        for (final String invalid : new String[] { "", " ", "{\"a\":1", "[1}", "\"abc", "1 2", "{}{}", "]" }) {
+            try {
+                RawJsonGenerator.class.cast(factory.createGenerator(new StringWriter())).writeRawValue(invalid);
+                Assert.fail(invalid + " should be rejected");
+            } catch (final JsonGenerationException jge) {
+                // ok
+            }
+        }
+    }
 }
@@ -116,4 +116,14 @@ public class JsonObjectBuilderImplTest {
         final JsonObjectBuilder builder = Json.createObjectBuilder();
         builder.add(null, "b");
     }
+
+    @Test
+    public void copyOnWrite() {
+        final JsonObject initial = Json.createObjectBuilder().add("a", "b").build();
+        Assert.assertSame(initial, Json.createObjectBuilder(initial).build());
+
+        final JsonObject modified = Json.createObjectBuilder(initial).add("c", "d").build();
+        assertEquals("{\"a\":\"b\",\"c\":\"d\"}", modified.toString());
+        assertEquals("{\"a\":\"b\"}", initial.toString());
+    }
 }
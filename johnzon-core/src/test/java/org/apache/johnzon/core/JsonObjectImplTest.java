@@ -23,6 +23,8 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.math.BigDecimal;
+
 import javax.json.Json;
 import javax.json.JsonObject;
 import javax.json.JsonObjectBuilder;
@@ -38,6 +40,30 @@ public class JsonObjectImplTest {
         assertEquals("{\"a\":\"b\"}", ob.build().toString());
     }
 
+    @Test
+    public void equalsUsesStructuralHash() {
+        final JsonObject long1 = Json.createObjectBuilder().add("a", 1).add("b", "c").build();
+        final JsonObject double1 = Json.createObjectBuilder().add("b", "c").add("a", 1.).build();
+        assertTrue(long1.equals(double1)); // numbers participate to the structural hash through their long value
+        assertEquals(((JsonObjectImpl) long1).structuralHash(), ((JsonObjectImpl) double1).structuralHash());
+
+        final JsonObject other = Json.createObjectBuilder().add("a", 1).add("b", "d").build();
+        assertFalse(((JsonObjectImpl) long1).structuralHash() == ((JsonObjectImpl) other).structuralHash());
+        assertFalse(long1.equals(other));
+
+        final JsonObject two = Json.createObjectBuilder().add("a", 2).add("b", "c").build();
+        assertFalse(((JsonObjectImpl) long1).structuralHash() == ((JsonObjectImpl) two).structuralHash());
+    }
+
+    @Test
+    public void equalsWithNumbersOutOfTheLongRange() {
+        final JsonObject double1e20 = Json.createObjectBuilder().add("a", new JsonDoubleImpl(1e20)).build();
+        final JsonObject decimal1e20 = Json.createObjectBuilder().add("a", new JsonNumberImpl(new BigDecimal("1e20"))).build();
+        assertTrue(double1e20.equals(decimal1e20));
+        assertTrue(Json.createArrayBuilder().add(new JsonDoubleImpl(-1e20)).build()
+                .equals(Json.createArrayBuilder().add(new JsonNumberImpl(new BigDecimal("-1e20"))).build()));
+    }
+
 
     @Test(expected = NullPointerException.class)
     public void testGetBooleanMissingKeyShouldThrowNullPointerException() {
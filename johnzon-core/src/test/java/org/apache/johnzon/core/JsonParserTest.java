@@ -39,6 +39,7 @@ import javax.json.Json;
 import javax.json.JsonArray;
 import javax.json.JsonArrayBuilder;
 import javax.json.JsonException;
+import javax.json.JsonNumber;
 import javax.json.JsonObjectBuilder;
 import javax.json.JsonReader;
 import javax.json.stream.JsonParser;
@@ -1812,6 +1813,48 @@ public class JsonParserTest {
         }
     }
 
+    @Test
+    public void getValues() {
+        final JsonParser parser = Json.createParser(new StringReader("{\"a\":{\"b\":[1,\"c\"]},\"d\":[true,null],\"e\":2.5}"));
+        assertEquals(Event.START_OBJECT, parser.next());
+        assertEquals(Event.KEY_NAME, parser.next());
+        assertEquals(Event.START_OBJECT, parser.next());
+        assertEquals("{\"b\":[1,\"c\"]}", parser.getObject().toString());
+        assertEquals(Event.KEY_NAME, parser.next());
+        assertEquals("d", parser.getValue().toString().replace("\"", ""));
+        assertEquals(Event.START_ARRAY, parser.next());
+        assertEquals("[true,null]", parser.getArray().toString());
+        assertEquals(Event.KEY_NAME, parser.next());
+        assertEquals(Event.VALUE_NUMBER, parser.next());
+        assertEquals(new BigDecimal("2.5"), ((JsonNumber) parser.getValue()).bigDecimalValue());
+        assertEquals(Event.END_OBJECT, parser.next());
+        assertFalse(parser.hasNext());
+        parser.close();
+    }
+
+    @Test
+    public void skipStructures() {
+        final JsonParser parser = Json.createParser(new StringReader("{\"a\":{\"b\":[1,{\"c\":2}]},\"d\":[[3],4],\"e\":5}"));
+        assertEquals(Event.START_OBJECT, parser.next());
+        assertEquals(Event.KEY_NAME, parser.next());
+        assertEquals(Event.START_OBJECT, parser.next());
+        parser.skipArray(); // not in an array, nothing happens
+        parser.skipObject();
+        assertEquals(Event.KEY_NAME, parser.next());
+        assertEquals("d", parser.getString());
+        assertEquals(Event.START_ARRAY, parser.next());
+        assertEquals(Event.START_ARRAY, parser.next());
+        parser.skipArray(); // only the nested array
+        assertEquals(Event.VALUE_NUMBER, parser.next());
+        assertEquals(4, parser.getInt());
+        parser.skipArray();
+        assertEquals(Event.KEY_NAME, parser.next());
+        assertEquals("e", parser.getString());
+        parser.skipObject();
+        assertFalse(parser.hasNext());
+        parser.close();
+    }
+
     @Test
     public void plainValues() {
         { // string
@@ -17,13 +17,17 @@
 package org.apache.johnzon.core;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 
 import java.io.StringReader;
+import java.util.Random;
 
 import javax.json.Json;
 import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
 import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
 import javax.json.JsonPatch;
 import javax.json.JsonValue;
 
@@ -378,6 +382,91 @@ public class JsonPatchDiffTest {
         containsOperation(patchOperations, JsonPatch.Operation.ADD, "/f", Json.createValue("xe"));
     }
 
+    @Test
+    public void testLcsInsertAtHead() {
+        JsonArrayBuilder sourceBuilder = Json.createArrayBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sourceBuilder.add(Json.createObjectBuilder().add("id", i));
+        }
+        JsonArray source = sourceBuilder.build();
+        JsonArray target = Json.createArrayBuilder(source).build();
+        target = new JsonPointerImpl("/0").add(target, Json.createValue("new"));
+
+        JsonArray operations = new JsonPatchDiff(source, target, true).calculateDiff().toJsonArray();
+        assertEquals(1, operations.size());
+        containsOperation(operations, JsonPatch.Operation.ADD, "/0", Json.createValue("new"));
+    }
+
+    @Test
+    public void testLcsRemoveAndChange() {
+        JsonArray source = Json.createReader(new StringReader("[\"a\",\"b\",{\"c\":1,\"d\":2},\"e\"]")).readArray();
+        JsonArray target = Json.createReader(new StringReader("[\"b\",{\"c\":1,\"d\":3},\"e\",\"f\"]")).readArray();
+
+        JsonPatch patch = new JsonPatchDiff(source, target, true).calculateDiff();
+        JsonArray operations = patch.toJsonArray();
+        assertEquals(3, operations.size());
+        containsOperation(operations, JsonPatch.Operation.REMOVE, "/0");
+        containsOperation(operations, JsonPatch.Operation.REPLACE, "/1/d", Json.createValue(3));
+        containsOperation(operations, JsonPatch.Operation.ADD, "/3", Json.createValue("f"));
+        assertEquals(target, patch.apply(source));
+    }
+
+    @Test
+    public void testLcsRandomArrays() {
+        Random random = new Random(1234);
+        for (int run = 0; run < 200; run++) {
+            JsonArray source = randomArray(random);
+            JsonArray target = randomArray(random);
+            assertEquals(target, new JsonPatchDiff(source, target, true).calculateDiff().apply(source));
+        }
+    }
+
+    @Test
+    public void testParallelDiffIsTheSequentialOne() {
+        Random random = new Random(4321);
+        for (int run = 0; run < 20; run++) {
+            JsonObject source = randomObject(random);
+            JsonObject target = randomObject(random);
+            for (boolean lcs : new boolean[] { false, true }) {
+                JsonPatch sequential = new JsonPatchDiff(source, target, lcs, -1).calculateDiff();
+                JsonPatch parallel = new JsonPatchDiff(source, target, lcs, 2).calculateDiff();
+                assertEquals(sequential.toJsonArray(), parallel.toJsonArray());
+                if (lcs) {
+                    assertEquals(target, parallel.apply(source));
+                }
+            }
+
+            JsonObject mergeParallel = new JsonMergePatchDiff(source, target, 2).calculateDiff().toJsonValue().asJsonObject();
+            assertEquals(new JsonMergePatchDiff(source, target, -1).calculateDiff().toJsonValue(), mergeParallel);
+        }
+    }
+
+    private static JsonObject randomObject(Random random) {
+        JsonObjectBuilder builder = Json.createObjectBuilder();
+        int size = 20 + random.nextInt(20);
+        for (int i = 0; i < size; i++) {
+            if (random.nextInt(3) == 0) {
+                builder.add("m" + random.nextInt(50), randomArray(random));
+            } else {
+                builder.add("m" + random.nextInt(50), random.nextInt(3));
+            }
+        }
+        return builder.build();
+    }
+
+    private static JsonArray randomArray(Random random) {
+        JsonArrayBuilder builder = Json.createArrayBuilder();
+        int size = random.nextInt(12);
+        for (int i = 0; i < size; i++) {
+            if (random.nextInt(4) == 0) {
+                builder.add(Json.createObjectBuilder().add("v", random.nextInt(3)));
+            } else {
+                builder.add(random.nextInt(5));
+            }
+        }
+        return builder.build();
+    }
+
     private void containsOperation(JsonArray patchOperations,
                                    JsonPatch.Operation patchOperation,
                                    String jsonPointer) {
@@ -406,4 +495,49 @@ public class JsonPatchDiffTest {
     }
 
 
+    @Test
+    public void testEqualSubtreesAreSkipped() {
+        JsonObject shared = Json.createObjectBuilder().add("x", Json.createArrayBuilder().add(1).add("y")).build();
+        JsonObject source = Json.createObjectBuilder().add("a", shared).add("b", 1).build();
+        JsonObject target = Json.createObjectBuilder()
+                .add("a", Json.createObjectBuilder().add("x", Json.createArrayBuilder().add(1.).add("y")))
+                .add("b", 2)
+                .build();
+
+        JsonArray operations = Json.createDiff(source, target).toJsonArray();
+        assertEquals(1, operations.size());
+        containsOperation(operations, JsonPatch.Operation.REPLACE, "/b", Json.createValue(2));
+
+        assertEquals(JsonValue.EMPTY_JSON_OBJECT, Json.createMergeDiff(source, source).toJsonValue());
+    }
+
+    @Test
+    public void testOneNumberChangedInALargeDocument() {
+        JsonObject source = largeDocument(-1);
+        JsonObject target = largeDocument(123);
+        // ancestors of the changed number get another hash so the diff never compares them deeply
+        assertNotEquals(StructuralHash.of(source), StructuralHash.of(target));
+        assertNotEquals(StructuralHash.of(source.getJsonArray("items").get(123)), StructuralHash.of(target.getJsonArray("items").get(123)));
+
+        JsonArray operations = Json.createDiff(source, target).toJsonArray();
+        assertEquals(1, operations.size());
+        containsOperation(operations, JsonPatch.Operation.REPLACE, "/items/123/values/2", Json.createValue(-1));
+        assertEquals(target, Json.createDiff(source, target).apply(source));
+
+        JsonObject merge = Json.createMergeDiff(source, target).toJsonValue().asJsonObject();
+        assertEquals(target, Json.createMergePatch(merge).apply(source));
+    }
+
+    private static JsonObject largeDocument(int changed) {
+        JsonArrayBuilder items = Json.createArrayBuilder();
+        for (int i = 0; i < 500; i++) {
+            JsonArrayBuilder values = Json.createArrayBuilder();
+            for (int v = 0; v < 5; v++) {
+                values.add(i == changed && v == 2 ? -1 : i * v);
+            }
+            items.add(Json.createObjectBuilder().add("id", i).add("values", values));
+        }
+        return Json.createObjectBuilder().add("items", items).build();
+    }
+
 }
@@ -26,11 +26,19 @@ import javax.json.JsonArray;
 import javax.json.JsonArrayBuilder;
 import javax.json.JsonException;
 import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
 import javax.json.JsonPatch;
+import javax.json.JsonPatchBuilder;
 import javax.json.JsonStructure;
 import javax.json.JsonValue;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -148,6 +156,25 @@ public class JsonPatchTest {
         patch.apply(object);
     }
 
+    @Test
+    public void testErrorMessageShowsJson() {
+        final JsonObject object = Json.createObjectBuilder()
+                                      .add("foo", Json.createArrayBuilder().add(1))
+                                      .build();
+        try {
+            Json.createPatchBuilder().add("/bar", 2).remove("/baz").build().apply(object);
+            Assert.fail("baz doesn't exist");
+        } catch (final JsonException je) {
+            assertEquals("'{\"foo\":[1],\"bar\":2}' contains no value for name 'baz'", je.getMessage());
+        }
+        try {
+            Json.createPatchBuilder().add("/foo/0", 0).replace("/foo/2", 2).build().apply(object);
+            Assert.fail("foo has no third element");
+        } catch (final JsonException je) {
+            assertEquals("'[0,1]' contains no element for index 2", je.getMessage());
+        }
+    }
+
     @Test(expected = JsonException.class)
     public void testAddArrayIndexOutOfBounds() {
 
@@ -968,6 +995,93 @@ public class JsonPatchTest {
         Assert.assertNotNull(patchedJsonObject);
     }
 
+    @Test
+    public void testPatchSharesUntouchedValues() {
+
+        JsonObject untouched = Json.createObjectBuilder()
+                                   .add("name", "untouched")
+                                   .build();
+        JsonObject object = Json.createObjectBuilder()
+                                .add("other", untouched)
+                                .add("items", Json.createArrayBuilder()
+                                                  .add(Json.createObjectBuilder().add("id", 1))
+                                                  .add(Json.createObjectBuilder().add("id", 2)))
+                                .build();
+
+        JsonPatchImpl patch = new JsonPatchImpl(new JsonPatchImpl.PatchValue(JsonPatch.Operation.REPLACE,
+                                                                             "/items/0/id",
+                                                                             null,
+                                                                             new JsonLongImpl(10)),
+                                                new JsonPatchImpl.PatchValue(JsonPatch.Operation.ADD,
+                                                                             "/items/-",
+                                                                             null,
+                                                                             Json.createObjectBuilder().add("id", 3).build()),
+                                                new JsonPatchImpl.PatchValue(JsonPatch.Operation.COPY,
+                                                                             "/copy",
+                                                                             "/items/0",
+                                                                             null),
+                                                new JsonPatchImpl.PatchValue(JsonPatch.Operation.REMOVE,
+                                                                             "/items/0/id",
+                                                                             null,
+                                                                             null),
+                                                new JsonPatchImpl.PatchValue(JsonPatch.Operation.TEST,
+                                                                             "/copy/id",
+                                                                             null,
+                                                                             new JsonLongImpl(10)));
+
+        JsonObject patched = patch.apply(object);
+        assertSame(untouched, patched.get("other"));
+        assertSame(object.getJsonArray("items").get(1), patched.getJsonArray("items").get(1));
+        assertEquals("{\"other\":{\"name\":\"untouched\"},\"copy\":{\"id\":10},\"items\":[{},{\"id\":2},{\"id\":3}]}",
+                     toJsonString(patched));
+    }
+
+    @Test
+    public void testAddedMembersGoAfterTheFirstOne() {
+        Random random = new Random(1234);
+        for (int run = 0; run < 50; run++) {
+            // reference model: an added member is moved right after the first one, replace is remove + add
+            List<String> keys = new ArrayList<>(Arrays.asList("k0", "k1", "k2", "k3"));
+            Map<String, Integer> values = new HashMap<>();
+            for (String key : keys) {
+                values.put(key, Integer.parseInt(key.substring(1)));
+            }
+            JsonPatchBuilder builder = Json.createPatchBuilder();
+            for (int i = 0; i < 200; i++) {
+                String key = "k" + random.nextInt(8);
+                int operation = keys.contains(key) ? random.nextInt(3) : 0;
+                if (operation == 2 && keys.size() > 1) {
+                    keys.remove(key);
+                    values.remove(key);
+                    builder.remove("/" + key);
+                    continue;
+                }
+                if (operation == 1) {
+                    keys.remove(key);
+                    builder.replace("/" + key, i);
+                } else {
+                    builder.add("/" + key, i);
+                }
+                if (keys.isEmpty() || keys.get(0).equals(key)) {
+                    if (keys.isEmpty()) {
+                        keys.add(key);
+                    }
+                } else {
+                    keys.remove(key);
+                    keys.add(1, key);
+                }
+                values.put(key, i);
+            }
+
+            JsonObjectBuilder expected = Json.createObjectBuilder();
+            for (String key : keys) {
+                expected.add(key, values.get(key));
+            }
+            JsonObject source = Json.createObjectBuilder().add("k0", 0).add("k1", 1).add("k2", 2).add("k3", 3).build();
+            assertEquals(toJsonString(expected.build()), toJsonString(builder.build().apply(source)));
+        }
+    }
+
 
     private static String toJsonString(JsonStructure value) {
         StringWriter writer = new StringWriter();
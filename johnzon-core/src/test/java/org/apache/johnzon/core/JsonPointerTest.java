@@ -35,6 +35,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class JsonPointerTest {
@@ -657,6 +658,51 @@ public class JsonPointerTest {
         assertEquals("Padme Amidala", ((JsonString) padme).getString());
     }
 
+    @Test
+    public void testAddSharesUntouchedValues() {
+        JsonObject untouched = Json.createObjectBuilder().add("name", "Leia").build();
+        JsonObject family = Json.createObjectBuilder()
+                                .add("children", Json.createArrayBuilder().add(untouched))
+                                .add("father", Json.createObjectBuilder().add("name", "Anakin"))
+                                .build();
+
+        JsonObject patched = new JsonPointerImpl("/father/age").add(family, Json.createValue(42));
+        assertEquals(42, patched.getJsonObject("father").getInt("age"));
+        assertSame(family.get("children"), patched.get("children"));
+        assertSame(family.get("children"), new JsonPointerImpl("/father").remove(patched).get("children"));
+    }
+
+    @Test
+    public void testCachedPointer() {
+        JsonPointerImpl pointer = JsonPointerImpl.of("/family/children/1");
+        assertSame(pointer, JsonPointerImpl.of("/family/children/1"));
+        assertSame(pointer, Json.createPointer("/family/children/1"));
+        assertEquals(new JsonPointerImpl("/family/children/1"), pointer);
+    }
+
+    @Test
+    public void testCachedPointerSurvivesManyPaths() {
+        final JsonPointerImpl hot = JsonPointerImpl.of("/hot");
+        for (int i = 0; i < 2048; i++) {
+            assertSame(hot, JsonPointerImpl.of("/hot"));
+            JsonPointerImpl.of("/cold/" + i);
+        }
+        assertSame(hot, JsonPointerImpl.of("/hot"));
+    }
+
+    @Test
+    public void testGetValueWithEscapedAndIndexTokens() {
+        JsonArray array = Json.createArrayBuilder()
+                              .add(Json.createObjectBuilder().add("a/b", Json.createArrayBuilder().add("x").add("y")))
+                              .build();
+        assertEquals("y", ((JsonString) new JsonPointerImpl("/0/a~1b/1").getValue(array)).getString());
+    }
+
+    @Test(expected = JsonException.class)
+    public void testGetValueWithHugeIndex() {
+        new JsonPointerImpl("/99999999999").getValue(Json.createArrayBuilder().add(1).build());
+    }
+
 
     private JsonStructure getJsonDocument() {
         JsonReader reader = Json.createReaderFactory(Collections.<String, Object>emptyMap()).createReader(
@@ -21,10 +21,13 @@ package org.apache.johnzon.core;
 import static org.junit.Assert.assertEquals;
 
 import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.util.Collections;
 
 import javax.json.Json;
 import javax.json.JsonObjectBuilder;
 import javax.json.JsonWriter;
+import javax.json.JsonWriterFactory;
 
 import org.junit.Test;
 
@@ -39,4 +42,16 @@ public class JsonWriterImplTest {
         writer.close();
         assertEquals("{\"a\":\"b\"}", new String(out.toByteArray()));
     }
+
+    @Test
+    public void pooledStreamWriter() {
+        final JsonWriterFactory factory = Json.createWriterFactory(
+                Collections.<String, Object>singletonMap(JsonGeneratorFactoryImpl.GENERATOR_POOL_SIZE, 1));
+        for (int i = 0; i < 2; i++) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final JsonWriter writer = factory.createWriter(out, Charset.forName("UTF-16"));
+            writer.write(Json.createObjectBuilder().add("a", "\u00e9" + i).build());
+            assertEquals("{\"a\":\"\u00e9" + i + "\"}", new String(out.toByteArray(), Charset.forName("UTF-16")));
+        }
+    }
 }
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import org.junit.Test;
+
+import javax.json.Json;
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertEquals;
+
+public class StreamingJsonMergePatchTest {
+    private static final String DOCUMENT = "{\"title\":\"Goodbye!\",\"author\":{\"givenName\":\"John\",\"familyName\":\"Doe\"}," +
+            "\"tags\":[\"example\",\"sample\"],\"content\":\"This will be unchanged\",\"count\":12345678901234567890}";
+
+    @Test
+    public void rfcExample() {
+        assertMerge("{\"title\":\"Hello!\",\"phoneNumber\":\"+01-123-456-7890\",\"author\":{\"familyName\":null},\"tags\":[\"example\"]}");
+    }
+
+    @Test
+    public void replaceDocument() {
+        assertMerge("[1,2]");
+    }
+
+    @Test
+    public void emptyPatch() {
+        assertMerge("{}");
+    }
+
+    @Test
+    public void nestedNewObject() {
+        assertMerge("{\"author\":{\"address\":{\"city\":\"Paris\"}},\"content\":{\"a\":1},\"tags\":{\"b\":true}}");
+    }
+
+    private static void assertMerge(final String patch) {
+        final JsonValue patchValue = Json.createReader(new StringReader(patch)).readValue();
+        final JsonValue expected = Json.createMergePatch(patchValue).apply(Json.createReader(new StringReader(DOCUMENT)).readValue());
+
+        final StringWriter writer = new StringWriter();
+        final JsonGenerator generator = Json.createGenerator(writer);
+        StreamingJsonMergePatch.apply(Json.createMergePatch(patchValue), Json.createParser(new StringReader(DOCUMENT)), generator);
+        generator.close();
+
+        assertEquals(expected, Json.createReader(new StringReader(writer.toString())).readValue());
+    }
+}
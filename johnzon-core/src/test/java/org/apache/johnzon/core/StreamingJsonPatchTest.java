@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.core;
+
+import org.junit.Test;
+
+import javax.json.Json;
+import javax.json.JsonException;
+import javax.json.JsonNumber;
+import javax.json.JsonPatch;
+import javax.json.JsonStructure;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class StreamingJsonPatchTest {
+    private static final String DOCUMENT = "{\"name\":\"export\",\"meta\":{\"version\":1,\"tags\":[\"a\",\"b\"]}," +
+            "\"items\":[{\"id\":0,\"v\":\"x\"},{\"id\":1,\"v\":\"y\"},{\"id\":2,\"v\":\"z\"}]}";
+
+    @Test
+    public void memberOperations() {
+        assertPatch("[{\"op\":\"add\",\"path\":\"/created\",\"value\":true}," +
+                "{\"op\":\"remove\",\"path\":\"/name\"}," +
+                "{\"op\":\"replace\",\"path\":\"/meta/version\",\"value\":2}," +
+                "{\"op\":\"test\",\"path\":\"/meta/version\",\"value\":2}]",
+                "{\"meta\":{\"tags\":[\"a\",\"b\"],\"version\":2}," +
+                "\"items\":[{\"id\":0,\"v\":\"x\"},{\"id\":1,\"v\":\"y\"},{\"id\":2,\"v\":\"z\"}],\"created\":true}");
+    }
+
+    @Test
+    public void streamedArray() {
+        assertPatch("[{\"op\":\"replace\",\"path\":\"/items/1/v\",\"value\":\"Y\"}," +
+                "{\"op\":\"add\",\"path\":\"/items/-\",\"value\":{\"id\":3}}," +
+                "{\"op\":\"add\",\"path\":\"/items/2/w\",\"value\":1}," +
+                "{\"op\":\"move\",\"path\":\"/items/0/w\",\"from\":\"/items/0/v\"}]",
+                "{\"name\":\"export\",\"meta\":{\"version\":1,\"tags\":[\"a\",\"b\"]}," +
+                "\"items\":[{\"id\":0,\"w\":\"x\"},{\"id\":1,\"v\":\"Y\"},{\"id\":2,\"v\":\"z\",\"w\":1},{\"id\":3}]}");
+    }
+
+    @Test
+    public void shiftedArray() {
+        assertPatch("[{\"op\":\"remove\",\"path\":\"/items/0\"}," +
+                "{\"op\":\"replace\",\"path\":\"/items/0/v\",\"value\":\"Y\"}," +
+                "{\"op\":\"copy\",\"path\":\"/meta/tags/0\",\"from\":\"/meta/tags/1\"}]",
+                "{\"name\":\"export\",\"meta\":{\"version\":1,\"tags\":[\"b\",\"a\",\"b\"]}," +
+                "\"items\":[{\"id\":1,\"v\":\"Y\"},{\"id\":2,\"v\":\"z\"}]}");
+    }
+
+    @Test
+    public void moveBetweenMembers() {
+        assertPatch("[{\"op\":\"move\",\"path\":\"/items/0/tags\",\"from\":\"/meta/tags\"}," +
+                "{\"op\":\"add\",\"path\":\"/items/0/tags/-\",\"value\":\"c\"}]",
+                "{\"name\":\"export\",\"meta\":{\"version\":1}," +
+                "\"items\":[{\"id\":0,\"v\":\"x\",\"tags\":[\"a\",\"b\",\"c\"]},{\"id\":1,\"v\":\"y\"},{\"id\":2,\"v\":\"z\"}]}");
+    }
+
+    @Test(expected = JsonException.class)
+    public void missingMember() {
+        apply("[{\"op\":\"replace\",\"path\":\"/meta/missing/value\",\"value\":1}]");
+    }
+
+    @Test(expected = JsonException.class)
+    public void failingTest() {
+        apply("[{\"op\":\"test\",\"path\":\"/items/2/v\",\"value\":\"x\"}]");
+    }
+
+    @Test
+    public void indexAfterAppend() {
+        assertPatch("[{\"op\":\"add\",\"path\":\"/items/-\",\"value\":{\"id\":3}}," +
+                "{\"op\":\"replace\",\"path\":\"/items/3\",\"value\":{\"id\":4}}]",
+                "{\"name\":\"export\",\"meta\":{\"version\":1,\"tags\":[\"a\",\"b\"]}," +
+                "\"items\":[{\"id\":0,\"v\":\"x\"},{\"id\":1,\"v\":\"y\"},{\"id\":2,\"v\":\"z\"},{\"id\":4}]}");
+        assertPatch("[{\"op\":\"add\",\"path\":\"/items/-\",\"value\":{\"id\":3}}," +
+                "{\"op\":\"add\",\"path\":\"/items/3/v\",\"value\":\"w\"}]",
+                "{\"name\":\"export\",\"meta\":{\"version\":1,\"tags\":[\"a\",\"b\"]}," +
+                "\"items\":[{\"id\":0,\"v\":\"x\"},{\"id\":1,\"v\":\"y\"},{\"id\":2,\"v\":\"z\"},{\"id\":3,\"v\":\"w\"}]}");
+    }
+
+    @Test
+    public void emptyPatchOnScalar() {
+        final List<Object> written = new ArrayList<>();
+        final JsonGenerator generator = JsonGenerator.class.cast(Proxy.newProxyInstance(
+                Thread.currentThread().getContextClassLoader(), new Class<?>[]{JsonGenerator.class}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                        written.add(args[0]);
+                        return proxy;
+                    }
+                }));
+        StreamingJsonPatch.apply(Json.createPatchBuilder().build(), Json.createParser(new StringReader("5")), generator);
+        assertEquals(1, written.size());
+        assertEquals(5, JsonNumber.class.cast(written.get(0)).intValue());
+    }
+
+    @Test
+    public void patchedMembersKeepTheirPosition() {
+        assertEquals("{\"name\":\"import\",\"meta\":{\"version\":2,\"tags\":[\"a\",\"b\"]}," +
+                "\"items\":[{\"id\":0,\"v\":\"x\"},{\"id\":1,\"v\":\"y\"},{\"id\":2,\"v\":\"z\"}],\"created\":true}",
+                apply("[{\"op\":\"replace\",\"path\":\"/name\",\"value\":\"import\"}," +
+                        "{\"op\":\"add\",\"path\":\"/created\",\"value\":true}," +
+                        "{\"op\":\"replace\",\"path\":\"/meta/version\",\"value\":2}]"));
+    }
+
+    @Test
+    public void overwrittenValuesAreSkipped() {
+        final List<String> calls = new ArrayList<>();
+        final JsonParser delegate = Json.createParser(new StringReader(DOCUMENT));
+        final JsonParser parser = JsonParser.class.cast(Proxy.newProxyInstance(
+                Thread.currentThread().getContextClassLoader(), new Class<?>[]{JsonParser.class}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+                        calls.add(method.getName());
+                        return method.invoke(delegate, args);
+                    }
+                }));
+        final StringWriter writer = new StringWriter();
+        final JsonGenerator generator = Json.createGenerator(writer);
+        StreamingJsonPatch.apply(Json.createPatchBuilder().remove("/meta").replace("/items", 0).build(), parser, generator);
+        generator.close();
+        assertEquals("{\"name\":\"export\",\"items\":0}", writer.toString());
+        assertEquals(1, Collections.frequency(calls, "skipObject"));
+        assertEquals(1, Collections.frequency(calls, "skipArray"));
+        assertEquals(8, Collections.frequency(calls, "next")); // the events of meta and items are skipped
+    }
+
+    private static void assertPatch(final String patch, final String expected) {
+        final JsonPatch jsonPatch = Json.createPatch(Json.createReader(new StringReader(patch)).readArray());
+        final JsonStructure document = Json.createReader(new StringReader(DOCUMENT)).read();
+        final JsonStructure streamed = Json.createReader(new StringReader(apply(patch))).read();
+        assertEquals(Json.createReader(new StringReader(expected)).read(), streamed);
+        assertEquals(jsonPatch.apply(document), streamed);
+    }
+
+    private static String apply(final String patch) {
+        final StringWriter writer = new StringWriter();
+        final JsonGenerator generator = Json.createGenerator(writer);
+        StreamingJsonPatch.apply(
+                Json.createPatch(Json.createReader(new StringReader(patch)).readArray()),
+                Json.createParser(new StringReader(DOCUMENT)),
+                generator);
+        generator.close();
+        return writer.toString();
+    }
+}
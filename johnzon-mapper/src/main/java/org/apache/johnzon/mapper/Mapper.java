@@ -26,6 +26,7 @@ import javax.json.JsonReaderFactory;
 import javax.json.JsonValue;
 import javax.json.stream.JsonGenerator;
 import javax.json.stream.JsonGeneratorFactory;
+import javax.json.stream.JsonParserFactory;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
@@ -41,6 +42,11 @@ import java.lang.reflect.Type;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static java.util.Arrays.asList;
 import static org.apache.johnzon.mapper.internal.Streams.noClose;
@@ -51,14 +57,18 @@ public class Mapper implements Closeable {
     protected final Mappings mappings;
     protected final JsonReaderFactory readerFactory;
     protected final JsonGeneratorFactory generatorFactory;
+    protected final JsonParserFactory parserFactory; // null if objects are bound from a JsonValue
     protected final ReaderHandler readerHandler;
     protected final Collection<Closeable> closeables;
     protected final Charset charset;
+    private final JsonParserFactory eventParserFactory; // same configuration than the readers, null with a custom reader factory
 
-    Mapper(final JsonReaderFactory readerFactory, final JsonGeneratorFactory generatorFactory, MapperConfig config,
-                  final Collection<Closeable> closeables) {
+    Mapper(final JsonReaderFactory readerFactory, final JsonGeneratorFactory generatorFactory, final JsonParserFactory parserFactory,
+           final JsonParserFactory eventParserFactory, MapperConfig config, final Collection<Closeable> closeables) {
         this.readerFactory = readerFactory;
         this.generatorFactory = generatorFactory;
+        this.parserFactory = parserFactory;
+        this.eventParserFactory = eventParserFactory;
         this.config = config;
         this.mappings = new Mappings(config);
         this.readerHandler = ReaderHandler.create(readerFactory);
@@ -181,15 +191,15 @@ public class Mapper implements Closeable {
     }
 
     public <T> T readObject(final Reader stream, final Type clazz) {
-        return mapObject(clazz, readerFactory.createReader(stream(stream)));
+        return mapObject(clazz, stream);
     }
 
     public <T> T readObject(final InputStream stream, final Type clazz) {
-        return mapObject(clazz, charset == null ? readerFactory.createReader(stream(stream)): readerFactory.createReader(stream(stream), charset));
+        return mapObject(clazz, stream);
     }
 
     public <T> Collection<T> readCollection(final InputStream stream, final ParameterizedType genericType) {
-        return mapObject(genericType, charset == null ? readerFactory.createReader(stream(stream)): readerFactory.createReader(stream(stream), charset));
+        return mapObject(genericType, stream);
     }
 
     public <T> T readJohnzonCollection(final InputStream stream, final JohnzonCollectionType<T> genericType) {
@@ -201,33 +211,144 @@ public class Mapper implements Closeable {
     }
 
     public <T> Collection<T> readCollection(final Reader stream, final ParameterizedType genericType) {
-        return mapObject(genericType, readerFactory.createReader(stream(stream)));
+        return mapObject(genericType, stream);
     }
 
     public <T> T[] readArray(final Reader stream, final Class<T> clazz) {
-        final JsonReader reader = readerFactory.createReader(stream(stream));
-        return (T[]) mapArray(clazz, reader);
+        return (T[]) mapObject(arrayType(clazz), stream);
     }
 
     public <T> T readTypedArray(final InputStream stream, final Class<?> elementType, final Class<T> arrayType) {
-        final JsonReader reader = charset == null ? readerFactory.createReader(stream(stream)): readerFactory.createReader(stream(stream), charset);
-        return arrayType.cast(mapArray(elementType, reader));
+        return arrayType.cast(mapObject(arrayType(elementType), stream));
     }
 
     public <T> T readTypedArray(final Reader stream, final Class<?> elementType, final Class<T> arrayType) {
-        final JsonReader reader = readerFactory.createReader(stream(stream));
-        return arrayType.cast(mapArray(elementType, reader));
+        return arrayType.cast(mapObject(arrayType(elementType), stream));
     }
 
     public <T> T[] readArray(final InputStream stream, final Class<T> clazz) {
-        final JsonReader reader = charset == null ? readerFactory.createReader(stream(stream)): readerFactory.createReader(stream(stream), charset);
-        return (T[]) mapArray(clazz, reader);
+        return (T[]) mapObject(arrayType(clazz), stream);
+    }
+
+    /**
+     * Binds a json object on an existing instance (bean or map) instead of creating a new one.
+     * Only the properties present in the json are set, nested objects, collections and maps already
+     * set on the instance are updated in place when their mapping allows it (no converter, no constructor parameters).
+     *
+     * @param stream the json object.
+     * @param instance the instance to update.
+     * @param <T> type of the instance.
+     * @return the instance.
+     */
+    public <T> T readInto(final Reader stream, final T instance) {
+        if (eventParserFactory == null) {
+            return new MappingParserImpl(config, mappings, readerFactory.createReader(stream(stream))).readInto(instance);
+        }
+        return newParser(stream).readInto(instance);
+    }
+
+    public <T> T readInto(final InputStream stream, final T instance) {
+        if (eventParserFactory == null) {
+            return new MappingParserImpl(config, mappings, charset == null ?
+                    readerFactory.createReader(stream(stream)) : readerFactory.createReader(stream(stream), charset)).readInto(instance);
+        }
+        return newParser(stream).readInto(instance);
+    }
+
+    public <T> T readInto(final String string, final T instance) {
+        return readInto(new StringReader(string), instance);
+    }
+
+    /**
+     * Binds the items of a top level json array one at a time so the array is never fully in memory.
+     * The result can be iterated only once, the parser is released when the array is consumed
+     * and the input is closed at that moment if {@link MapperConfig#isClose()}.
+     * It needs the default reader factory, the items can't be read lazily through a custom one.
+     *
+     * @param stream the json array.
+     * @param itemType type of the items.
+     * @param <T> type of the items.
+     * @return a lazy iterable over the items.
+     */
+    public <T> Iterable<T> readIterable(final InputStream stream, final Type itemType) {
+        return iterable(newParser(stream).<T>readIterator(itemType));
+    }
+
+    public <T> Iterable<T> readIterable(final Reader stream, final Type itemType) {
+        return iterable(newParser(stream).<T>readIterator(itemType));
+    }
+
+    /**
+     * Same as {@link #readIterable(InputStream, Type)} but as a sequential stream,
+     * closing the returned stream releases the parser even if the array is not consumed.
+     */
+    public <T> Stream<T> readStream(final InputStream stream, final Type itemType) {
+        return lazyStream(newParser(stream).<T>readIterator(itemType));
+    }
+
+    public <T> Stream<T> readStream(final Reader stream, final Type itemType) {
+        return lazyStream(newParser(stream).<T>readIterator(itemType));
+    }
+
+    private static <T> Iterable<T> iterable(final MappingParserImpl.ArrayIterator<T> iterator) {
+        return new Iterable<T>() {
+            private boolean iterated;
+
+            @Override
+            public synchronized Iterator<T> iterator() {
+                if (iterated) {
+                    throw new IllegalStateException("Items can only be iterated once");
+                }
+                iterated = true;
+                return iterator;
+            }
+        };
+    }
+
+    private static <T> Stream<T> lazyStream(final MappingParserImpl.ArrayIterator<T> iterator) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                .onClose(new Runnable() {
+                    @Override
+                    public void run() {
+                        iterator.close();
+                    }
+                });
+    }
+
+    private MappingParserImpl newParser(final Reader stream) {
+        return new MappingParserImpl(config, mappings, findParserFactory().createParser(stream(stream)));
+    }
+
+    private MappingParserImpl newParser(final InputStream stream) {
+        final JsonParserFactory factory = findParserFactory();
+        return new MappingParserImpl(config, mappings, charset == null ? factory.createParser(stream(stream)) : factory.createParser(stream(stream), charset));
     }
 
-    private Object mapArray(final Class<?> clazz, final JsonReader reader) {
-        return mapObject(Array.newInstance(clazz, 0).getClass(), reader);
+    private JsonParserFactory findParserFactory() {
+        if (eventParserFactory == null) {
+            throw new MapperException("Json arrays can't be read lazily with a custom reader factory");
+        }
+        return eventParserFactory;
+    }
+
+    private static Class<?> arrayType(final Class<?> clazz) {
+        return Array.newInstance(clazz, 0).getClass();
     }
 
+    private <T> T mapObject(final Type clazz, final Reader stream) {
+        if (parserFactory != null) {
+            return new MappingParserImpl(config, mappings, parserFactory.createParser(stream(stream))).readObject(clazz);
+        }
+        return mapObject(clazz, readerFactory.createReader(stream(stream)));
+    }
+
+    private <T> T mapObject(final Type clazz, final InputStream stream) {
+        if (parserFactory != null) {
+            return new MappingParserImpl(config, mappings, charset == null ?
+                    parserFactory.createParser(stream(stream)) : parserFactory.createParser(stream(stream), charset)).readObject(clazz);
+        }
+        return mapObject(clazz, charset == null ? readerFactory.createReader(stream(stream)) : readerFactory.createReader(stream(stream), charset));
+    }
 
     private <T> T mapObject(final Type clazz, final JsonReader reader) {
         return new MappingParserImpl(config, mappings, reader).readObject(clazz);
@@ -18,12 +18,14 @@
  */
 package org.apache.johnzon.mapper;
 
+import org.apache.johnzon.core.JsonGeneratorFactoryImpl;
 import org.apache.johnzon.core.JsonParserFactoryImpl;
 import org.apache.johnzon.mapper.access.AccessMode;
 import org.apache.johnzon.mapper.access.BaseAccessMode;
 import org.apache.johnzon.mapper.access.FieldAccessMode;
 import org.apache.johnzon.mapper.access.FieldAndMethodAccessMode;
 import org.apache.johnzon.mapper.access.MethodAccessMode;
+import org.apache.johnzon.mapper.access.MethodHandleAccessMode;
 import org.apache.johnzon.mapper.converter.BigDecimalConverter;
 import org.apache.johnzon.mapper.converter.BigIntegerConverter;
 import org.apache.johnzon.mapper.converter.BooleanConverter;
@@ -48,6 +50,7 @@ import javax.json.JsonReaderFactory;
 import javax.json.spi.JsonProvider;
 import javax.json.stream.JsonGenerator;
 import javax.json.stream.JsonGeneratorFactory;
+import javax.json.stream.JsonParserFactory;
 import java.io.Closeable;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
@@ -65,6 +68,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
 
 // this class is responsible to hold any needed config
 // to build the runtime
@@ -103,10 +107,12 @@ public class MapperBuilder {
 
     private JsonReaderFactory readerFactory;
     private JsonGeneratorFactory generatorFactory;
+    private JsonParserFactory parserFactory;
     private boolean supportHiddenAccess = true;
     private int maxSize = -1;
     private int bufferSize = -1;
     private String bufferStrategy;
+    private int generatorPoolSize = -1;
     private Comparator<String> attributeOrder = null;
     private boolean supportConstructors;
     private boolean useGetterForCollections;
@@ -130,8 +136,13 @@ public class MapperBuilder {
     private Map<Class<?>, String[]> ignoredForFields = new HashMap<Class<?>, String[]>();
     private boolean primitiveConverters;
     private boolean failOnUnknownProperties;
+    private boolean streamingRead;
+    private int parallelBindingThreshold;
+    private ForkJoinPool parallelBindingPool;
+    private boolean useGeneratedCodecs;
 
     public Mapper build() {
+        final boolean defaultReader = readerFactory == null;
         if (readerFactory == null || generatorFactory == null) {
             final JsonProvider provider = JsonProvider.provider();
             final Map<String, Object> config = new HashMap<String, Object>();
@@ -141,12 +152,16 @@ public class MapperBuilder {
             if (pretty) {
                 config.put(JsonGenerator.PRETTY_PRINTING, true);
             }
+            if (generatorPoolSize > 0) {
+                config.put(JsonGeneratorFactoryImpl.GENERATOR_POOL_SIZE, generatorPoolSize);
+            }
 
             if (generatorFactory == null) {
                 generatorFactory = provider.createGeneratorFactory(config);
             }
 
             config.remove(JsonGenerator.PRETTY_PRINTING); // doesnt mean anything anymore for reader
+            config.remove(JsonGeneratorFactoryImpl.GENERATOR_POOL_SIZE);
             if (supportsComments) {
                 config.put(JsonParserFactoryImpl.SUPPORTS_COMMENTS, "true");
             }
@@ -159,6 +174,9 @@ public class MapperBuilder {
             if (readerFactory == null) {
                 readerFactory = provider.createReaderFactory(config);
             }
+            if (defaultReader) { // only when the parsing is not customized through the reader factory
+                parserFactory = provider.createParserFactory(config);
+            }
         }
 
         if (accessMode == null) {
@@ -168,6 +186,8 @@ public class MapperBuilder {
                 accessMode = new MethodAccessMode(supportConstructors, supportHiddenAccess, true);
             } else if ("strict-method".equalsIgnoreCase(accessModeName)) {
                 accessMode = new MethodAccessMode(supportConstructors, supportHiddenAccess, false);
+            } else if ("method-handle".equalsIgnoreCase(accessModeName)) {
+                accessMode = new MethodHandleAccessMode(supportConstructors, supportHiddenAccess, useGetterForCollections);
             } else if ("both".equalsIgnoreCase(accessModeName) || accessModeName == null) {
                 accessMode = new FieldAndMethodAccessMode(supportConstructors, supportHiddenAccess, useGetterForCollections);
             } else {
@@ -210,16 +230,53 @@ public class MapperBuilder {
         }
 
         return new Mapper(
-                readerFactory, generatorFactory,
+                readerFactory, generatorFactory, streamingRead ? parserFactory : null, parserFactory,
                 new MapperConfig(
                         adapters, objectConverterWriters, objectConverterReaders,
                         version, close,
                         skipNull, skipEmptyArray,
                         treatByteArrayAsBase64, treatByteArrayAsBase64URL, readAttributeBeforeWrite,
-                        accessMode, encoding, attributeOrder, enforceQuoteString, failOnUnknownProperties),
+                        accessMode, encoding, attributeOrder, enforceQuoteString, failOnUnknownProperties,
+                        parallelBindingThreshold, parallelBindingPool, useGeneratedCodecs),
                 closeables);
     }
 
+    /**
+     * Bind the objects directly from the parser events instead of reading a JsonValue first.
+     * Ignored if a custom reader factory is set.
+     */
+    public MapperBuilder setStreamingRead(final boolean streamingRead) {
+        this.streamingRead = streamingRead;
+        return this;
+    }
+
+    /**
+     * Bind the items of arrays with at least this number of items in parallel, order is preserved.
+     * Items must then be bindable concurrently (thread safe converters/adapters).
+     * Only applies to arrays read as a whole so it is ignored with streaming read. 0 (default) disables it.
+     */
+    public MapperBuilder setParallelBindingThreshold(final int parallelBindingThreshold) {
+        this.parallelBindingThreshold = parallelBindingThreshold;
+        return this;
+    }
+
+    /**
+     * Pool used when parallel binding is enabled, defaults to the common pool.
+     */
+    public MapperBuilder setParallelBindingPool(final ForkJoinPool parallelBindingPool) {
+        this.parallelBindingPool = parallelBindingPool;
+        return this;
+    }
+
+    /**
+     * Use the codecs generated by johnzon-processor for @JohnzonCodec classes, they are looked up
+     * in META-INF/services with the thread context classloader. Disabled by default.
+     */
+    public MapperBuilder setUseGeneratedCodecs(final boolean useGeneratedCodecs) {
+        this.useGeneratedCodecs = useGeneratedCodecs;
+        return this;
+    }
+
     public MapperBuilder setFailOnUnknownProperties(final boolean failOnUnknownProperties) {
         this.failOnUnknownProperties = failOnUnknownProperties;
         return this;
@@ -260,6 +317,11 @@ public class MapperBuilder {
         return this;
     }
 
+    public MapperBuilder setGeneratorPoolSize(final int generatorPoolSize) {
+        this.generatorPoolSize = generatorPoolSize;
+        return this;
+    }
+
     public MapperBuilder setMaxSize(final int size) {
         this.maxSize = size;
         return this;
@@ -272,7 +334,7 @@ public class MapperBuilder {
 
     public MapperBuilder setAccessModeName(final String mode) {
         if (!"field".equalsIgnoreCase(mode) && !"method".equalsIgnoreCase(mode) &&
-                !"strict-method".equalsIgnoreCase(mode) && !"both".equalsIgnoreCase(mode)) {
+                !"strict-method".equalsIgnoreCase(mode) && !"both".equalsIgnoreCase(mode) && !"method-handle".equalsIgnoreCase(mode)) {
             throw new IllegalArgumentException("Mode " + mode + " unsupported");
         }
         this.accessModeName = mode;
@@ -24,12 +24,15 @@ import org.apache.johnzon.mapper.internal.AdapterKey;
 import org.apache.johnzon.mapper.internal.ConverterAdapter;
 
 import javax.json.JsonObject;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Contains internal configuration for all the mapper stuff.
@@ -49,6 +52,8 @@ public /* DON'T MAKE IT HIDDEN */ class MapperConfig implements Cloneable {
         }
     };
 
+    private static final Adapter<?, ?> NO_ADAPTER = new ConverterAdapter<Object>(null);
+
     private final int version;
     private final boolean close;
     private final boolean skipNull;
@@ -64,9 +69,18 @@ public /* DON'T MAKE IT HIDDEN */ class MapperConfig implements Cloneable {
     private final Comparator<String> attributeOrder;
     private final boolean enforceQuoteString;
     private final boolean failOnUnknown;
+    private final int parallelBindingThreshold;
+    private final ForkJoinPool parallelBindingPool;
+    private final boolean useGeneratedCodecs;
+
+    // resolved once per type (including misses) so writing a value doesn't allocate an AdapterKey,
+    // adapters are expected to be registered before the mapper is used as for the class mappings
+    private final ConcurrentMap<Type, Adapter<?, ?>> adapterCache = new ConcurrentHashMap<Type, Adapter<?, ?>>();
+    private final ConcurrentMap<Adapter<?, ?>, AdapterKey> reverseAdapters = new ConcurrentHashMap<Adapter<?, ?>, AdapterKey>();
 
-    private final Map<Class<?>, ObjectConverter.Writer<?>> objectConverterWriterCache;
-    private final Map<Class<?>, ObjectConverter.Reader<?>> objectConverterReaderCache;
+    // shared by all the threads using the mapper, a miss is resolved without lock and the first result wins
+    private final ConcurrentMap<Class<?>, ObjectConverter.Writer<?>> objectConverterWriterCache;
+    private final ConcurrentMap<Class<?>, ObjectConverter.Reader<?>> objectConverterReaderCache;
 
     //disable checkstyle for 10+ parameters
     //CHECKSTYLE:OFF
@@ -80,6 +94,39 @@ public /* DON'T MAKE IT HIDDEN */ class MapperConfig implements Cloneable {
                         final AccessMode accessMode, final Charset encoding,
                         final Comparator<String> attributeOrder,
                         final boolean enforceQuoteString, final boolean failOnUnknown) {
+        this(adapters, objectConverterWriters, objectConverterReaders, version, close, skipNull, skipEmptyArray,
+                treatByteArrayAsBase64, treatByteArrayAsBase64URL, readAttributeBeforeWrite, accessMode, encoding,
+                attributeOrder, enforceQuoteString, failOnUnknown, 0, null);
+    }
+
+    public MapperConfig(final ConcurrentMap<AdapterKey, Adapter<?, ?>> adapters,
+                        final Map<Class<?>, ObjectConverter.Writer<?>> objectConverterWriters,
+                        final Map<Class<?>, ObjectConverter.Reader<?>> objectConverterReaders,
+                        final int version, final boolean close,
+                        final boolean skipNull, final boolean skipEmptyArray,
+                        final boolean treatByteArrayAsBase64, final boolean treatByteArrayAsBase64URL,
+                        final boolean readAttributeBeforeWrite,
+                        final AccessMode accessMode, final Charset encoding,
+                        final Comparator<String> attributeOrder,
+                        final boolean enforceQuoteString, final boolean failOnUnknown,
+                        final int parallelBindingThreshold, final ForkJoinPool parallelBindingPool) {
+        this(adapters, objectConverterWriters, objectConverterReaders, version, close, skipNull, skipEmptyArray,
+                treatByteArrayAsBase64, treatByteArrayAsBase64URL, readAttributeBeforeWrite, accessMode, encoding,
+                attributeOrder, enforceQuoteString, failOnUnknown, parallelBindingThreshold, parallelBindingPool, false);
+    }
+
+    public MapperConfig(final ConcurrentMap<AdapterKey, Adapter<?, ?>> adapters,
+                        final Map<Class<?>, ObjectConverter.Writer<?>> objectConverterWriters,
+                        final Map<Class<?>, ObjectConverter.Reader<?>> objectConverterReaders,
+                        final int version, final boolean close,
+                        final boolean skipNull, final boolean skipEmptyArray,
+                        final boolean treatByteArrayAsBase64, final boolean treatByteArrayAsBase64URL,
+                        final boolean readAttributeBeforeWrite,
+                        final AccessMode accessMode, final Charset encoding,
+                        final Comparator<String> attributeOrder,
+                        final boolean enforceQuoteString, final boolean failOnUnknown,
+                        final int parallelBindingThreshold, final ForkJoinPool parallelBindingPool,
+                        final boolean useGeneratedCodecs) {
     //CHECKSTYLE:ON
         this.objectConverterWriters = objectConverterWriters;
         this.objectConverterReaders = objectConverterReaders;
@@ -96,25 +143,69 @@ public /* DON'T MAKE IT HIDDEN */ class MapperConfig implements Cloneable {
         this.attributeOrder = attributeOrder;
         this.enforceQuoteString = enforceQuoteString;
         this.failOnUnknown = failOnUnknown;
+        this.parallelBindingThreshold = parallelBindingThreshold;
+        this.parallelBindingPool = parallelBindingPool == null && parallelBindingThreshold > 0 ? ForkJoinPool.commonPool() : parallelBindingPool;
+        this.useGeneratedCodecs = useGeneratedCodecs;
 
-        this.objectConverterWriterCache = new HashMap<Class<?>, ObjectConverter.Writer<?>>(objectConverterWriters.size());
-        this.objectConverterReaderCache = new HashMap<Class<?>, ObjectConverter.Reader<?>>(objectConverterReaders.size());
+        this.objectConverterWriterCache = new ConcurrentHashMap<Class<?>, ObjectConverter.Writer<?>>(objectConverterWriters.size());
+        this.objectConverterReaderCache = new ConcurrentHashMap<Class<?>, ObjectConverter.Reader<?>>(objectConverterReaders.size());
     }
 
     public Adapter findAdapter(final Type aClass) {
-        final Adapter<?, ?> converter = adapters.get(new AdapterKey(aClass, String.class));
-        if (converter != null) {
-            return converter;
+        final Adapter<?, ?> cached = adapterCache.get(aClass);
+        if (cached != null) {
+            return cached == NO_ADAPTER ? null : cached;
         }
-        if (Class.class.isInstance(aClass)) {
+
+        Adapter<?, ?> converter = adapters.get(new AdapterKey(aClass, String.class));
+        if (converter == null && Class.class.isInstance(aClass)) {
             final Class<?> clazz = Class.class.cast(aClass);
             if (clazz.isEnum()) {
-                final Adapter<?, ?> enumConverter = new ConverterAdapter(new EnumConverter(clazz));
-                adapters.putIfAbsent(new AdapterKey(String.class, aClass), enumConverter);
-                return enumConverter;
+                converter = new ConverterAdapter(new EnumConverter(clazz));
+                adapters.putIfAbsent(new AdapterKey(String.class, aClass), converter);
             }
         }
-        return null;
+        final Adapter<?, ?> existing = adapterCache.putIfAbsent(aClass, converter == null ? NO_ADAPTER : converter);
+        if (existing != null) {
+            return existing == NO_ADAPTER ? null : existing;
+        }
+        return converter;
+    }
+
+    /**
+     * @return the from/to types of the adapter, taken from its registration or its generics.
+     */
+    public AdapterKey findAdapterKey(final Adapter<?, ?> adapter) {
+        AdapterKey adapterKey = reverseAdapters.get(adapter);
+        if (adapterKey != null) {
+            return adapterKey;
+        }
+        for (final Map.Entry<AdapterKey, Adapter<?, ?>> entry : adapters.entrySet()) {
+            if (entry.getValue() == adapter) {
+                adapterKey = entry.getKey();
+                break;
+            }
+        }
+        if (adapterKey == null) {
+            for (final Type t : adapter.getClass().getGenericInterfaces()) {
+                if (!ParameterizedType.class.isInstance(t)) {
+                    continue;
+                }
+                final ParameterizedType pt = ParameterizedType.class.cast(t);
+                if (Adapter.class == pt.getRawType()) {
+                    final Type[] actualTypeArguments = pt.getActualTypeArguments();
+                    adapterKey = new AdapterKey(actualTypeArguments[0], actualTypeArguments[1]);
+                    break;
+                }
+            }
+        }
+        if (adapterKey != null) {
+            final AdapterKey existing = reverseAdapters.putIfAbsent(adapter, adapterKey);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return adapterKey;
     }
 
     /**
@@ -142,32 +233,36 @@ public /* DON'T MAKE IT HIDDEN */ class MapperConfig implements Cloneable {
 
     private <T> T findObjectConverter(final Class clazz,
                                                 final Map<Class<?>, T> from,
-                                                final Map<Class<?>, T> cache) {
+                                                final ConcurrentMap<Class<?>, T> cache) {
         if (clazz == null) {
             throw new IllegalArgumentException("clazz must not be null");
         }
+        if (from.isEmpty()) {
+            return null;
+        }
 
         // first lets look in our cache
         T converter = cache.get(clazz);
-        if (converter != null && converter != NO_CONVERTER) {
-            return converter;
+        if (converter == null) { // we get called the first time for this class
+            converter = resolveObjectConverter(clazz, from);
+            final T existing = cache.putIfAbsent(clazz, converter == null ? (T) NO_CONVERTER : converter);
+            if (existing != null) {
+                converter = existing;
+            }
         }
 
         // if we have found a dummy, we return null
-        if (converter == NO_CONVERTER) {
-            return null;
-        }
-
-        // we get called the first time for this class
-        // lets search...
+        return converter == NO_CONVERTER ? null : converter;
+    }
 
+    private <T> T resolveObjectConverter(final Class clazz, final Map<Class<?>, T> from) {
+        T converter = null;
         Map<Class<?>, T> matchingConverters = new HashMap<Class<?>, T>();
 
         for (Map.Entry<Class<?>, T> entry : from.entrySet()) {
 
             if (clazz == entry.getKey()) {
-                converter = entry.getValue();
-                break;
+                return entry.getValue();
             }
 
             if (entry.getKey().isAssignableFrom(clazz)) {
@@ -175,13 +270,7 @@ public /* DON'T MAKE IT HIDDEN */ class MapperConfig implements Cloneable {
             }
         }
 
-        if (converter != null) {
-            cache.put(clazz, converter);
-            return converter;
-        }
-
         if (matchingConverters.isEmpty()) {
-            cache.put(clazz, (T) NO_CONVERTER);
             return null;
         }
 
@@ -213,12 +302,6 @@ public /* DON'T MAKE IT HIDDEN */ class MapperConfig implements Cloneable {
             toProcess = toProcess.getSuperclass();
         }
 
-        if (converter == null) {
-            cache.put(clazz, (T) NO_CONVERTER);
-        } else {
-            cache.put(clazz, converter);
-        }
-
         return converter;
     }
 
@@ -281,4 +364,22 @@ public /* DON'T MAKE IT HIDDEN */ class MapperConfig implements Cloneable {
     public boolean isEnforceQuoteString() {
         return enforceQuoteString;
     }
+
+    /**
+     * @return the minimum size of an array to bind its items in parallel, 0 or less if disabled.
+     */
+    public int getParallelBindingThreshold() {
+        return parallelBindingThreshold;
+    }
+
+    public ForkJoinPool getParallelBindingPool() {
+        return parallelBindingPool;
+    }
+
+    /**
+     * @return true if the codecs generated for @JohnzonCodec classes are loaded from META-INF/services.
+     */
+    public boolean isUseGeneratedCodecs() {
+        return useGeneratedCodecs;
+    }
 }
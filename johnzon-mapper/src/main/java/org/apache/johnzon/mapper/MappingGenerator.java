@@ -57,4 +57,15 @@ public interface MappingGenerator {
      * @return itself, for easier chaining of commands
      */
     MappingGenerator writeObject(Object o, JsonGenerator generator);
+
+    /**
+     * Write the given value (object, array, collection, map, primitive or null) as the attribute {@code key}
+     * of the currently opened JSON object. Null and empty array values respect the mapper configuration.
+     *
+     * @param key the attribute name
+     * @param o the value to write
+     * @param generator the jsonp generator to use
+     * @return itself, for easier chaining of commands
+     */
+    MappingGenerator writeObject(String key, Object o, JsonGenerator generator);
 }
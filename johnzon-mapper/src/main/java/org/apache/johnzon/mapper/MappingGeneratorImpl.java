@@ -18,8 +18,6 @@
  */
 package org.apache.johnzon.mapper;
 
-import org.apache.johnzon.mapper.internal.AdapterKey;
-
 import javax.json.JsonValue;
 import javax.json.stream.JsonGenerator;
 import javax.xml.bind.DatatypeConverter;
@@ -59,6 +57,28 @@ public class MappingGeneratorImpl implements MappingGenerator {
         return this;
     }
 
+    @Override
+    public MappingGenerator writeObject(final String key, final Object object, final JsonGenerator generator) {
+        if (object == null) {
+            if (!config.isSkipNull()) {
+                generator.writeNull(key);
+            }
+        } else if (object instanceof JsonValue) {
+            generator.write(key, (JsonValue) object);
+        } else {
+            final Class<?> type = object.getClass();
+            try { // same handling as an attribute of a mapped object
+                writeValue(type, Mappings.isPrimitive(type), type.isArray(), Collection.class.isInstance(object), Map.class.isInstance(object),
+                        null, key, object, null);
+            } catch (final InvocationTargetException e) {
+                throw new MapperException(e);
+            } catch (final IllegalAccessException e) {
+                throw new MapperException(e);
+            }
+        }
+        return this;
+    }
+
     public void doWriteObject(Object object, JsonGenerator generator, boolean writeBody) {
         try {
             if (object instanceof Map) {
@@ -93,9 +113,14 @@ public class MappingGeneratorImpl implements MappingGenerator {
                 generator.writeStartObject();
             }
 
-            ObjectConverter.Writer objectConverter = config.findObjectConverterWriter(objectClass);
+            // once the class is mapped the converter lookup is a field read
+            final Mappings.ClassMapping classMapping = mappings.getClassMapping(objectClass);
+            final ObjectConverter.Writer objectConverter = classMapping != null ?
+                    classMapping.objectConverterWriter : config.findObjectConverterWriter(objectClass);
             if (writeBody && objectConverter != null) {
                 objectConverter.writeJson(object, this);
+            } else if (classMapping != null) {
+                doWriteObjectBody(object, classMapping);
             } else {
                 doWriteObjectBody(object);
             }
@@ -230,7 +255,10 @@ public class MappingGeneratorImpl implements MappingGenerator {
         if (classMapping == null) {
             throw new MapperException("No mapping for " + objectClass.getName());
         }
+        doWriteObjectBody(object, classMapping);
+    }
 
+    private void doWriteObjectBody(final Object object, final Mappings.ClassMapping classMapping) throws IllegalAccessException, InvocationTargetException {
         if (classMapping.writer != null) {
             classMapping.writer.writeJson(object, this);
             return;
@@ -240,15 +268,15 @@ public class MappingGeneratorImpl implements MappingGenerator {
             return;
         }
 
-        for (final Map.Entry<String, Mappings.Getter> getterEntry : classMapping.getters.entrySet()) {
-            final Mappings.Getter getter = getterEntry.getValue();
+        for (final Mappings.WriteSlot slot : mappings.findWritePlan(classMapping)) {
+            final Mappings.Getter getter = slot.getter;
             if (getter.version >= 0 && config.getVersion() >= getter.version) {
                 continue;
             }
 
             final Object value = getter.reader.read(object);
             if (JsonValue.class.isInstance(value)) {
-                generator.write(getterEntry.getKey(), JsonValue.class.cast(value));
+                generator.write(slot.name, JsonValue.class.cast(value));
                 continue;
             }
 
@@ -256,18 +284,23 @@ public class MappingGeneratorImpl implements MappingGenerator {
                 if (config.isSkipNull() && !getter.reader.isNillable()) {
                     continue;
                 } else {
-                    generator.writeNull(getterEntry.getKey());
+                    generator.writeNull(slot.name);
                     continue;
                 }
             }
 
+            if (slot.kind != Mappings.WriteKind.DYNAMIC) {
+                writeSlot(slot, value);
+                continue;
+            }
+
             final Object val = getter.converter == null ? value : getter.converter.from(value);
 
             writeValue(val.getClass(),
                     getter.primitive, getter.array,
                     getter.collection, getter.map,
                     getter.itemConverter,
-                    getterEntry.getKey(),
+                    slot.name,
                     val, getter.objectConverter);
         }
 
@@ -281,6 +314,92 @@ public class MappingGeneratorImpl implements MappingGenerator {
         }
     }
 
+    // same output as writeValue() but the strategy is already known from the declared type
+    private void writeSlot(final Mappings.WriteSlot slot, final Object value) throws InvocationTargetException, IllegalAccessException {
+        switch (slot.kind) {
+            case OBJECT:
+                Mappings.ClassMapping mapping = slot.mapping;
+                if (mapping == null) {
+                    mapping = mappings.findOrCreateClassMapping(slot.type);
+                    if (mapping == null) {
+                        throw new MapperException("No mapping for " + slot.type.getName());
+                    }
+                    slot.mapping = mapping;
+                }
+                generator.writeStartObject(slot.name);
+                doWriteObjectBody(value, mapping);
+                generator.writeEnd();
+                break;
+            case COLLECTION:
+                generator.writeStartArray(slot.name);
+                for (final Object o : Collection.class.cast(value)) {
+                    if (o == null) {
+                        continue; // as writeItem()
+                    }
+                    if (o.getClass() == slot.type) {
+                        writeScalar(slot.itemKind, o);
+                    } else { // raw collection
+                        writeItem(o);
+                    }
+                }
+                generator.writeEnd();
+                break;
+            case ENUM:
+                final Object adapted = slot.adapter.from(value);
+                if (String.class.isInstance(adapted)) {
+                    generator.write(slot.name, String.class.cast(adapted));
+                } else { // custom enum converter
+                    writeValue(adapted.getClass(), false, false, false, false, null, slot.name, adapted, null);
+                }
+                break;
+            case STRING:
+                generator.write(slot.name, String.class.cast(value));
+                break;
+            case INT:
+                generator.write(slot.name, Number.class.cast(value).intValue());
+                break;
+            case LONG:
+                generator.write(slot.name, Number.class.cast(value).longValue());
+                break;
+            case DOUBLE:
+                final double doubleValue = Number.class.cast(value).doubleValue();
+                if (!Double.isNaN(doubleValue)) {
+                    generator.write(slot.name, doubleValue);
+                }
+                break;
+            case BOOLEAN:
+                generator.write(slot.name, Boolean.class.cast(value));
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported write kind: " + slot.kind);
+        }
+    }
+
+    private void writeScalar(final Mappings.WriteKind kind, final Object value) {
+        switch (kind) {
+            case STRING:
+                generator.write(String.class.cast(value));
+                break;
+            case INT:
+                generator.write(Number.class.cast(value).intValue());
+                break;
+            case LONG:
+                generator.write(Number.class.cast(value).longValue());
+                break;
+            case DOUBLE:
+                final double doubleValue = Number.class.cast(value).doubleValue();
+                if (!Double.isNaN(doubleValue)) {
+                    generator.write(doubleValue);
+                }
+                break;
+            case BOOLEAN:
+                generator.write(Boolean.class.cast(value));
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported write kind: " + kind);
+        }
+    }
+
     private void writeValue(final Class<?> type,
                             final boolean primitive, final boolean array,
                             final boolean collection, final boolean map,
@@ -299,14 +418,18 @@ public class MappingGeneratorImpl implements MappingGenerator {
                 return;
             }
             if(config.isTreatByteArrayAsBase64URL() && (type == byte[].class /*|| type == Byte[].class*/)) {
-                generator.write(key, String.valueOf(Adapter.class.cast(config.getAdapters().get(new AdapterKey(byte[].class, String.class))).to(value)));
+                generator.write(key, String.valueOf(Adapter.class.cast(config.findAdapter(byte[].class)).to(value)));
                 return;
             }
 
             generator.writeStartArray(key);
-            for (int i = 0; i < length; i++) {
-                final Object o = Array.get(value, i);
-                writeItem(itemConverter != null ? itemConverter.from(o) : o);
+            if (itemConverter == null && type.getComponentType().isPrimitive()) {
+                writePrimitiveArrayItems(value);
+            } else {
+                for (int i = 0; i < length; i++) {
+                    final Object o = Array.get(value, i);
+                    writeItem(itemConverter != null ? itemConverter.from(o) : o);
+                }
             }
             generator.writeEnd();
             return;
@@ -336,9 +459,10 @@ public class MappingGeneratorImpl implements MappingGenerator {
                 return;
             } else {
 
+                final Mappings.ClassMapping classMapping = mappings.getClassMapping(type);
                 ObjectConverter.Writer objectConverterToUse = objectConverter;
                 if (objectConverterToUse == null) {
-                    objectConverterToUse = config.findObjectConverterWriter(type);
+                    objectConverterToUse = classMapping != null ? classMapping.objectConverterWriter : config.findObjectConverterWriter(type);
                 }
 
                 if (objectConverterToUse != null) {
@@ -347,13 +471,17 @@ public class MappingGeneratorImpl implements MappingGenerator {
                     generator.writeEnd();
                     return;
                 }
+                if (writePrimitives(key, type, value)) {
+                    return;
+                }
+                generator.writeStartObject(key);
+                if (classMapping != null && type == value.getClass()) {
+                    doWriteObjectBody(value, classMapping);
+                } else {
+                    doWriteObjectBody(value);
+                }
+                generator.writeEnd();
             }
-            if (writePrimitives(key, type, value)) {
-                return;
-            }
-            generator.writeStartObject(key);
-            doWriteObjectBody(value);
-            generator.writeEnd();
         }
     }
 
@@ -365,12 +493,16 @@ public class MappingGeneratorImpl implements MappingGenerator {
                 final int length = Array.getLength(o);
                 if (length > 0 || !config.isSkipEmptyArray()) {
                     generator.writeStartArray();
-                    for (int i = 0; i < length; i++) {
-                        Object t = Array.get(o, i);
-                        if (t == null) {
-                            generator.writeNull();
-                        } else {
-                            writeItem(t);
+                    if (o.getClass().getComponentType().isPrimitive()) {
+                        writePrimitiveArrayItems(o);
+                    } else {
+                        for (int i = 0; i < length; i++) {
+                            Object t = Array.get(o, i);
+                            if (t == null) {
+                                generator.writeNull();
+                            } else {
+                                writeItem(t);
+                            }
                         }
                     }
                     generator.writeEnd();
@@ -383,6 +515,47 @@ public class MappingGeneratorImpl implements MappingGenerator {
         }
     }
 
+    // same output as writeItem() on each item but without boxing them
+    private void writePrimitiveArrayItems(final Object array) {
+        if (int[].class.isInstance(array)) {
+            for (final int i : int[].class.cast(array)) {
+                generator.write(i);
+            }
+        } else if (long[].class.isInstance(array)) {
+            for (final long l : long[].class.cast(array)) {
+                generator.write(l);
+            }
+        } else if (double[].class.isInstance(array)) {
+            for (final double d : double[].class.cast(array)) {
+                if (!Double.isNaN(d)) {
+                    generator.write(d);
+                }
+            }
+        } else if (float[].class.isInstance(array)) {
+            for (final float f : float[].class.cast(array)) {
+                if (!Float.isNaN(f)) {
+                    generator.write((double) f);
+                }
+            }
+        } else if (short[].class.isInstance(array)) {
+            for (final short sh : short[].class.cast(array)) {
+                generator.write(sh);
+            }
+        } else if (byte[].class.isInstance(array)) {
+            for (final byte b : byte[].class.cast(array)) {
+                generator.write(b);
+            }
+        } else if (boolean[].class.isInstance(array)) {
+            for (final boolean b : boolean[].class.cast(array)) {
+                generator.write(b);
+            }
+        } else if (char[].class.isInstance(array)) {
+            for (final char c : char[].class.cast(array)) {
+                generator.write(String.valueOf(c));
+            }
+        }
+    }
+
     private <T> void doWriteIterable(final Iterable<T> object) {
         if (object == null) {
             generator.writeStartArray().writeEnd();
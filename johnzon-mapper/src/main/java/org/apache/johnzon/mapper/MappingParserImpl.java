@@ -21,7 +21,6 @@ package org.apache.johnzon.mapper;
 import org.apache.johnzon.core.JsonLongImpl;
 import org.apache.johnzon.mapper.access.AccessMode;
 import org.apache.johnzon.mapper.converter.CharacterConverter;
-import org.apache.johnzon.mapper.converter.EnumConverter;
 import org.apache.johnzon.mapper.internal.AdapterKey;
 import org.apache.johnzon.mapper.internal.ConverterAdapter;
 import org.apache.johnzon.mapper.reflection.JohnzonParameterizedType;
@@ -33,11 +32,13 @@ import javax.json.JsonReader;
 import javax.json.JsonString;
 import javax.json.JsonStructure;
 import javax.json.JsonValue;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParsingException;
 import javax.xml.bind.DatatypeConverter;
+import java.io.Closeable;
 import java.lang.reflect.Array;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
@@ -45,17 +46,20 @@ import java.math.BigInteger;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.NavigableSet;
+import java.util.NoSuchElementException;
 import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Set;
@@ -66,6 +70,8 @@ import java.util.TreeSet;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import static java.util.Arrays.asList;
 import static javax.json.JsonValue.ValueType.FALSE;
@@ -75,12 +81,18 @@ import static javax.json.JsonValue.ValueType.TRUE;
 
 /**
  * This class is not concurrently usable as it contains state.
+ *
+ * When created from a {@link JsonParser} the instances are bound directly from the parser events
+ * (setters are looked up on each key and values converted from the parser) instead of reading
+ * the whole document as a {@link JsonValue} first. Subtrees needing a {@link JsonValue}
+ * (converters, {@link ObjectConverter.Reader}, constructor parameters) are still read as a tree.
  */
 public class MappingParserImpl implements MappingParser {
 
     private static final Adapter<Object, String> FALLBACK_CONVERTER = new ConverterAdapter<Object>(new FallbackConverter());
     private static final JohnzonParameterizedType ANY_LIST = new JohnzonParameterizedType(List.class, Object.class);
     private static final CharacterConverter CHARACTER_CONVERTER = new CharacterConverter(); // this one is particular, share the logic
+    private static final int MIN_PARALLEL_CHUNK = 64;
     private static final boolean HAS_READ_VALUE;
     static {
         boolean hasReadValue; // v1.0 vs v1.1
@@ -93,13 +105,17 @@ public class MappingParserImpl implements MappingParser {
         HAS_READ_VALUE = hasReadValue;
     }
 
-    protected final ConcurrentMap<Adapter<?, ?>, AdapterKey> reverseAdaptersRegistry;
-    protected final ConcurrentMap<Class<?>, Method> valueOfs = new ConcurrentHashMap<Class<?>, Method>();
-
     private final MapperConfig config;
     private final Mappings mappings;
 
     private final JsonReader jsonReader;
+    private final JsonParser jsonParser;
+
+    // set by readInto(), existing values are then updated in place when possible
+    private boolean merge;
+    // last type given to recycle() and its recycling factory (null if it has none)
+    private Class<?> recycledType;
+    private AccessMode.RecyclingFactory recyclingFactory;
 
 
     public MappingParserImpl(MapperConfig config, Mappings mappings, JsonReader jsonReader) {
@@ -107,13 +123,27 @@ public class MappingParserImpl implements MappingParser {
         this.mappings = mappings;
 
         this.jsonReader = jsonReader;
+        this.jsonParser = null;
+    }
 
-        reverseAdaptersRegistry = new ConcurrentHashMap<>(config.getAdapters().size());
+    public MappingParserImpl(MapperConfig config, Mappings mappings, JsonParser jsonParser) {
+        this.config = config;
+        this.mappings = mappings;
+
+        this.jsonReader = null;
+        this.jsonParser = jsonParser;
     }
 
 
     @Override
     public <T> T readObject(Type targetType) {
+        if (jsonParser != null) {
+            try {
+                return (T) readStreaming(targetType);
+            } finally {
+                jsonParser.close(); // like the reader, the stream itself is protected by the mapper if it must not be closed
+            }
+        }
         try {
             return readObject(HAS_READ_VALUE ? jsonReader.readValue() : jsonReader.read(), targetType);
         } finally {
@@ -123,6 +153,63 @@ public class MappingParserImpl implements MappingParser {
         }
     }
 
+    /**
+     * Binds the json object on an existing instance, nested objects and collections are reused when possible.
+     *
+     * @param instance the bean or map to update.
+     * @return the instance.
+     */
+    <T> T readInto(final T instance) {
+        final JsonObject object;
+        if (jsonParser == null) {
+            try {
+                final JsonValue value = HAS_READ_VALUE ? jsonReader.readValue() : jsonReader.read();
+                if (value.getValueType() != JsonValue.ValueType.OBJECT) {
+                    throw new MapperException("Only a json object can be read into an instance");
+                }
+                object = JsonObject.class.cast(value);
+            } finally {
+                if (config.isClose()) {
+                    jsonReader.close();
+                }
+            }
+        } else {
+            try {
+                if (!jsonParser.hasNext() || jsonParser.next() != JsonParser.Event.START_OBJECT) {
+                    throw new MapperException("Only a json object can be read into an instance");
+                }
+                object = jsonParser.getObject();
+                if (jsonParser.hasNext()) {
+                    throw new JsonParsingException("Expected end of file", jsonParser.getLocation());
+                }
+            } finally {
+                jsonParser.close();
+            }
+        }
+
+        merge = true;
+        if (!mergeInto(instance, object, new JohnzonParameterizedType(Map.class, String.class, Object.class), null)) {
+            throw new MapperException("Can't read into an instance of " + instance.getClass().getName());
+        }
+        return instance;
+    }
+
+    /**
+     * @param itemType type of the items of the top level array.
+     * @return an iterator binding the items one at a time, the parser is closed when the array is consumed.
+     */
+    <T> ArrayIterator<T> readIterator(final Type itemType) {
+        try {
+            if (!jsonParser.hasNext() || jsonParser.next() != JsonParser.Event.START_ARRAY) {
+                throw new MapperException("Expected a json array");
+            }
+        } catch (final RuntimeException e) {
+            jsonParser.close();
+            throw e;
+        }
+        return new ArrayIterator<T>(itemType);
+    }
+
     @Override
     public <T> T readObject(JsonValue jsonValue, Type targetType) {
         return readObject(jsonValue, targetType, targetType instanceof Class || targetType instanceof ParameterizedType);
@@ -185,29 +272,350 @@ public class MappingParserImpl implements MappingParser {
         if (jsonValue.equals(JsonValue.FALSE) && (Boolean.class == targetType || boolean.class == targetType || Object.class == targetType)) {
             return (T) Boolean.FALSE;
         }
+        if (JsonString.class.isInstance(jsonValue) || JsonNumber.class.isInstance(jsonValue)) { // enums, dates, short, char...
+            return (T) toObject(null, jsonValue, targetType, null);
+        }
         throw new IllegalArgumentException("Unsupported " + jsonValue + " for type " + targetType);
     }
 
 
+    private Object readStreaming(final Type targetType) {
+        if (!jsonParser.hasNext()) {
+            throw new IllegalStateException("Nothing to read");
+        }
+        final JsonParser.Event event = jsonParser.next();
+        final boolean applyObjectConverter = targetType instanceof Class || targetType instanceof ParameterizedType;
+        final Object value;
+        if (event == JsonParser.Event.START_OBJECT
+                && JsonStructure.class != targetType && JsonObject.class != targetType && JsonValue.class != targetType) {
+            value = streamObject(targetType, applyObjectConverter);
+        } else if (event == JsonParser.Event.START_ARRAY
+                && ((Class.class.isInstance(targetType) && Class.class.cast(targetType).isArray())
+                    || ParameterizedType.class.isInstance(targetType) || Object.class == targetType)) {
+            if (ParameterizedType.class.isInstance(targetType) && mappings.findCollectionMapping(ParameterizedType.class.cast(targetType)) == null) {
+                throw new UnsupportedOperationException("type " + targetType + " not supported");
+            }
+            value = streamArray(Object.class == targetType ? ANY_LIST : targetType, null);
+        } else {
+            value = readObject(jsonParser.getValue(), targetType, applyObjectConverter);
+        }
+        if (jsonParser.hasNext()) {
+            throw new JsonParsingException("Expected end of file", jsonParser.getLocation());
+        }
+        return value;
+    }
+
+    // mapped classes keep the config lookup result so it is only resolved for the other ones
+    private ObjectConverter.Reader findObjectConverterReader(final Mappings.ClassMapping knownMapping, final Class<?> type) {
+        return knownMapping != null ? knownMapping.objectConverterReader : config.findObjectConverterReader(type);
+    }
+
+    // streaming flavor of buildObject(), the parser is on the START_OBJECT event
+    private Object streamObject(final Type inType, final boolean applyObjectConverter) {
+        Type type = inType;
+        if (inType == Object.class) {
+            type = new JohnzonParameterizedType(Map.class, String.class, Object.class);
+        }
+
+        final Mappings.ClassMapping knownMapping = mappings.getClassMapping(type);
+        if (applyObjectConverter && !(type instanceof JohnzonParameterizedType)
+                && (!(type instanceof Class) || findObjectConverterReader(knownMapping, (Class) type) != null)) {
+            return buildObject(inType, jsonParser.getObject(), applyObjectConverter);
+        }
+
+        final Mappings.ClassMapping classMapping = knownMapping != null ? knownMapping : mappings.findOrCreateClassMapping(type);
+        if (classMapping == null) {
+            final Map<Object, Object> map = streamMap(type);
+            if (map != null) {
+                return map;
+            }
+            return buildObject(inType, jsonParser.getObject(), applyObjectConverter);
+        }
+        if ((applyObjectConverter && classMapping.reader != null)
+                || classMapping.factory == null || classMapping.factory.getParameterTypes().length > 0) {
+            return buildObject(inType, jsonParser.getObject(), applyObjectConverter);
+        }
+
+        final Object t = classMapping.factory.create(null);
+        final Mappings.PropertyTable table = mappings.findPropertyTable(classMapping);
+        Set<String> unknown = null;
+        boolean[] jsonValueSetters = null;
+        JsonParser.Event event;
+        while ((event = jsonParser.next()) != JsonParser.Event.END_OBJECT) {
+            final String key = jsonParser.getString();
+            event = jsonParser.next();
+
+            final int index = table.indexOf(key);
+            if (index < 0) {
+                if (config.isFailOnUnknown()) {
+                    if (unknown == null) {
+                        unknown = new HashSet<String>();
+                    }
+                    unknown.add(key);
+                }
+                if (classMapping.anySetter != null) {
+                    try {
+                        classMapping.anySetter.invoke(t, key, toValue(null, jsonParser.getValue(), null, null, Object.class, null));
+                    } catch (final IllegalAccessException e) {
+                        throw new IllegalStateException(e);
+                    } catch (final InvocationTargetException e) {
+                        throw new MapperException(e.getCause());
+                    }
+                } else {
+                    skip(event);
+                }
+                continue;
+            }
+            if (unknown != null) { // will fail anyway
+                skip(event);
+                continue;
+            }
+
+            final Mappings.Setter setter = table.setters[index];
+            if (JsonValue.class == setter.paramType) {
+                if (jsonValueSetters == null) {
+                    jsonValueSetters = new boolean[table.setters.length];
+                }
+                jsonValueSetters[index] = true;
+                setter.writer.write(t, jsonParser.getValue());
+                continue;
+            }
+            if (event == JsonParser.Event.VALUE_NULL) { // forced
+                setter.writer.write(t, null);
+                continue;
+            }
+
+            final Object existingInstance = readExistingInstance(classMapping, key, t);
+            final Object convertedValue = setter.converter != null || setter.objectConverter != null ?
+                    toValue(existingInstance, jsonParser.getValue(), setter.converter, setter.itemConverter, setter.paramType, setter.objectConverter) :
+                    streamToObject(existingInstance, event, setter.paramType, setter.itemConverter);
+            if (convertedValue != null) {
+                setter.writer.write(t, convertedValue);
+            }
+        }
+
+        if (unknown != null) {
+            throw new MapperException("(fail on unknown properties): " + unknown);
+        }
+        if (table.hasJsonValueSetters) { // missing values are passed too
+            for (int i = 0; i < table.setters.length; i++) {
+                if (JsonValue.class == table.setters[i].paramType && (jsonValueSetters == null || !jsonValueSetters[i])) {
+                    table.setters[i].writer.write(t, null);
+                }
+            }
+        }
+        return t;
+    }
+
+    // null if the type is not a map
+    private Map<Object, Object> streamMap(final Type type) {
+        final Map map;
+        final Type keyType;
+        final Type valueType;
+        if (ParameterizedType.class.isInstance(type)) {
+            final ParameterizedType aType = ParameterizedType.class.cast(type);
+            final Type[] fieldArgTypes = aType.getActualTypeArguments();
+            if (fieldArgTypes.length < 2) {
+                return null;
+            }
+            map = newMap(Class.class.cast(aType.getRawType()), fieldArgTypes, -1);
+            keyType = fieldArgTypes[0];
+            valueType = fieldArgTypes[1];
+        } else if (Map.class == type || HashMap.class == type || LinkedHashMap.class == type) {
+            map = new LinkedHashMap<String, Object>();
+            keyType = String.class;
+            valueType = Object.class;
+        } else {
+            return null;
+        }
+        if (map == null) {
+            return null;
+        }
+
+        final boolean any = valueType == Object.class;
+        JsonParser.Event event;
+        while ((event = jsonParser.next()) != JsonParser.Event.END_OBJECT) {
+            final String key = jsonParser.getString();
+            event = jsonParser.next();
+            if (any && (event == JsonParser.Event.VALUE_STRING || event == JsonParser.Event.VALUE_NUMBER)) {
+                map.put(key, anyScalar(jsonParser.getValue()));
+            } else {
+                map.put(convertTo(keyType, key), streamToObject(null, event, valueType, null));
+            }
+        }
+        return map;
+    }
+
+    // streaming flavor of toObject(), the parser is on the value event
+    private Object streamToObject(final Object baseInstance, final JsonParser.Event event, final Type type, final Adapter itemConverter) {
+        switch (event) {
+            case START_OBJECT:
+                if (JsonObject.class == type || JsonStructure.class == type || !isStreamable(type)) {
+                    return toObject(baseInstance, jsonParser.getObject(), type, itemConverter);
+                }
+                final boolean typedAdapter = TypeAwareAdapter.class.isInstance(itemConverter);
+                final Object object = streamObject(
+                        baseInstance != null ? baseInstance.getClass() : (typedAdapter ? TypeAwareAdapter.class.cast(itemConverter).getTo() : type),
+                        type instanceof Class);
+                return typedAdapter ? itemConverter.to(object) : object;
+            case START_ARRAY:
+                if (JsonArray.class == type || JsonStructure.class == type || !isStreamable(type)) {
+                    return toObject(baseInstance, jsonParser.getArray(), type, itemConverter);
+                }
+                return streamArray(type, itemConverter);
+            case VALUE_NULL:
+                return null;
+            case VALUE_STRING:
+                if (String.class == type && itemConverter == null) {
+                    return jsonParser.getString();
+                }
+                return toObject(baseInstance, jsonParser.getValue(), type, itemConverter);
+            default:
+                return toObject(baseInstance, jsonParser.getValue(), type, itemConverter);
+        }
+    }
+
+    // these types have a specific handling in toObject() whatever the value is
+    private static boolean isStreamable(final Type type) {
+        return type != Boolean.class && type != boolean.class && type != Character.class && type != char.class;
+    }
+
+    // streaming flavor of buildArray(), the parser is on the START_ARRAY event
+    private Object streamArray(final Type type, final Adapter itemConverter) {
+        if (Class.class.isInstance(type) && Class.class.cast(type).isArray()) {
+            final Class<?> componentType = Class.class.cast(type).getComponentType();
+            if (itemConverter == null && componentType.isPrimitive()) {
+                return streamPrimitiveArray(componentType);
+            }
+            final List<Object> items = new ArrayList<Object>();
+            JsonParser.Event event;
+            while ((event = jsonParser.next()) != JsonParser.Event.END_ARRAY) {
+                items.add(streamToObject(null, event, componentType, itemConverter));
+            }
+            final Object array = Array.newInstance(componentType, items.size());
+            for (int i = 0; i < items.size(); i++) {
+                Array.set(array, i, items.get(i));
+            }
+            return array;
+        }
+
+        if (ParameterizedType.class.isInstance(type)) {
+            final Mappings.CollectionMapping mapping = mappings.findCollectionMapping(ParameterizedType.class.cast(type));
+            if (mapping != null) {
+                final List<Object> items = new ArrayList<Object>();
+                JsonParser.Event event;
+                while ((event = jsonParser.next()) != JsonParser.Event.END_ARRAY) {
+                    items.add(streamToObject(null, event, mapping.arg, itemConverter));
+                }
+                final Collection collection = newCollection(mapping, items.size());
+                collection.addAll(items);
+                return finishCollection(mapping, collection);
+            }
+        }
+
+        if (Object.class == type) {
+            return streamArray(ANY_LIST, null);
+        }
+
+        throw new UnsupportedOperationException("type " + type + " not supported");
+    }
+
+    // the array is grown as needed and the numbers are read from the parser without boxing
+    private Object streamPrimitiveArray(final Class<?> componentType) {
+        int capacity = 16;
+        Object array = Array.newInstance(componentType, capacity);
+        int size = 0;
+        JsonParser.Event event;
+        while ((event = jsonParser.next()) != JsonParser.Event.END_ARRAY) {
+            if (size == capacity) {
+                capacity *= 2;
+                final Object bigger = Array.newInstance(componentType, capacity);
+                System.arraycopy(array, 0, bigger, 0, size);
+                array = bigger;
+            }
+            setPrimitive(array, size++, event);
+        }
+        if (size == capacity) {
+            return array;
+        }
+        final Object result = Array.newInstance(componentType, size);
+        System.arraycopy(array, 0, result, 0, size);
+        return result;
+    }
+
+    private void setPrimitive(final Object array, final int index, final JsonParser.Event event) {
+        if (event == JsonParser.Event.VALUE_NUMBER) {
+            if (int[].class.isInstance(array)) {
+                int[].class.cast(array)[index] = jsonParser.getInt();
+                return;
+            }
+            if (long[].class.isInstance(array)) {
+                long[].class.cast(array)[index] = jsonParser.getLong();
+                return;
+            }
+            if (double[].class.isInstance(array)) {
+                double[].class.cast(array)[index] = Double.parseDouble(jsonParser.getString());
+                return;
+            }
+            if (float[].class.isInstance(array)) {
+                float[].class.cast(array)[index] = (float) Double.parseDouble(jsonParser.getString());
+                return;
+            }
+            if (short[].class.isInstance(array)) {
+                short[].class.cast(array)[index] = (short) jsonParser.getInt();
+                return;
+            }
+            if (byte[].class.isInstance(array)) {
+                byte[].class.cast(array)[index] = (byte) jsonParser.getInt();
+                return;
+            }
+        } else if (boolean[].class.isInstance(array) && (event == JsonParser.Event.VALUE_TRUE || event == JsonParser.Event.VALUE_FALSE)) {
+            boolean[].class.cast(array)[index] = event == JsonParser.Event.VALUE_TRUE;
+            return;
+        }
+        setConverted(array, index, streamToObject(null, event, array.getClass().getComponentType(), null));
+    }
+
+    private void skip(final JsonParser.Event event) {
+        if (event != JsonParser.Event.START_OBJECT && event != JsonParser.Event.START_ARRAY) {
+            return;
+        }
+        int depth = 1;
+        while (depth > 0) {
+            switch (jsonParser.next()) {
+                case START_OBJECT:
+                case START_ARRAY:
+                    depth++;
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                    depth--;
+                    break;
+                default:
+            }
+        }
+    }
+
     private Object buildObject(final Type inType, final JsonObject object, final boolean applyObjectConverter) {
         Type type = inType;
         if (inType == Object.class) {
             type = new JohnzonParameterizedType(Map.class, String.class, Object.class);
         }
 
+        final Mappings.ClassMapping knownMapping = mappings.getClassMapping(type);
         if (applyObjectConverter && !(type instanceof JohnzonParameterizedType)) {
 
             if (!(type instanceof Class)) {
                 throw new MapperException("ObjectConverters are only supported for Classes not Types");
             }
 
-            ObjectConverter.Reader objectConverter = config.findObjectConverterReader((Class) type);
+            ObjectConverter.Reader objectConverter = findObjectConverterReader(knownMapping, (Class) type);
             if (objectConverter != null) {
                 return objectConverter.fromJson(object, type, new SuppressConversionMappingParser(this, object));
             }
         }
 
-        final Mappings.ClassMapping classMapping = mappings.findOrCreateClassMapping(type);
+        final Mappings.ClassMapping classMapping = knownMapping != null ? knownMapping : mappings.findOrCreateClassMapping(type);
 
         if (classMapping == null) {
             if (ParameterizedType.class.isInstance(type)) {
@@ -216,48 +624,14 @@ public class MappingParserImpl implements MappingParser {
                 if (fieldArgTypes.length >= 2) {
                     final Class<?> raw = Class.class.cast(aType.getRawType());
 
-                    final Map map;
-                    if (LinkedHashMap.class == raw) {
-                        map = new LinkedHashMap();
-                    } else if (SortedMap.class.isAssignableFrom(raw) || NavigableMap.class == raw || TreeMap.class == raw) {
-                        map = new TreeMap();
-                    } else if (ConcurrentMap.class.isAssignableFrom(raw)) {
-                        map = new ConcurrentHashMap(object.size());
-                    } else if (EnumMap.class.isAssignableFrom(raw)) {
-                        map = new EnumMap(Class.class.cast(fieldArgTypes[0]));
-                    } else if (Map.class.isAssignableFrom(raw)) {
-                        map = new HashMap(object.size());
-                    } else {
-                        map = null;
-                    }
-
+                    final Map map = newMap(raw, fieldArgTypes, object.size());
                     if (map != null) {
-
-                        Type keyType;
-                        if (ParameterizedType.class.isInstance(fieldArgTypes[0])) {
-                            keyType = fieldArgTypes[0];
-                        } else {
-                            keyType = fieldArgTypes[0];
-                        }
-
+                        final Type keyType = fieldArgTypes[0];
                         final boolean any = fieldArgTypes.length < 2 || fieldArgTypes[1] == Object.class;
                         for (final Map.Entry<String, JsonValue> value : object.entrySet()) {
                             final JsonValue jsonValue = value.getValue();
-                            if (JsonNumber.class.isInstance(jsonValue) && any) {
-                                final JsonNumber number = JsonNumber.class.cast(jsonValue);
-                                if (JsonLongImpl.class.isInstance(number)) {
-                                    final int integer = number.intValue();
-                                    final long asLong = number.longValue();
-                                    if (integer == asLong) {
-                                        map.put(value.getKey(), integer);
-                                    } else {
-                                        map.put(value.getKey(), asLong);
-                                    }
-                                } else {
-                                    map.put(value.getKey(), !number.isIntegral() ? number.bigDecimalValue() : number.intValue());
-                                }
-                            } else if (JsonString.class.isInstance(jsonValue) && any) {
-                                map.put(value.getKey(), JsonString.class.cast(jsonValue).getString());
+                            if (any && (JsonNumber.class.isInstance(jsonValue) || JsonString.class.isInstance(jsonValue))) {
+                                map.put(value.getKey(), anyScalar(jsonValue));
                             } else {
                                 map.put(convertTo(keyType, value.getKey()), toObject(null, jsonValue, fieldArgTypes[1], null));
                             }
@@ -290,21 +664,42 @@ public class MappingParserImpl implements MappingParser {
             throw new MapperException(classMapping.clazz + " not instantiable");
         }
 
-        if (config.isFailOnUnknown()) {
-            if (!classMapping.setters.keySet().containsAll(object.keySet())) {
-                throw new MapperException("(fail on unknown properties): " + new HashSet<String>(object.keySet()) {{
-                    removeAll(classMapping.setters.keySet());
-                }});
+        return bindObject(classMapping, object, null);
+    }
+
+    // instance is null to create it, otherwise the json values are set on it
+    private Object bindObject(final Mappings.ClassMapping classMapping, final JsonObject object, final Object instance) {
+        // single pass on the json keys, values are then bound in the order of the setters
+        final Mappings.PropertyTable table = mappings.findPropertyTable(classMapping);
+        final JsonValue[] values = new JsonValue[table.setters.length];
+        List<Map.Entry<String, JsonValue>> unknown = null;
+        for (final Map.Entry<String, JsonValue> entry : object.entrySet()) {
+            final int index = table.indexOf(entry.getKey());
+            if (index >= 0) {
+                values[index] = entry.getValue();
+            } else if (config.isFailOnUnknown() || classMapping.anySetter != null) {
+                if (unknown == null) {
+                    unknown = new ArrayList<Map.Entry<String, JsonValue>>();
+                }
+                unknown.add(entry);
+            }
+        }
+
+        if (config.isFailOnUnknown() && unknown != null) {
+            final Set<String> names = new HashSet<String>();
+            for (final Map.Entry<String, JsonValue> entry : unknown) {
+                names.add(entry.getKey());
             }
+            throw new MapperException("(fail on unknown properties): " + names);
         }
 
-        final Object t = classMapping.factory.getParameterTypes().length == 0 ?
+        final Object t = instance != null ? instance : classMapping.factory.getParameterTypes().length == 0 ?
                 classMapping.factory.create(null) : classMapping.factory.create(createParameters(classMapping, object));
-        for (final Map.Entry<String, Mappings.Setter> setter : classMapping.setters.entrySet()) {
-            final JsonValue jsonValue = object.get(setter.getKey());
-            final Mappings.Setter value = setter.getValue();
+        for (int i = 0; i < values.length; i++) {
+            final JsonValue jsonValue = values[i];
+            final Mappings.Setter value = table.setters[i];
             if (JsonValue.class == value.paramType) {
-                setter.getValue().writer.write(t, jsonValue);
+                value.writer.write(t, jsonValue);
                 continue;
             }
             if (jsonValue == null) {
@@ -313,36 +708,34 @@ public class MappingParserImpl implements MappingParser {
 
             final AccessMode.Writer setterMethod = value.writer;
             if (JsonValue.NULL.equals(jsonValue)) { // forced
+                if (merge) {
+                    recycle(readExistingInstance(classMapping, table.names[i], t));
+                }
                 setterMethod.write(t, null);
             } else {
-                Object existingInstance = null;
-                if (config.isReadAttributeBeforeWrite()) {
-                    final Mappings.Getter getter = classMapping.getters.get(setter.getKey());
-                    if (getter != null) {
-                        try {
-                            existingInstance = getter.reader.read(t);
-                        } catch (final RuntimeException re) {
-                            // backward compatibility
-                        }
-                    }
+                final Object existingInstance = readExistingInstance(classMapping, table.names[i], t);
+                if (merge && existingInstance != null && value.converter == null && value.objectConverter == null
+                        && mergeInto(existingInstance, jsonValue, value.paramType, value.itemConverter)) {
+                    setterMethod.write(t, existingInstance);
+                    continue;
                 }
                 final Object convertedValue = toValue(existingInstance, jsonValue, value.converter, value.itemConverter, value.paramType, value.objectConverter);
                 if (convertedValue != null) {
                     setterMethod.write(t, convertedValue);
+                    if (merge && convertedValue != existingInstance) {
+                        recycle(existingInstance);
+                    }
                 }
             }
         }
-        if (classMapping.anySetter != null) {
-            for (final Map.Entry<String, JsonValue> entry : object.entrySet()) {
-                final String key = entry.getKey();
-                if (!classMapping.setters.containsKey(key)) {
-                    try {
-                        classMapping.anySetter.invoke(t, key, toValue(null, entry.getValue(), null, null, Object.class, null));
-                    } catch (final IllegalAccessException e) {
-                        throw new IllegalStateException(e);
-                    } catch (final InvocationTargetException e) {
-                        throw new MapperException(e.getCause());
-                    }
+        if (classMapping.anySetter != null && unknown != null) {
+            for (final Map.Entry<String, JsonValue> entry : unknown) {
+                try {
+                    classMapping.anySetter.invoke(t, entry.getKey(), toValue(null, entry.getValue(), null, null, Object.class, null));
+                } catch (final IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                } catch (final InvocationTargetException e) {
+                    throw new MapperException(e.getCause());
                 }
             }
         }
@@ -350,13 +743,173 @@ public class MappingParserImpl implements MappingParser {
         return t;
     }
 
+    /**
+     * @return true if the json value was bound on the existing instance, false if a new value must be created.
+     */
+    private boolean mergeInto(final Object existing, final JsonValue jsonValue, final Type type, final Adapter itemConverter) {
+        if (itemConverter != null) {
+            return false;
+        }
+        if (JsonObject.class.isInstance(jsonValue)) {
+            if (Map.class.isInstance(existing)) {
+                final Object values = toObject(null, jsonValue, Map.class == type || Object.class == type ?
+                        new JohnzonParameterizedType(Map.class, String.class, Object.class) : type, null);
+                if (!Map.class.isInstance(values)) {
+                    return false;
+                }
+                final Map map = Map.class.cast(existing);
+                final Collection<?> dropped = new ArrayList<Object>(map.values());
+                try {
+                    map.clear();
+                } catch (final UnsupportedOperationException uoe) { // immutable map
+                    return false;
+                }
+                map.putAll(Map.class.cast(values));
+                for (final Object value : dropped) {
+                    recycle(value);
+                }
+                return true;
+            }
+            final Mappings.ClassMapping mapping = mappings.findOrCreateClassMapping(existing.getClass());
+            if (mapping == null || mapping.reader != null || mapping.objectConverterReader != null || mapping.adapter != null
+                    || mapping.factory == null || mapping.factory.getParameterTypes().length > 0) {
+                return false; // constructor parameters and converters can't update an instance
+            }
+            bindObject(mapping, JsonObject.class.cast(jsonValue), existing);
+            return true;
+        }
+        if (JsonArray.class.isInstance(jsonValue) && Collection.class.isInstance(existing) && ParameterizedType.class.isInstance(type)) {
+            final Mappings.CollectionMapping mapping = mappings.findCollectionMapping(ParameterizedType.class.cast(type));
+            if (mapping == null) {
+                return false;
+            }
+            try {
+                mergeCollection(Collection.class.cast(existing), JsonArray.class.cast(jsonValue), mapping.arg);
+            } catch (final UnsupportedOperationException uoe) { // immutable collection
+                return false;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    // the collection is resized before its items are touched so an unmodifiable or fixed size one fails without side effect
+    private void mergeCollection(final Collection collection, final JsonArray jsonArray, final Type itemType) {
+        final int size = jsonArray.size();
+        if (List.class.isInstance(collection)) { // items are updated by position
+            final List list = List.class.cast(collection);
+            final int existing = list.size();
+            if (existing > 0) {
+                list.set(0, list.get(0)); // no-op, fails for an unmodifiable list
+            }
+            Collection<?> dropped = Collections.emptyList();
+            if (size < existing) {
+                final List<?> tail = list.subList(size, existing);
+                dropped = new ArrayList<Object>(tail);
+                tail.clear();
+            } else if (size > existing) {
+                final List<Object> added = new ArrayList<Object>(size - existing);
+                for (int i = existing; i < size; i++) {
+                    added.add(toObject(null, jsonArray.get(i), itemType, null));
+                }
+                list.addAll(added);
+            }
+
+            for (int i = 0; i < Math.min(size, existing); i++) {
+                final JsonValue item = jsonArray.get(i);
+                final Object current = list.get(i);
+                if (current != null && !JsonValue.NULL.equals(item) && mergeInto(current, item, itemType, null)) {
+                    continue;
+                }
+                list.set(i, toObject(null, item, itemType, null));
+                recycle(current);
+            }
+            for (final Object item : dropped) {
+                recycle(item);
+            }
+            return;
+        }
+
+        final Collection<?> dropped = new ArrayList<Object>(collection);
+        collection.clear();
+        for (final JsonValue item : jsonArray) {
+            collection.add(toObject(null, item, itemType, null));
+        }
+        for (final Object item : dropped) {
+            recycle(item);
+        }
+    }
+
+    // gives back to its factory an instance dropped while merging
+    private void recycle(final Object instance) {
+        if (instance == null) {
+            return;
+        }
+        final Class<?> type = instance.getClass();
+        if (type != recycledType) { // replaced values are mostly of the same type, don't look the mapping up for each one
+            final Mappings.ClassMapping mapping = mappings.getClassMapping(type);
+            recyclingFactory = mapping != null && AccessMode.RecyclingFactory.class.isInstance(mapping.factory) ?
+                    AccessMode.RecyclingFactory.class.cast(mapping.factory) : null;
+            recycledType = type;
+        }
+        if (recyclingFactory != null) {
+            recyclingFactory.recycle(instance);
+        }
+    }
+
+    private Object readExistingInstance(final Mappings.ClassMapping classMapping, final String key, final Object instance) {
+        if (merge || config.isReadAttributeBeforeWrite()) {
+            final Mappings.Getter getter = classMapping.getters.get(key);
+            if (getter != null) {
+                try {
+                    return getter.reader.read(instance);
+                } catch (final RuntimeException re) {
+                    // backward compatibility
+                }
+            }
+        }
+        return null;
+    }
+
+    private Map newMap(final Class<?> raw, final Type[] fieldArgTypes, final int size) {
+        if (LinkedHashMap.class == raw) {
+            return new LinkedHashMap();
+        } else if (SortedMap.class.isAssignableFrom(raw) || NavigableMap.class == raw || TreeMap.class == raw) {
+            return new TreeMap();
+        } else if (ConcurrentMap.class.isAssignableFrom(raw)) {
+            return size < 0 ? new ConcurrentHashMap() : new ConcurrentHashMap(size);
+        } else if (EnumMap.class.isAssignableFrom(raw)) {
+            return new EnumMap(Class.class.cast(fieldArgTypes[0]));
+        } else if (Map.class.isAssignableFrom(raw)) {
+            return size < 0 ? new HashMap() : new HashMap(size);
+        }
+        return null;
+    }
+
+    // value of a Map<?, Object> entry for a string or a number
+    private Object anyScalar(final JsonValue jsonValue) {
+        if (JsonString.class.isInstance(jsonValue)) {
+            return JsonString.class.cast(jsonValue).getString();
+        }
+        final JsonNumber number = JsonNumber.class.cast(jsonValue);
+        if (JsonLongImpl.class.isInstance(number)) {
+            final int integer = number.intValue();
+            final long asLong = number.longValue();
+            if (integer == asLong) {
+                return integer;
+            }
+            return asLong;
+        }
+        if (!number.isIntegral()) {
+            return number.bigDecimalValue();
+        }
+        return number.intValue();
+    }
+
     private Object convertTo(final Adapter converter, final JsonValue jsonValue) {
         if (jsonValue.getValueType() == JsonValue.ValueType.OBJECT) {
 
-            //X TODO maybe we can put this into MapperConfig?
-            //X      config.getAdapter(AdapterKey)
-            //X      config.getAdapterKey(Adapter)
-            final AdapterKey adapterKey = getAdapterKey(converter);
+            final AdapterKey adapterKey = config.findAdapterKey(converter);
 
             final Object param;
             try {
@@ -368,7 +921,7 @@ public class MappingParserImpl implements MappingParser {
             return converter.to(param);
         }
 
-        final AdapterKey key = getAdapterKey(converter);
+        final AdapterKey key = config.findAdapterKey(converter);
         final JsonValue.ValueType valueType = jsonValue.getValueType();
         if (NULL.equals(valueType)) {
             return null;
@@ -401,36 +954,6 @@ public class MappingParserImpl implements MappingParser {
 
     }
 
-    private AdapterKey getAdapterKey(final Adapter converter) {
-        AdapterKey adapterKey = reverseAdaptersRegistry.get(converter);
-        if (adapterKey == null) {
-            for (final Map.Entry<AdapterKey, Adapter<?, ?>> entry : config.getAdapters().entrySet()) {
-                if (entry.getValue() == converter) {
-                    adapterKey = entry.getKey();
-                    reverseAdaptersRegistry.put(converter, adapterKey);
-                    break;
-                }
-            }
-        }
-        if (adapterKey == null) {
-            final Type[] types = converter.getClass().getGenericInterfaces();
-            for (final Type t : types) {
-                if (!ParameterizedType.class.isInstance(t)) {
-                    continue;
-                }
-                final ParameterizedType pt = ParameterizedType.class.cast(t);
-                if (Adapter.class == pt.getRawType()) {
-                    final Type[] actualTypeArguments = pt.getActualTypeArguments();
-                    adapterKey = new AdapterKey(actualTypeArguments[0], actualTypeArguments[1]);
-                    reverseAdaptersRegistry.putIfAbsent(converter, adapterKey);
-                    break;
-                }
-            }
-        }
-        return adapterKey;
-    }
-
-
     private Object toObject(final Object baseInstance, final JsonValue jsonValue,
                             final Type type, final Adapter itemConverter) {
         if (jsonValue == null || JsonValue.NULL.equals(jsonValue)) {
@@ -564,7 +1087,21 @@ public class MappingParserImpl implements MappingParser {
     }
 
     private Object buildArrayWithComponentType(final JsonArray jsonArray, final Class<?> componentType, final Adapter itemConverter) {
+        if (itemConverter == null && componentType.isPrimitive()) {
+            return buildPrimitiveArray(jsonArray, componentType);
+        }
         final Object array = Array.newInstance(componentType, jsonArray.size());
+        if (isParallel(jsonArray)) {
+            final Object[] values = bindInParallel(jsonArray, componentType, itemConverter);
+            if (Object[].class.isInstance(array)) {
+                System.arraycopy(values, 0, array, 0, values.length);
+            } else {
+                for (int i = 0; i < values.length; i++) {
+                    Array.set(array, i, values[i]);
+                }
+            }
+            return array;
+        }
         int i = 0;
         for (final JsonValue value : jsonArray) {
             Array.set(array, i++, toObject(null, value, componentType, itemConverter));
@@ -572,32 +1109,101 @@ public class MappingParserImpl implements MappingParser {
         return array;
     }
 
+    private Object buildPrimitiveArray(final JsonArray jsonArray, final Class<?> componentType) {
+        final int size = jsonArray.size();
+        final Object array = Array.newInstance(componentType, size);
+        for (int i = 0; i < size; i++) {
+            final JsonValue value = jsonArray.get(i);
+            if (JsonNumber.class.isInstance(value)) {
+                final JsonNumber number = JsonNumber.class.cast(value);
+                if (int[].class.isInstance(array)) {
+                    int[].class.cast(array)[i] = number.intValue();
+                    continue;
+                }
+                if (long[].class.isInstance(array)) {
+                    long[].class.cast(array)[i] = number.longValue();
+                    continue;
+                }
+                if (double[].class.isInstance(array)) {
+                    double[].class.cast(array)[i] = number.doubleValue();
+                    continue;
+                }
+                if (float[].class.isInstance(array)) {
+                    float[].class.cast(array)[i] = (float) number.doubleValue();
+                    continue;
+                }
+                if (short[].class.isInstance(array)) {
+                    short[].class.cast(array)[i] = (short) number.intValue();
+                    continue;
+                }
+                if (byte[].class.isInstance(array)) {
+                    byte[].class.cast(array)[i] = (byte) number.intValue();
+                    continue;
+                }
+            } else if (boolean[].class.isInstance(array) && (JsonValue.TRUE.equals(value) || JsonValue.FALSE.equals(value))) {
+                boolean[].class.cast(array)[i] = JsonValue.TRUE.equals(value);
+                continue;
+            }
+            setConverted(array, i, toObject(null, value, componentType, null));
+        }
+        return array;
+    }
+
+    // chars (strings in json) and values needing a conversion
+    private static void setConverted(final Object array, final int index, final Object value) {
+        if (value == null) {
+            throw new MapperException("null can't be set in a " + array.getClass().getComponentType() + " array");
+        }
+        Array.set(array, index, value);
+    }
+
     private <T> Collection<T> mapCollection(final Mappings.CollectionMapping mapping, final JsonArray jsonArray,
                                             final Adapter itemConverter) {
-        final Collection collection;
+        final Collection collection = newCollection(mapping, jsonArray.size());
+        if (isParallel(jsonArray)) {
+            collection.addAll(asList(bindInParallel(jsonArray, mapping.arg, itemConverter)));
+            return finishCollection(mapping, collection);
+        }
+        for (final JsonValue value : jsonArray) {
+            collection.add(JsonValue.NULL.equals(value) ? null : toObject(null, value, mapping.arg, itemConverter));
+        }
+        return finishCollection(mapping, collection);
+    }
+
+    private boolean isParallel(final JsonArray jsonArray) {
+        final int threshold = config.getParallelBindingThreshold();
+        return threshold > 0 && jsonArray.size() >= threshold;
+    }
 
+    // the json is already read so items only depend on their JsonValue, the thread safe mappings can be shared
+    private Object[] bindInParallel(final JsonArray jsonArray, final Type type, final Adapter itemConverter) {
+        final Object[] values = new Object[jsonArray.size()];
+        final ForkJoinPool pool = config.getParallelBindingPool();
+        final int chunk = Math.max(MIN_PARALLEL_CHUNK, values.length / (pool.getParallelism() * 4));
+        pool.invoke(new BindingTask(jsonArray, type, itemConverter, values, 0, values.length, chunk));
+        return values;
+    }
+
+    private <T> Collection<T> newCollection(final Mappings.CollectionMapping mapping, final int size) {
         if (SortedSet.class == mapping.raw || NavigableSet.class == mapping.raw || TreeSet.class == mapping.raw) {
-            collection = new TreeSet<T>();
+            return new TreeSet<T>();
         } else if (Set.class == mapping.raw || HashSet.class == mapping.raw) {
-            collection = new HashSet<T>(jsonArray.size());
+            return new HashSet<T>(size);
         } else if (Queue.class == mapping.raw || ArrayBlockingQueue.class == mapping.raw) {
-            collection = new ArrayBlockingQueue<T>(jsonArray.size());
+            return new ArrayBlockingQueue<T>(size);
         } else if (List.class == mapping.raw || Collection.class == mapping.raw || ArrayList.class == mapping.raw || EnumSet.class == mapping.raw) {
-            collection = new ArrayList<T>(jsonArray.size());
+            return new ArrayList<T>(size);
         } else if (LinkedHashSet.class == mapping.raw) {
-            collection = new LinkedHashSet<T>(jsonArray.size());
+            return new LinkedHashSet<T>(size);
         } else if (Deque.class == mapping.raw || ArrayDeque.class == mapping.raw) {
-            collection = new ArrayDeque(jsonArray.size());
+            return new ArrayDeque(size);
         } else if (Queue.class == mapping.raw || PriorityQueue.class == mapping.raw) {
-            collection = new PriorityQueue(jsonArray.size());
-        } else {
-            throw new IllegalStateException("not supported collection type: " + mapping.raw.getName());
-        }
-
-        for (final JsonValue value : jsonArray) {
-            collection.add(JsonValue.NULL.equals(value) ? null : toObject(null, value, mapping.arg, itemConverter));
+            return new PriorityQueue(size);
         }
+        throw new IllegalStateException("not supported collection type: " + mapping.raw.getName());
+    }
 
+    private <T> Collection<T> finishCollection(final Mappings.CollectionMapping mapping, final Collection collection) {
         if (EnumSet.class == mapping.raw) {
             if (collection.isEmpty()) {
                 return EnumSet.noneOf(Class.class.cast(mapping.arg));
@@ -608,7 +1214,6 @@ public class MappingParserImpl implements MappingParser {
                 return Collection.class.cast(EnumSet.of(list.get(0), list.subList(1, list.size()).toArray(new Enum[list.size() - 1])));
             }
         }
-
         return collection;
     }
 
@@ -655,30 +1260,11 @@ public class MappingParserImpl implements MappingParser {
         if (Object.class == aClass || String.class == aClass) {
             return text;
         }
-        final Adapter converter = findAdapter(aClass);
-        Method method = valueOfs.get(aClass);
-        if (method == null && Class.class.isInstance(aClass)) { // handle primitives
-            final Class cast = Class.class.cast(aClass);
-            try {
-                method = cast.getMethod("valueOf", String.class);
-                if (Modifier.isPublic(method.getModifiers()) && Modifier.isStatic(method.getModifiers())) {
-                    valueOfs.putIfAbsent(cast, method);
-                } else {
-                    method = null;
-                }
-            } catch (final NoSuchMethodException e) {
-                // if a real primitive (very unlikely) try the wrapper
-                if (char.class == aClass) {
-                    return CHARACTER_CONVERTER.fromString(text);
-                }
-                try {
-                    return convertTo(Class.class.cast(cast.getField("TYPE").get(null)), text);
-                } catch (final Exception e1) {
-                    // no-op
-                }
-                // no-op
-            }
+        if (char.class == aClass) {
+            return CHARACTER_CONVERTER.fromString(text);
         }
+        final Adapter converter = config.findAdapter(aClass);
+        final Method method = Class.class.isInstance(aClass) ? mappings.findValueOf(Class.class.cast(aClass)) : null;
         if (method != null) {
             try {
                 return method.invoke(null, text);
@@ -695,26 +1281,6 @@ public class MappingParserImpl implements MappingParser {
         return converter.to(text);
     }
 
-    /**
-     * @deprecated see MapperConfig
-     */
-    private Adapter findAdapter(final Type aClass) {
-        final Adapter<?, ?> converter = config.getAdapters().get(new AdapterKey(aClass, String.class));
-        if (converter != null) {
-            return converter;
-        }
-        if (Class.class.isInstance(aClass)) {
-            final Class<?> clazz = Class.class.cast(aClass);
-            if (clazz.isEnum()) {
-                final Adapter<?, ?> enumConverter = new ConverterAdapter(new EnumConverter(clazz));
-                config.getAdapters().putIfAbsent(new AdapterKey(String.class, aClass), enumConverter);
-                return enumConverter;
-            }
-        }
-        return null;
-    }
-
-
     private static class FallbackConverter implements Converter<Object> {
         @Override
         public String toString(final Object instance) {
@@ -756,4 +1322,92 @@ public class MappingParserImpl implements MappingParser {
         }
     }
 
+    class ArrayIterator<T> implements Iterator<T>, Closeable {
+        private final Type itemType;
+        private JsonParser.Event next;
+        private boolean done;
+
+        private ArrayIterator(final Type itemType) {
+            this.itemType = itemType;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                try {
+                    next = jsonParser.next();
+                    if (next == JsonParser.Event.END_ARRAY) {
+                        next = null;
+                        if (jsonParser.hasNext()) {
+                            throw new JsonParsingException("Expected end of file", jsonParser.getLocation());
+                        }
+                        close();
+                    }
+                } catch (final RuntimeException e) {
+                    close();
+                    throw e;
+                }
+            }
+            return !done;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final JsonParser.Event event = next;
+            next = null;
+            try {
+                return (T) streamToObject(null, event, itemType, null);
+            } catch (final RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        @Override
+        public void close() {
+            if (!done) {
+                done = true;
+                jsonParser.close();
+            }
+        }
+    }
+
+    private class BindingTask extends RecursiveAction {
+        private final JsonArray jsonArray;
+        private final Type type;
+        private final Adapter itemConverter;
+        private final Object[] values;
+        private final int from;
+        private final int to;
+        private final int chunk;
+
+        private BindingTask(final JsonArray jsonArray, final Type type, final Adapter itemConverter,
+                            final Object[] values, final int from, final int to, final int chunk) {
+            this.jsonArray = jsonArray;
+            this.type = type;
+            this.itemConverter = itemConverter;
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                for (int i = from; i < to; i++) {
+                    values[i] = toObject(null, jsonArray.get(i), type, itemConverter);
+                }
+                return;
+            }
+            final int middle = (from + to) >>> 1;
+            invokeAll(
+                    new BindingTask(jsonArray, type, itemConverter, values, from, middle, chunk),
+                    new BindingTask(jsonArray, type, itemConverter, values, middle, to, chunk));
+        }
+    }
+
 }
@@ -22,18 +22,22 @@ import org.apache.johnzon.mapper.access.AccessMode;
 import org.apache.johnzon.mapper.access.MethodAccessMode;
 import org.apache.johnzon.mapper.converter.DateWithCopyConverter;
 import org.apache.johnzon.mapper.converter.EnumConverter;
+import org.apache.johnzon.mapper.converter.StringConverter;
 import org.apache.johnzon.mapper.internal.AdapterKey;
 import org.apache.johnzon.mapper.internal.ConverterAdapter;
 import org.apache.johnzon.mapper.reflection.JohnzonParameterizedType;
 
+import javax.json.JsonValue;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Array;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.Deque;
@@ -44,6 +48,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.ServiceLoader;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeMap;
@@ -65,6 +70,17 @@ public class Mappings {
         public final Getter anyGetter;
         public final Method anySetter;
 
+        // compiled on first write, see findWritePlan()
+        volatile WriteSlot[] writePlan;
+
+        // compiled on first read, see findPropertyTable()
+        volatile PropertyTable propertyTable;
+
+        // object converters registered in the MapperConfig for this class (or null),
+        // resolved before the mapping is published so it is a plain read afterwards
+        ObjectConverter.Reader<?> objectConverterReader;
+        ObjectConverter.Writer<?> objectConverterWriter;
+
         protected ClassMapping(final Class<?> clazz, final AccessMode.Factory factory,
                                final Map<String, Getter> getters, final Map<String, Setter> setters,
                                final Adapter<?, ?> adapter,
@@ -164,6 +180,121 @@ public class Mappings {
         }
     }
 
+    /**
+     * How a property is written when its declared type is enough to know it,
+     * DYNAMIC means the runtime type of the value drives the serialization.
+     */
+    public enum WriteKind {
+        DYNAMIC, STRING, INT, LONG, DOUBLE, BOOLEAN, ENUM, OBJECT, COLLECTION
+    }
+
+    /**
+     * A property of a compiled write plan.
+     */
+    public static class WriteSlot {
+        public final String name;
+        public final Getter getter;
+        public final WriteKind kind;
+        public final WriteKind itemKind; // for COLLECTION
+        public final Class<?> type; // declared type or item type for COLLECTION
+        public final Adapter adapter; // getter converter for ENUM
+
+        // resolved on first use for OBJECT, mappings can be recursive
+        ClassMapping mapping;
+
+        public WriteSlot(final String name, final Getter getter,
+                         final WriteKind kind, final WriteKind itemKind,
+                         final Class<?> type, final Adapter adapter) {
+            this.name = name;
+            this.getter = getter;
+            this.kind = kind;
+            this.itemKind = itemKind;
+            this.type = type;
+            this.adapter = adapter;
+        }
+    }
+
+    /**
+     * Open addressing table from the property names to their index in the setters (iteration order of the mapping).
+     * The size is chosen to give each name its own bucket when possible so a lookup is a hash and an equals.
+     */
+    public static class PropertyTable {
+        private static final int MAX_SIZE_FACTOR = 8;
+
+        public final String[] names;
+        public final Setter[] setters;
+        public final boolean hasJsonValueSetters;
+
+        private final String[] keys;
+        private final int[] indices;
+        private final int mask;
+
+        public PropertyTable(final Map<String, Setter> mapping) {
+            names = new String[mapping.size()];
+            setters = new Setter[mapping.size()];
+            boolean jsonValueSetters = false;
+            int i = 0;
+            for (final Map.Entry<String, Setter> setter : mapping.entrySet()) {
+                names[i] = setter.getKey();
+                setters[i] = setter.getValue();
+                jsonValueSetters = jsonValueSetters || JsonValue.class == setter.getValue().paramType;
+                i++;
+            }
+            hasJsonValueSetters = jsonValueSetters;
+
+            final int minSize = Integer.highestOneBit(Math.max(1, names.length) * 2 - 1) << 1;
+            int size = minSize;
+            while (size < minSize * MAX_SIZE_FACTOR && !isPerfect(size - 1)) {
+                size <<= 1;
+            }
+            if (size >= minSize * MAX_SIZE_FACTOR) { // no perfect layout, keep the smallest one with probing
+                size = minSize;
+            }
+            mask = size - 1;
+            keys = new String[size];
+            indices = new int[size];
+            for (int n = 0; n < names.length; n++) {
+                int bucket = spread(names[n].hashCode()) & mask;
+                while (keys[bucket] != null) {
+                    bucket = (bucket + 1) & mask;
+                }
+                keys[bucket] = names[n];
+                indices[bucket] = n;
+            }
+        }
+
+        /**
+         * @return the index of the setter or -1 if the name is not mapped.
+         */
+        public int indexOf(final String name) {
+            int bucket = spread(name.hashCode()) & mask;
+            String key;
+            while ((key = keys[bucket]) != null) {
+                if (key.equals(name)) {
+                    return indices[bucket];
+                }
+                bucket = (bucket + 1) & mask;
+            }
+            return -1;
+        }
+
+        private boolean isPerfect(final int mask) {
+            final boolean[] used = new boolean[mask + 1];
+            for (final String name : names) {
+                final int bucket = spread(name.hashCode()) & mask;
+                if (used[bucket]) {
+                    return false;
+                }
+                used[bucket] = true;
+            }
+            return true;
+        }
+
+        private static int spread(final int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+
     public static class Setter {
         public final AccessMode.Writer writer;
         public final int version;
@@ -228,14 +359,37 @@ public class Mappings {
     }
 
     private static final JohnzonParameterizedType VIRTUAL_TYPE = new JohnzonParameterizedType(Map.class, String.class, Object.class);
+    private static final Method NO_VALUE_OF; // marker for the classes without valueOf(String)
+    static {
+        try {
+            NO_VALUE_OF = Mappings.class.getMethod("findValueOf", Class.class);
+        } catch (final NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 
     protected final ConcurrentMap<Type, ClassMapping> classes = new ConcurrentHashMap<Type, ClassMapping>();
     protected final ConcurrentMap<Type, CollectionMapping> collections = new ConcurrentHashMap<Type, CollectionMapping>();
+    protected final ConcurrentMap<Class<?>, Method> valueOfs = new ConcurrentHashMap<Class<?>, Method>();
 
     protected final MapperConfig config;
+    protected final Map<Class<?>, GeneratedCodec<?>> generatedCodecs;
 
     public Mappings(final MapperConfig config) {
         this.config = config;
+        this.generatedCodecs = config.isUseGeneratedCodecs() ? loadGeneratedCodecs() : Collections.<Class<?>, GeneratedCodec<?>>emptyMap();
+    }
+
+    private static Map<Class<?>, GeneratedCodec<?>> loadGeneratedCodecs() {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader == null) {
+            loader = Mappings.class.getClassLoader();
+        }
+        final Map<Class<?>, GeneratedCodec<?>> codecs = new HashMap<Class<?>, GeneratedCodec<?>>();
+        for (final GeneratedCodec<?> codec : ServiceLoader.load(GeneratedCodec.class, loader)) {
+            codecs.put(codec.type(), codec);
+        }
+        return codecs;
     }
 
     public CollectionMapping findCollectionMapping(final ParameterizedType genericType) {
@@ -307,10 +461,143 @@ public class Mappings {
         return false;
     }
 
+    /**
+     * @return the public static valueOf(String) of the class, the one of its TYPE if it has none, or null.
+     */
+    public Method findValueOf(final Class<?> clazz) {
+        Method method = valueOfs.get(clazz);
+        if (method == null) {
+            method = NO_VALUE_OF;
+            try {
+                final Method valueOf = clazz.getMethod("valueOf", String.class);
+                if (Modifier.isPublic(valueOf.getModifiers()) && Modifier.isStatic(valueOf.getModifiers())) {
+                    method = valueOf;
+                }
+            } catch (final NoSuchMethodException e) {
+                // if a real primitive (very unlikely) try the wrapper
+                try {
+                    final Method valueOf = findValueOf(Class.class.cast(clazz.getField("TYPE").get(null)));
+                    if (valueOf != null) {
+                        method = valueOf;
+                    }
+                } catch (final Exception e1) {
+                    // no-op
+                }
+            }
+            final Method existing = valueOfs.putIfAbsent(clazz, method);
+            if (existing != null) {
+                method = existing;
+            }
+        }
+        return method == NO_VALUE_OF ? null : method;
+    }
+
     public ClassMapping getClassMapping(final Type clazz) {
         return classes.get(clazz);
     }
 
+    /**
+     * @return the getters of the mapping (in the write order) with the write strategy of each one resolved from its declared type.
+     */
+    public WriteSlot[] findWritePlan(final ClassMapping mapping) {
+        WriteSlot[] plan = mapping.writePlan;
+        if (plan == null) {
+            plan = new WriteSlot[mapping.getters.size()];
+            int i = 0;
+            for (final Map.Entry<String, Getter> getter : mapping.getters.entrySet()) {
+                plan[i++] = createWriteSlot(getter.getKey(), getter.getValue());
+            }
+            mapping.writePlan = plan;
+        }
+        return plan;
+    }
+
+    public PropertyTable findPropertyTable(final ClassMapping mapping) {
+        PropertyTable table = mapping.propertyTable;
+        if (table == null) {
+            table = new PropertyTable(mapping.setters);
+            mapping.propertyTable = table;
+        }
+        return table;
+    }
+
+    protected WriteSlot createWriteSlot(final String name, final Getter getter) {
+        final WriteSlot dynamic = new WriteSlot(name, getter, WriteKind.DYNAMIC, null, null, null);
+        if (getter.itemConverter != null || getter.objectConverter != null || getter.array || getter.map) {
+            return dynamic;
+        }
+
+        final Type type = getter.reader.getType();
+        if (getter.converter != null) { // enums get their converter from findConverter(), others stay dynamic
+            if (!Class.class.isInstance(type) || !Class.class.cast(type).isEnum() || !writesStringAsIs()) {
+                return dynamic;
+            }
+            for (final Object constant : Class.class.cast(type).getEnumConstants()) {
+                if (constant.getClass() != type) { // constant with a body
+                    return dynamic;
+                }
+            }
+            return new WriteSlot(name, getter, WriteKind.ENUM, null, Class.class.cast(type), getter.converter);
+        }
+        if (getter.collection) {
+            if (ParameterizedType.class.isInstance(type)) {
+                final Type[] args = ParameterizedType.class.cast(type).getActualTypeArguments();
+                if (args.length == 1 && Class.class.isInstance(args[0])) {
+                    final WriteKind itemKind = findScalarKind(Class.class.cast(args[0]));
+                    if (itemKind != WriteKind.DYNAMIC) {
+                        return new WriteSlot(name, getter, WriteKind.COLLECTION, itemKind, Class.class.cast(args[0]), null);
+                    }
+                }
+            }
+            return dynamic;
+        }
+        if (!Class.class.isInstance(type)) {
+            return dynamic;
+        }
+
+        final Class<?> clazz = Class.class.cast(type);
+        final WriteKind kind = findScalarKind(clazz);
+        if (kind != WriteKind.DYNAMIC) {
+            return new WriteSlot(name, getter, kind, null, clazz, null);
+        }
+        if (getter.primitive || !Modifier.isFinal(clazz.getModifiers())) { // subclasses can need another strategy
+            return dynamic;
+        }
+        if (clazz.isEnum() || clazz.isArray() || JsonValue.class.isAssignableFrom(clazz) || Collection.class.isAssignableFrom(clazz)
+                || config.findAdapter(clazz) != null || config.findObjectConverterWriter(clazz) != null) {
+            return dynamic;
+        }
+        return new WriteSlot(name, getter, WriteKind.OBJECT, null, clazz, null);
+    }
+
+    // the converted value of an enum is a String which is written through the String adapter if any
+    private boolean writesStringAsIs() {
+        final Adapter adapter = config.findAdapter(String.class);
+        if (adapter == null) {
+            return config.findObjectConverterWriter(String.class) == null;
+        }
+        return ConverterAdapter.class.isInstance(adapter) && ConverterAdapter.class.cast(adapter).getConverter().getClass() == StringConverter.class;
+    }
+
+    // final types only, the runtime type can't change the way it is written
+    private static WriteKind findScalarKind(final Class<?> type) {
+        if (type == String.class) {
+            return WriteKind.STRING;
+        } else if (type == long.class || type == Long.class) {
+            return WriteKind.LONG;
+        } else if (type == int.class || type == Integer.class
+                || type == byte.class || type == Byte.class
+                || type == short.class || type == Short.class) {
+            return WriteKind.INT;
+        } else if (type == double.class || type == Double.class
+                || type == float.class || type == Float.class) {
+            return WriteKind.DOUBLE;
+        } else if (type == boolean.class || type == Boolean.class) {
+            return WriteKind.BOOLEAN;
+        }
+        return WriteKind.DYNAMIC;
+    }
+
     public ClassMapping findOrCreateClassMapping(final Type clazz) {
         ClassMapping classMapping = classes.get(clazz);
         if (classMapping == null) {
@@ -319,6 +606,8 @@ public class Mappings {
             }
 
             classMapping = createClassMapping(Class.class.cast(clazz));
+            classMapping.objectConverterReader = config.findObjectConverterReader(Class.class.cast(clazz));
+            classMapping.objectConverterWriter = config.findObjectConverterWriter(Class.class.cast(clazz));
             final ClassMapping existing = classes.putIfAbsent(clazz, classMapping);
             if (existing != null) {
                 classMapping = existing;
@@ -337,6 +626,13 @@ public class Mappings {
         }
         final Class<?> clazz = findModelClass(inClazz);
 
+        final GeneratedCodec<?> codec = generatedCodecs.get(clazz);
+        if (codec != null) { // no introspection at all, the codec reads and writes the whole object
+            return new ClassMapping(
+                    clazz, null, Collections.<String, Getter>emptyMap(), Collections.<String, Setter>emptyMap(),
+                    null, codec, codec, null, null);
+        }
+
         AccessMode accessMode = config.getAccessMode();
 
         Comparator<String> fieldComparator = accessMode.fieldComparator(inClazz);
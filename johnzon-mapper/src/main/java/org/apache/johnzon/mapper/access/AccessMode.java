@@ -54,6 +54,15 @@ public interface AccessMode {
         Adapter<?, ?>[] getParameterItemConverter();
     }
 
+    /**
+     * Optional factory extension for the mapper readInto() methods:
+     * the nested instances dropped while updating an existing object graph
+     * (set to null, replaced by a new instance or removed from a collection or a map) are given back so create() can reuse them.
+     */
+    interface RecyclingFactory extends Factory {
+        void recycle(Object instance);
+    }
+
     Factory findFactory(Class<?> clazz);
     Comparator<String> fieldComparator(Class<?> clazz);
     Map<String, Reader> findReaders(Class<?> clazz);
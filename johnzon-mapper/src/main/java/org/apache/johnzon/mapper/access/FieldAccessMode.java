@@ -46,7 +46,7 @@ public class FieldAccessMode extends BaseAccessMode {
             }
 
             final Field field = f.getValue();
-            readers.put(extractKey(field, key), new FieldReader(field, fixType(clazz, field.getGenericType())));
+            readers.put(extractKey(field, key), newReader(field, fixType(clazz, field.getGenericType())));
         }
         return readers;
     }
@@ -61,11 +61,19 @@ public class FieldAccessMode extends BaseAccessMode {
             }
 
             final Field field = f.getValue();
-            writers.put(extractKey(field, key), new FieldWriter(field, fixType(clazz, field.getGenericType())));
+            writers.put(extractKey(field, key), newWriter(field, fixType(clazz, field.getGenericType())));
         }
         return writers;
     }
 
+    protected Reader newReader(final Field field, final Type type) {
+        return new FieldReader(field, type);
+    }
+
+    protected Writer newWriter(final Field field, final Type type) {
+        return new FieldWriter(field, type);
+    }
+
     private String extractKey(final Field f, final String key) {
         final JohnzonProperty property = Meta.getAnnotation(f, JohnzonProperty.class);
         return property != null ? property.value() : key;
@@ -39,9 +39,16 @@ public class FieldAndMethodAccessMode extends BaseAccessMode {
 
     public FieldAndMethodAccessMode(final boolean useConstructor, final boolean acceptHiddenConstructor,
                                     final boolean useGettersAsWriter) {
+        this(useConstructor, acceptHiddenConstructor,
+                new FieldAccessMode(useConstructor, acceptHiddenConstructor),
+                new MethodAccessMode(useConstructor, acceptHiddenConstructor, useGettersAsWriter));
+    }
+
+    protected FieldAndMethodAccessMode(final boolean useConstructor, final boolean acceptHiddenConstructor,
+                                       final FieldAccessMode fields, final MethodAccessMode methods) {
         super(useConstructor, acceptHiddenConstructor);
-        this.fields = new FieldAccessMode(useConstructor, acceptHiddenConstructor);
-        this.methods = new MethodAccessMode(useConstructor, acceptHiddenConstructor, useGettersAsWriter);
+        this.fields = fields;
+        this.methods = methods;
     }
 
     @Override
@@ -52,7 +52,7 @@ public class MethodAccessMode extends BaseAccessMode {
                 if (isIgnored(descriptor.getName()) || Meta.getAnnotation(readMethod, JohnzonAny.class) != null) {
                     continue;
                 }
-                readers.put(extractKey(descriptor.getName(), readMethod, null), new MethodReader(readMethod, fixType(clazz, readMethod.getGenericReturnType())));
+                readers.put(extractKey(descriptor.getName(), readMethod, null), newReader(readMethod, fixType(clazz, readMethod.getGenericReturnType())));
             }
         }
         return readers;
@@ -69,7 +69,7 @@ public class MethodAccessMode extends BaseAccessMode {
             final Method writeMethod = descriptor.getWriteMethod();
             if (writeMethod != null) {
                 writers.put(extractKey(descriptor.getName(), writeMethod, descriptor.getReadMethod()),
-                        new MethodWriter(writeMethod, fixType(clazz, writeMethod.getGenericParameterTypes()[0])));
+                        newWriter(writeMethod, fixType(clazz, writeMethod.getGenericParameterTypes()[0])));
             } else if (supportGetterAsWritter
                     && Collection.class.isAssignableFrom(descriptor.getPropertyType())
                     && descriptor.getReadMethod() != null) {
@@ -80,6 +80,14 @@ public class MethodAccessMode extends BaseAccessMode {
         return writers;
     }
 
+    protected Reader newReader(final Method method, final Type type) {
+        return new MethodReader(method, type);
+    }
+
+    protected Writer newWriter(final Method method, final Type type) {
+        return new MethodWriter(method, type);
+    }
+
     private String extractKey(final String name, final Method from, final Method or) {
         JohnzonProperty property = Meta.getAnnotation(from, JohnzonProperty.class);
         if (property == null && or != null) {
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.mapper.access;
+
+import org.apache.johnzon.mapper.MapperException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+
+/**
+ * Same properties than {@link FieldAndMethodAccessMode} but fields and methods are accessed
+ * through {@link MethodHandle}s created when the mapping is built. This avoids the access check and
+ * the parameter array of each reflective call.
+ *
+ * The readers and writers extend the reflection based ones so they are still seen as field/method
+ * decorated types. A final field stays written through reflection.
+ */
+public class MethodHandleAccessMode extends FieldAndMethodAccessMode {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType READER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType WRITER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    public MethodHandleAccessMode(final boolean useConstructor, final boolean acceptHiddenConstructor,
+                                  final boolean useGettersAsWriter) {
+        super(useConstructor, acceptHiddenConstructor,
+                new HandleFieldAccessMode(useConstructor, acceptHiddenConstructor),
+                new HandleMethodAccessMode(useConstructor, acceptHiddenConstructor, useGettersAsWriter));
+    }
+
+    private static final class HandleFieldAccessMode extends FieldAccessMode {
+        private HandleFieldAccessMode(final boolean useConstructor, final boolean acceptHiddenConstructor) {
+            super(useConstructor, acceptHiddenConstructor);
+        }
+
+        @Override
+        protected Reader newReader(final Field field, final Type type) {
+            return new FieldHandleReader(field, type);
+        }
+
+        @Override
+        protected Writer newWriter(final Field field, final Type type) {
+            return new FieldHandleWriter(field, type);
+        }
+    }
+
+    private static final class HandleMethodAccessMode extends MethodAccessMode {
+        private HandleMethodAccessMode(final boolean useConstructor, final boolean acceptHiddenConstructor, final boolean supportGetterAsWritter) {
+            super(useConstructor, acceptHiddenConstructor, supportGetterAsWritter);
+        }
+
+        @Override
+        protected Reader newReader(final Method method, final Type type) {
+            return new MethodHandleReader(method, type);
+        }
+
+        @Override
+        protected Writer newWriter(final Method method, final Type type) {
+            return new MethodHandleWriter(method, type);
+        }
+    }
+
+    public static class FieldHandleReader extends FieldAccessMode.FieldReader {
+        private final MethodHandle getter;
+
+        public FieldHandleReader(final Field field, final Type type) {
+            super(field, type);
+            try {
+                getter = LOOKUP.unreflectGetter(field).asType(READER_TYPE);
+            } catch (final IllegalAccessException e) {
+                throw new MapperException(e);
+            }
+        }
+
+        @Override
+        public Object read(final Object instance) {
+            try {
+                return getter.invokeExact(instance);
+            } catch (final Error e) {
+                throw e;
+            } catch (final Throwable e) {
+                throw new MapperException(e);
+            }
+        }
+    }
+
+    public static class FieldHandleWriter extends FieldAccessMode.FieldWriter {
+        private final MethodHandle setter;
+
+        public FieldHandleWriter(final Field field, final Type type) {
+            super(field, type);
+            if (Modifier.isFinal(field.getModifiers())) {
+                setter = null;
+                return;
+            }
+            try {
+                setter = LOOKUP.unreflectSetter(field).asType(WRITER_TYPE);
+            } catch (final IllegalAccessException e) {
+                throw new MapperException(e);
+            }
+        }
+
+        @Override
+        public void write(final Object instance, final Object value) {
+            if (setter == null) {
+                super.write(instance, value);
+                return;
+            }
+            try {
+                setter.invokeExact(instance, value);
+            } catch (final Error e) {
+                throw e;
+            } catch (final Throwable e) {
+                throw new MapperException(e);
+            }
+        }
+    }
+
+    public static class MethodHandleReader extends MethodAccessMode.MethodReader {
+        private final MethodHandle getter;
+
+        public MethodHandleReader(final Method method, final Type type) {
+            super(method, type);
+            try {
+                getter = LOOKUP.unreflect(method).asType(READER_TYPE);
+            } catch (final IllegalAccessException e) {
+                throw new MapperException(e);
+            }
+        }
+
+        @Override
+        public Object read(final Object instance) {
+            try {
+                return getter.invokeExact(instance);
+            } catch (final Error e) {
+                throw e;
+            } catch (final Throwable e) {
+                throw new MapperException(e);
+            }
+        }
+    }
+
+    public static class MethodHandleWriter extends MethodAccessMode.MethodWriter {
+        private final MethodHandle setter;
+
+        public MethodHandleWriter(final Method method, final Type type) {
+            super(method, type);
+            try {
+                setter = LOOKUP.unreflect(method).asType(WRITER_TYPE);
+            } catch (final IllegalAccessException e) {
+                throw new MapperException(e);
+            }
+        }
+
+        @Override
+        public void write(final Object instance, final Object value) {
+            try {
+                setter.invokeExact(instance, value);
+            } catch (final Error e) {
+                throw e;
+            } catch (final Throwable e) {
+                throw new MapperException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.mapper;
+
+import org.junit.Test;
+
+import javax.json.Json;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LazyReadTest {
+    private static final String JSON = "[{\"name\":\"a\",\"count\":1},{\"name\":\"b\"},null,{\"name\":\"c\",\"count\":3}]";
+
+    @Test
+    public void iterable() {
+        for (final boolean streaming : new boolean[] { false, true }) {
+            final Mapper mapper = new MapperBuilder().setStreamingRead(streaming).setDoCloseOnStreams(true).build();
+            final CloseTracker stream = new CloseTracker(JSON);
+            final Iterator<Item> iterator = mapper.<Item>readIterable(stream, Item.class).iterator();
+
+            assertTrue(iterator.hasNext());
+            final Item first = iterator.next();
+            assertEquals("a", first.name);
+            assertEquals(1, first.count);
+            assertEquals("b", iterator.next().name);
+            assertEquals(null, iterator.next());
+            assertEquals("c", iterator.next().name);
+            assertFalse(stream.closed);
+            assertFalse(iterator.hasNext());
+            assertTrue(stream.closed);
+            try {
+                iterator.next();
+                fail();
+            } catch (final NoSuchElementException nsee) {
+                // ok
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void iterableIsSingleUse() {
+        final Iterable<Item> items = new MapperBuilder().build().readIterable(new StringReader(JSON), Item.class);
+        items.iterator();
+        items.iterator();
+    }
+
+    @Test
+    public void stream() {
+        final Mapper mapper = new MapperBuilder().setDoCloseOnStreams(true).build();
+        try (final Stream<Item> items = mapper.readStream(new StringReader(JSON), Item.class)) {
+            assertEquals(4, items.count());
+        }
+
+        final CloseTracker stream = new CloseTracker(JSON);
+        try (final Stream<Item> items = mapper.readStream(stream, Item.class)) {
+            assertEquals("a", items.findFirst().get().name);
+        }
+        assertTrue(stream.closed);
+    }
+
+    @Test
+    public void primitives() {
+        final List<Integer> values = new ArrayList<Integer>();
+        for (final Integer i : new MapperBuilder().build().<Integer>readIterable(new StringReader("[1,2,3]"), Integer.class)) {
+            values.add(i);
+        }
+        assertEquals(asList(1, 2, 3), values);
+        assertFalse(new MapperBuilder().build().readIterable(new StringReader("[]"), Integer.class).iterator().hasNext());
+    }
+
+    @Test
+    public void notAnArray() {
+        final CloseTracker stream = new CloseTracker("{\"name\":\"a\"}");
+        try {
+            new MapperBuilder().setDoCloseOnStreams(true).build().readIterable(stream, Item.class);
+            fail();
+        } catch (final MapperException me) {
+            assertTrue(stream.closed);
+        }
+    }
+
+    @Test
+    public void usesTheBuilderConfiguration() {
+        final Mapper mapper = new MapperBuilder().setSupportsComments(true).build();
+        final Iterator<Item> iterator = mapper.<Item>readIterable(new StringReader("[/* first */{\"name\":\"a\"}]"), Item.class).iterator();
+        assertEquals("a", iterator.next().name);
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void customReaderFactory() {
+        final Mapper mapper = new MapperBuilder().setReaderFactory(Json.createReaderFactory(Collections.<String, Object>emptyMap())).build();
+        try {
+            mapper.readIterable(new StringReader(JSON), Item.class);
+            fail("a custom reader factory can't be bypassed");
+        } catch (final MapperException me) {
+            // expected
+        }
+
+        final Item item = new Item();
+        item.count = 2;
+        assertSame(item, mapper.readInto(new StringReader("{\"name\":\"a\"}"), item));
+        assertEquals("a", item.name);
+        assertEquals(2, item.count);
+    }
+
+    public static class Item {
+        public String name;
+        public int count;
+    }
+
+    private static class CloseTracker extends ByteArrayInputStream {
+        private boolean closed;
+
+        private CloseTracker(final String json) {
+            super(json.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+}
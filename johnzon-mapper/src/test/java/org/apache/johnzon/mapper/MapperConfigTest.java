@@ -26,10 +26,18 @@ import org.junit.Test;
 import javax.json.JsonObject;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 public class MapperConfigTest {
 
@@ -152,6 +160,78 @@ public class MapperConfigTest {
         Assert.assertEquals(theConverter, converter);
     }
 
+    @Test
+    public void concurrentFirstUse() throws Exception {
+        final TheConverter<TheInterface> theConverter = new TheConverter<TheInterface>();
+        final MapperConfig config = createConfig(Collections.<Class<?>, ObjectConverter.Codec<?>>singletonMap(TheInterface.class, theConverter));
+        final Class<?>[] classes = {
+            ClassForTheInterface.class, ExtendingClassForTheInterface.class, ClassWithTwoInterfaces.class, ClassWithoutSupertypes.class
+        };
+
+        final ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<?>> tasks = new ArrayList<Future<?>>();
+            for (int t = 0; t < 32; t++) {
+                tasks.add(pool.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        start.await();
+                        for (int i = 0; i < 1000; i++) {
+                            for (final Class<?> clazz : classes) {
+                                final ObjectConverter.Reader reader = config.findObjectConverterReader(clazz);
+                                Assert.assertEquals(clazz == ClassWithoutSupertypes.class ? null : theConverter, reader);
+                            }
+                        }
+                        return null;
+                    }
+                }));
+            }
+            start.countDown();
+            for (final Future<?> task : tasks) {
+                task.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void resolutionIsKeptInTheClassMapping() {
+        final TheConverter<TheInterface> theConverter = new TheConverter<TheInterface>();
+        final Mappings mappings = new Mappings(createConfig(
+                Collections.<Class<?>, ObjectConverter.Codec<?>>singletonMap(TheInterface.class, theConverter)));
+        Assert.assertSame(theConverter, mappings.findOrCreateClassMapping(ClassForTheInterface.class).objectConverterReader);
+        Assert.assertSame(theConverter, mappings.findOrCreateClassMapping(ClassForTheInterface.class).objectConverterWriter);
+        Assert.assertNull(mappings.findOrCreateClassMapping(ClassWithoutSupertypes.class).objectConverterWriter);
+    }
+
+    @Test
+    public void adaptersAreResolvedOnce() {
+        final MapperConfig config = createConfig(Collections.<Class<?>, ObjectConverter.Codec<?>>emptyMap());
+        final Adapter enumAdapter = config.findAdapter(TheEnum.class);
+        Assert.assertNotNull(enumAdapter);
+        Assert.assertSame(enumAdapter, config.findAdapter(TheEnum.class));
+        Assert.assertEquals("B", enumAdapter.from(TheEnum.B));
+        Assert.assertNull(config.findAdapter(ClassWithoutSupertypes.class));
+        Assert.assertNull(config.findAdapter(ClassWithoutSupertypes.class));
+
+        final AdapterKey key = config.findAdapterKey(new TheAdapter());
+        Assert.assertEquals(TheEnum.class, key.getFrom());
+        Assert.assertEquals(Integer.class, key.getTo());
+        Assert.assertEquals(TheEnum.class, config.findAdapterKey(enumAdapter).getTo());
+    }
+
+    @Test
+    public void valueOfIsResolvedOnce() throws Exception {
+        final Mappings mappings = new Mappings(createConfig(Collections.<Class<?>, ObjectConverter.Codec<?>>emptyMap()));
+        Assert.assertEquals(Integer.class.getMethod("valueOf", String.class), mappings.findValueOf(Integer.class));
+        Assert.assertSame(mappings.findValueOf(Integer.class), mappings.findValueOf(Integer.class));
+        Assert.assertNull(mappings.findValueOf(ClassWithoutSupertypes.class));
+        Assert.assertNull(mappings.findValueOf(ClassWithoutSupertypes.class));
+        Assert.assertEquals(2, mappings.valueOfs.size());
+    }
+
 
     private MapperConfig createConfig(Map<Class<?>, ObjectConverter.Codec<?>> converter) {
         return new MapperConfig(new ConcurrentHashMap<AdapterKey, Adapter<?, ?>>(0),
@@ -172,6 +252,20 @@ public class MapperConfigTest {
 
     private static final class ClassWithoutSupertypes {}
 
+    private enum TheEnum { A, B }
+
+    private static class TheAdapter implements Adapter<TheEnum, Integer> {
+        @Override
+        public TheEnum to(final Integer b) {
+            return TheEnum.values()[b];
+        }
+
+        @Override
+        public Integer from(final TheEnum a) {
+            return a.ordinal();
+        }
+    }
+
     private interface TheInterface {}
     private static class ClassForTheInterface implements TheInterface {}
     private static class ExtendingClassForTheInterface extends ClassForTheInterface {}
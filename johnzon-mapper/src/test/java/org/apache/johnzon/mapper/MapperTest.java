@@ -18,7 +18,9 @@
  */
 package org.apache.johnzon.mapper;
 
+import org.apache.johnzon.mapper.access.AccessMode;
 import org.apache.johnzon.mapper.access.FieldAccessMode;
+import org.apache.johnzon.mapper.access.MethodHandleAccessMode;
 import org.apache.johnzon.mapper.reflection.JohnzonCollectionType;
 import org.apache.johnzon.mapper.reflection.JohnzonParameterizedType;
 import org.junit.Test;
@@ -538,6 +540,47 @@ public class MapperTest {
         assertEquals(1, value.value);
     }
 
+    @Test
+    public void methodHandleAccess() {
+        final Mapper mapper = new MapperBuilder().setAccessModeName("method-handle").build();
+        final FieldAccess value = mapper.readObject(new ByteArrayInputStream("{\"value\":1}".getBytes()), FieldAccess.class);
+        assertEquals(1, value.value);
+        assertEquals("{\"value\":1}", mapper.writeObjectAsString(value));
+
+        final PrimitiveObject p = mapper.readObject(new StringReader("{\"bool\":true}"), PrimitiveObject.class);
+        assertEquals(Boolean.TRUE, p.bool);
+        assertEquals("{\"bool\":true}", mapper.writeObjectAsString(p));
+    }
+
+    @Test
+    public void methodHandleAccessors() {
+        final MethodHandleAccessMode accessMode = new MethodHandleAccessMode(true, false, false);
+        assertTrue(accessMode.findReaders(MethodHandleBean.class).get("name") instanceof MethodHandleAccessMode.MethodHandleReader);
+        assertTrue(accessMode.findWriters(MethodHandleBean.class).get("name") instanceof MethodHandleAccessMode.MethodHandleWriter);
+
+        final Mapper mapper = new MapperBuilder().setAccessMode(accessMode).build();
+        final MethodHandleBean bean = mapper.readObject("{\"name\":\"johnzon\"}", MethodHandleBean.class);
+        assertEquals("set:johnzon", bean.value);
+        assertEquals("{\"name\":\"get:set:johnzon\"}", mapper.writeObjectAsString(bean));
+    }
+
+    @Test
+    public void methodHandleAccessPrivateAndFinalFields() {
+        final MethodHandleAccessMode accessMode = new MethodHandleAccessMode(true, false, false);
+        final Map<String, AccessMode.Reader> readers = accessMode.findReaders(MethodHandleFields.class);
+        final Map<String, AccessMode.Writer> writers = accessMode.findWriters(MethodHandleFields.class);
+        assertTrue(readers.get("hidden") instanceof MethodHandleAccessMode.FieldHandleReader);
+        assertTrue(readers.get("constant") instanceof MethodHandleAccessMode.FieldHandleReader);
+        assertTrue(writers.get("hidden") instanceof MethodHandleAccessMode.FieldHandleWriter);
+        assertTrue(writers.get("constant") instanceof MethodHandleAccessMode.FieldHandleWriter);
+
+        final Mapper mapper = new MapperBuilder().setAccessMode(accessMode).build();
+        final MethodHandleFields fields = mapper.readObject("{\"constant\":\"final\",\"hidden\":2}", MethodHandleFields.class);
+        assertEquals(2, fields.hidden);
+        assertEquals("final", fields.constant);
+        assertEquals("{\"constant\":\"final\",\"hidden\":2}", mapper.writeObjectAsString(fields));
+    }
+
 
     @Test
     public void nan() {
@@ -547,6 +590,30 @@ public class MapperTest {
     }
 
 
+    @Test
+    public void primitiveArrays() {
+        final String json = "{\"booleans\":[true,false],\"bytes\":[1,-2],\"chars\":[\"a\",\"b\"]," +
+                "\"doubles\":[0.1,1.0E300,-3.0],\"floats\":[1.5],\"ints\":[1,2,3,4,5,6,7,8,9,10,11,12,13,14,15,16,17,18,19,20]," +
+                "\"longs\":[9007199254740993,-1],\"matrix\":[[1.0,2.0],[3.0]],\"shorts\":[3]}";
+        final Comparator<String> order = new Comparator<String>() {
+            @Override
+            public int compare(final String o1, final String o2) {
+                return o1.compareTo(o2);
+            }
+        };
+        for (final boolean streaming : new boolean[] { false, true }) {
+            final Mapper mapper = new MapperBuilder().setAccessModeName("field").setAttributeOrder(order).setStreamingRead(streaming).build();
+            final PrimitiveArrays arrays = mapper.readObject(json, PrimitiveArrays.class);
+            assertEquals(20, arrays.ints.length);
+            assertEquals(20, arrays.ints[19]);
+            assertEquals(9007199254740993L, arrays.longs[0]);
+            assertEquals(1e300, arrays.doubles[1], 0);
+            assertEquals(3., arrays.matrix[1][0], 0);
+            assertEquals('b', arrays.chars[1]);
+            assertEquals(json, mapper.writeObjectAsString(arrays));
+        }
+    }
+
     @Test
     public void noSetterCollection() {
         final NoSetterCollection value = new MapperBuilder().setSupportGetterForCollections(true).build()
@@ -625,6 +692,18 @@ public class MapperTest {
         assertNotEquals(utf8, latin); // means encoding was considered, we don't need more here
     }
 
+    public static class PrimitiveArrays {
+        public int[] ints;
+        public long[] longs;
+        public double[] doubles;
+        public float[] floats;
+        public short[] shorts;
+        public byte[] bytes;
+        public boolean[] booleans;
+        public char[] chars;
+        public double[][] matrix;
+    }
+
     public static class NanHolder {
         private Double nan = Double.NaN;
 
@@ -1074,4 +1153,25 @@ public class MapperTest {
     public static class PrimitiveObject {
         public Object bool;
     }
+
+    public static class MethodHandleBean {
+        private transient String value;
+
+        public String getName() {
+            return "get:" + value;
+        }
+
+        public void setName(final String name) {
+            this.value = "set:" + name;
+        }
+    }
+
+    public static class MethodHandleFields {
+        private final String constant;
+        private int hidden;
+
+        public MethodHandleFields() {
+            constant = null;
+        }
+    }
 }
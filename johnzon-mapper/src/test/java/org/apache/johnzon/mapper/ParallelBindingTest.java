@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.mapper;
+
+import org.apache.johnzon.mapper.reflection.JohnzonParameterizedType;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelBindingTest {
+    private static final int SIZE = 2000;
+
+    @Test
+    public void sameAsSequential() {
+        final String json = createJson();
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final Mapper parallel = new MapperBuilder().setParallelBindingThreshold(100).setParallelBindingPool(pool).build();
+            final Mapper sequential = new MapperBuilder().build();
+
+            final Holder fromParallel = parallel.readObject(json, Holder.class);
+            final Holder fromSequential = sequential.readObject(json, Holder.class);
+            assertEquals(SIZE, fromParallel.items.size());
+            assertEquals(sequential.writeObjectAsString(fromSequential), parallel.writeObjectAsString(fromParallel));
+            assertNull(fromParallel.items.get(10));
+            assertEquals("item-11", fromParallel.items.get(11).name);
+            assertEquals(new TreeSet<Integer>(fromSequential.ids), fromParallel.ids);
+            assertArrayEquals(fromSequential.array, fromParallel.array);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void usesThePool() {
+        final Set<String> threads = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            final Mapper mapper = new MapperBuilder()
+                    .setParallelBindingThreshold(10)
+                    .setParallelBindingPool(pool)
+                    .addAdapter(new TrackingAdapter(threads))
+                    .build();
+            final List<Tracked> tracked = mapper.readObject(trackedJson(), new JohnzonParameterizedType(List.class, Tracked.class));
+            assertEquals(SIZE, tracked.size());
+            for (int i = 0; i < SIZE; i++) {
+                assertEquals(Integer.toString(i), tracked.get(i).value);
+            }
+            boolean pooled = false;
+            for (final String thread : threads) {
+                pooled = pooled || thread.startsWith("ForkJoinPool");
+            }
+            assertTrue(threads.toString(), pooled);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test(expected = MapperException.class)
+    public void errorsArePropagated() {
+        final StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < SIZE; i++) {
+            json.append(i == SIZE / 2 ? "\"oops\"" : "true").append(',');
+        }
+        json.setLength(json.length() - 1);
+        new MapperBuilder().setParallelBindingThreshold(10).build().readArray(new StringReader(json.append(']').toString()), Boolean.class);
+    }
+
+    private static String createJson() {
+        final StringBuilder items = new StringBuilder();
+        final StringBuilder ids = new StringBuilder();
+        for (int i = 0; i < SIZE; i++) {
+            if (i > 0) {
+                items.append(',');
+                ids.append(',');
+            }
+            items.append(i == 10 ? "null" : "{\"name\":\"item-" + i + "\",\"values\":[" + i + "," + (i + 1) + "]}");
+            ids.append(SIZE - i);
+        }
+        return "{\"items\":[" + items + "],\"ids\":[" + ids + "],\"array\":[" + ids + "]}";
+    }
+
+    private static String trackedJson() {
+        final StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < SIZE; i++) {
+            json.append('"').append(i).append("\",");
+        }
+        json.setLength(json.length() - 1);
+        return json.append(']').toString();
+    }
+
+    public static class Holder {
+        public List<Item> items = new ArrayList<Item>();
+        public TreeSet<Integer> ids;
+        public Integer[] array;
+    }
+
+    public static class Item {
+        public String name;
+        public int[] values;
+    }
+
+    public static class Tracked {
+        private final String value;
+
+        private Tracked(final String value) {
+            this.value = value;
+        }
+    }
+
+    public static class TrackingAdapter implements Adapter<Tracked, String> {
+        private final Set<String> threads;
+
+        private TrackingAdapter(final Set<String> threads) {
+            this.threads = threads;
+        }
+
+        @Override
+        public Tracked to(final String b) {
+            threads.add(Thread.currentThread().getName());
+            return new Tracked(b);
+        }
+
+        @Override
+        public String from(final Tracked a) {
+            return a.value;
+        }
+    }
+}
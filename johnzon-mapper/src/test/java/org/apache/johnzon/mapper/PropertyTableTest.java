@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.mapper;
+
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PropertyTableTest {
+    @Test
+    public void lookup() {
+        final Mappings.Setter setter = new MapperBuilder().build().mappings.findOrCreateClassMapping(Wide.class).setters.get("p1");
+        final Map<String, Mappings.Setter> setters = new LinkedHashMap<String, Mappings.Setter>();
+        for (int i = 0; i < 200; i++) {
+            setters.put("property" + i, setter);
+        }
+        setters.put("Aa", setter); // same hash code
+        setters.put("BB", setter);
+
+        final Mappings.PropertyTable table = new Mappings.PropertyTable(setters);
+        int i = 0;
+        for (final String name : setters.keySet()) {
+            assertEquals(name, i, table.indexOf(name));
+            assertEquals(name, table.names[i]);
+            i++;
+        }
+        assertEquals(-1, table.indexOf("property200"));
+        assertEquals(-1, table.indexOf("C#")); // same hash code than Aa/BB
+        assertEquals(-1, new Mappings.PropertyTable(new LinkedHashMap<String, Mappings.Setter>()).indexOf("a"));
+    }
+
+    @Test
+    public void sparseWideObject() {
+        for (final boolean streaming : new boolean[] { false, true }) {
+            final Mapper mapper = new MapperBuilder().setStreamingRead(streaming).build();
+            final Wide wide = mapper.readObject("{\"p3\":\"c\",\"unknown\":1,\"p1\":\"a\"}", Wide.class);
+            assertEquals("a", wide.p1);
+            assertEquals(null, wide.p2);
+            assertEquals("c", wide.p3);
+        }
+    }
+
+    @Test
+    public void failOnUnknown() {
+        try {
+            new MapperBuilder().setFailOnUnknownProperties(true).build().readObject("{\"p1\":\"a\",\"x\":1,\"y\":2}", Wide.class);
+            fail();
+        } catch (final MapperException me) {
+            assertTrue(me.getMessage(), me.getMessage().contains("x") && me.getMessage().contains("y") && !me.getMessage().contains("p1"));
+        }
+    }
+
+    public static class Wide {
+        public String p1;
+        public String p2;
+        public String p3;
+        public String p4;
+        public String p5;
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.mapper;
+
+import org.apache.johnzon.mapper.access.AccessMode;
+import org.apache.johnzon.mapper.access.FieldAccessMode;
+import org.junit.Test;
+
+import java.beans.ConstructorProperties;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ReadIntoTest {
+    @Test
+    public void nestedObjectsAreReused() {
+        final Holder holder = new Holder();
+        holder.name = "initial";
+        holder.count = 5;
+        holder.child = new Child();
+        holder.child.value = "a";
+        holder.child.other = "kept";
+        final Child child = holder.child;
+
+        assertSame(holder, new MapperBuilder().build().readInto("{\"name\":\"updated\",\"child\":{\"value\":\"b\"}}", holder));
+        assertEquals("updated", holder.name);
+        assertEquals(5, holder.count);
+        assertSame(child, holder.child);
+        assertEquals("b", child.value);
+        assertEquals("kept", child.other);
+    }
+
+    @Test
+    public void listItemsAreReusedAndRecycled() {
+        final RecyclingAccessMode accessMode = new RecyclingAccessMode();
+        final Mapper mapper = new MapperBuilder().setAccessMode(accessMode).build();
+
+        final Holder holder = new Holder();
+        holder.children = new ArrayList<Child>();
+        for (final String value : new String[] { "a", "b", "c" }) {
+            final Child child = new Child();
+            child.value = value;
+            holder.children.add(child);
+        }
+        final List<Child> children = holder.children;
+        final Child first = children.get(0);
+        final Child last = children.get(2);
+        holder.child = new Child();
+        final Child dropped = holder.child;
+
+        mapper.readInto("{\"child\":null,\"children\":[{\"value\":\"x\"},{\"value\":\"y\"}]}", holder);
+        assertSame(children, holder.children);
+        assertEquals(2, children.size());
+        assertSame(first, children.get(0));
+        assertEquals("x", first.value);
+        assertEquals("y", children.get(1).value);
+        assertNull(holder.child);
+        assertEquals(2, accessMode.recycled.size());
+        assertTrue(accessMode.recycled.contains(dropped));
+        assertTrue(accessMode.recycled.contains(last));
+    }
+
+    @Test
+    public void fixedSizeListIsReplacedUntouched() {
+        final RecyclingAccessMode accessMode = new RecyclingAccessMode();
+        final Mapper mapper = new MapperBuilder().setAccessMode(accessMode).build();
+
+        final Holder holder = new Holder();
+        final Child first = new Child();
+        first.value = "a";
+        holder.children = Arrays.asList(first);
+        final List<Child> children = holder.children;
+
+        mapper.readInto("{\"children\":[{\"value\":\"x\"},{\"value\":\"y\"}]}", holder);
+        assertNotSame(children, holder.children);
+        assertEquals(2, holder.children.size());
+        assertEquals("x", holder.children.get(0).value);
+        assertEquals("a", first.value); // can't grow, the old list and its items are left as they were
+        assertSame(first, children.get(0));
+
+        holder.children = Collections.unmodifiableList(new ArrayList<Child>(Arrays.asList(first)));
+        mapper.readInto("{\"children\":[{\"value\":\"z\"}]}", holder);
+        assertEquals("z", holder.children.get(0).value);
+        assertEquals("a", first.value);
+        assertTrue(accessMode.recycled.isEmpty());
+    }
+
+    @Test
+    public void replacedInstancesAreRecycled() {
+        final RecyclingAccessMode accessMode = new RecyclingAccessMode();
+        final Mapper mapper = new MapperBuilder().setAccessMode(accessMode).build();
+
+        final Holder holder = new Holder();
+        holder.point = new Point(1, 2);
+        final Point old = holder.point;
+
+        mapper.readInto("{\"point\":{\"x\":3,\"y\":4}}", holder);
+        assertEquals(3, holder.point.x);
+        assertEquals(1, accessMode.recycled.size());
+        assertSame(old, accessMode.recycled.get(0)); // constructor parameters, a new instance is created
+    }
+
+    @Test
+    public void maps() {
+        final Holder holder = new Holder();
+        holder.values = new HashMap<String, Integer>();
+        holder.values.put("old", 1);
+        final Map<String, Integer> values = holder.values;
+
+        new MapperBuilder().build().readInto("{\"values\":{\"a\":1,\"b\":2}}", holder);
+        assertSame(values, holder.values);
+        assertEquals(2, values.size());
+        assertEquals(2, values.get("b").intValue());
+
+        final Map<String, Object> map = new HashMap<String, Object>();
+        map.put("old", true);
+        new MapperBuilder().build().readInto("{\"a\":\"b\"}", map);
+        assertEquals(1, map.size());
+        assertEquals("b", map.get("a"));
+    }
+
+    @Test(expected = MapperException.class)
+    public void onlyObjects() {
+        new MapperBuilder().build().readInto("[]", new Holder());
+    }
+
+    public static class Holder {
+        public String name;
+        public int count;
+        public Child child;
+        public List<Child> children;
+        public Map<String, Integer> values;
+        public Point point;
+    }
+
+    public static class Point {
+        private final int x;
+        private final int y;
+
+        @ConstructorProperties({ "x", "y" })
+        public Point(final int x, final int y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    public static class Child {
+        public String value;
+        public String other;
+    }
+
+    private static class RecyclingAccessMode extends FieldAccessMode {
+        private final List<Object> recycled = new ArrayList<Object>();
+
+        private RecyclingAccessMode() {
+            super(true, false);
+        }
+
+        @Override
+        public Factory findFactory(final Class<?> clazz) {
+            final Factory delegate = super.findFactory(clazz);
+            return new AccessMode.RecyclingFactory() {
+                @Override
+                public void recycle(final Object instance) {
+                    recycled.add(instance);
+                }
+
+                @Override
+                public Object create(final Object[] params) {
+                    return delegate.create(params);
+                }
+
+                @Override
+                public Type[] getParameterTypes() {
+                    return delegate.getParameterTypes();
+                }
+
+                @Override
+                public String[] getParameterNames() {
+                    return delegate.getParameterNames();
+                }
+
+                @Override
+                public Adapter<?, ?>[] getParameterConverter() {
+                    return delegate.getParameterConverter();
+                }
+
+                @Override
+                public Adapter<?, ?>[] getParameterItemConverter() {
+                    return delegate.getParameterItemConverter();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.mapper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import javax.json.JsonReaderFactory;
+import javax.json.JsonValue;
+
+import org.junit.Test;
+
+public class StreamingReadTest {
+    private static final String JSON = "{\"name\":\"root\",\"ignored\":{\"a\":[1,{\"b\":2}]},\"count\":3," +
+            "\"child\":{\"name\":\"child\",\"values\":[1,2]},\"children\":[{\"name\":\"c1\"},null,{\"name\":\"c2\",\"count\":4}]," +
+            "\"attributes\":{\"x\":1,\"y\":\"z\",\"w\":[true]},\"raw\":{\"k\":\"v\"},\"tags\":[\"a\",\"b\"],\"date\":\"20170102030405+0000\"}";
+
+    @Test
+    public void sameAsTreeMode() {
+        final Mapper tree = new MapperBuilder().build();
+        final Mapper streaming = new MapperBuilder().setStreamingRead(true).build();
+        final Node fromTree = tree.readObject(JSON, Node.class);
+        final Node fromStream = streaming.readObject(JSON, Node.class);
+        assertEquals(fromTree.attributes, fromStream.attributes); // hash maps, iteration order can differ
+        fromTree.attributes = null;
+        fromStream.attributes = null;
+        assertEquals(tree.writeObjectAsString(fromTree), streaming.writeObjectAsString(fromStream));
+    }
+
+    @Test
+    public void read() {
+        final Node node = new MapperBuilder().setStreamingRead(true).build().readObject(JSON, Node.class);
+        assertEquals("root", node.name);
+        assertEquals(3, node.count);
+        assertEquals("child", node.child.name);
+        assertEquals(Arrays.asList(1, 2), Arrays.asList(node.child.values[0], node.child.values[1]));
+        assertEquals(3, node.children.size());
+        assertEquals("c1", node.children.get(0).name);
+        assertNull(node.children.get(1));
+        assertEquals(4, node.children.get(2).count);
+        assertEquals(1, node.attributes.get("x"));
+        assertEquals("z", node.attributes.get("y"));
+        assertEquals(Arrays.asList(true), node.attributes.get("w"));
+        assertEquals("v", node.raw.getString("k"));
+        assertEquals(2, node.tags.length);
+        assertEquals(1483326245000L, node.date.getTime());
+        assertNull(node.missing);
+    }
+
+    @Test
+    public void failOnUnknown() {
+        try {
+            new MapperBuilder().setStreamingRead(true).setFailOnUnknownProperties(true).build().readObject(JSON, Node.class);
+            fail();
+        } catch (final MapperException me) {
+            assertEquals("(fail on unknown properties): [ignored]", me.getMessage());
+        }
+    }
+
+    @Test
+    public void topLevelCollections() {
+        final Mapper mapper = new MapperBuilder().setStreamingRead(true).build();
+        assertEquals(2, mapper.readArray(new java.io.StringReader("[{\"name\":\"a\"},{\"name\":\"b\"}]"), Node.class).length);
+        assertEquals(Arrays.asList(1, "a"), mapper.readObject("[1,\"a\"]", Object.class));
+        assertEquals(5, mapper.<Integer>readObject("5", Integer.class).intValue());
+    }
+
+    @Test
+    public void customReaderFactoryWins() {
+        final AtomicInteger readers = new AtomicInteger();
+        final JsonReaderFactory delegate = Json.createReaderFactory(Collections.<String, Object>emptyMap());
+        final Mapper mapper = new MapperBuilder().setStreamingRead(true).setReaderFactory(new JsonReaderFactory() {
+            @Override
+            public JsonReader createReader(final Reader reader) {
+                readers.incrementAndGet();
+                return delegate.createReader(reader);
+            }
+
+            @Override
+            public JsonReader createReader(final InputStream in) {
+                readers.incrementAndGet();
+                return delegate.createReader(in);
+            }
+
+            @Override
+            public JsonReader createReader(final InputStream in, final Charset charset) {
+                readers.incrementAndGet();
+                return delegate.createReader(in, charset);
+            }
+
+            @Override
+            public Map<String, ?> getConfigInUse() {
+                return delegate.getConfigInUse();
+            }
+        }).build();
+        final Node node = mapper.readObject(JSON, Node.class);
+        assertEquals("root", node.getName());
+        assertEquals(1, readers.get());
+    }
+
+    public static class Node {
+        private String name;
+        private int count;
+        private Node child;
+        private List<Node> children;
+        private Map<String, Object> attributes;
+        private JsonObject raw;
+        private JsonValue missing = JsonValue.TRUE;
+        private String[] tags;
+        private int[] values;
+        private java.util.Date date;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(final String name) {
+            this.name = name;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(final int count) {
+            this.count = count;
+        }
+
+        public Node getChild() {
+            return child;
+        }
+
+        public void setChild(final Node child) {
+            this.child = child;
+        }
+
+        public List<Node> getChildren() {
+            return children;
+        }
+
+        public void setChildren(final List<Node> children) {
+            this.children = children;
+        }
+
+        public Map<String, Object> getAttributes() {
+            return attributes;
+        }
+
+        public void setAttributes(final Map<String, Object> attributes) {
+            this.attributes = attributes;
+        }
+
+        public JsonObject getRaw() {
+            return raw;
+        }
+
+        public void setRaw(final JsonObject raw) {
+            this.raw = raw;
+        }
+
+        public JsonValue getMissing() {
+            return missing;
+        }
+
+        public void setMissing(final JsonValue missing) {
+            this.missing = missing;
+        }
+
+        public String[] getTags() {
+            return tags;
+        }
+
+        public void setTags(final String[] tags) {
+            this.tags = tags;
+        }
+
+        public int[] getValues() {
+            return values;
+        }
+
+        public void setValues(final int[] values) {
+            this.values = values;
+        }
+
+        public java.util.Date getDate() {
+            return date;
+        }
+
+        public void setDate(final java.util.Date date) {
+            this.date = date;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.mapper;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class WritePlanTest {
+    private static final Comparator<String> NATURAL = new Comparator<String>() {
+        @Override
+        public int compare(final String o1, final String o2) {
+            return o1.compareTo(o2);
+        }
+    };
+
+    @Test
+    public void plan() {
+        final Mapper mapper = new MapperBuilder().setAttributeOrder(NATURAL).build();
+        final Mappings.ClassMapping mapping = mapper.mappings.findOrCreateClassMapping(Model.class);
+        final Mappings.WriteSlot[] plan = mapper.mappings.findWritePlan(mapping);
+        assertEquals(10, plan.length);
+
+        final StringBuilder kinds = new StringBuilder();
+        for (final Mappings.WriteSlot slot : plan) {
+            kinds.append(slot.name).append('=').append(slot.kind).append(',');
+        }
+        assertEquals("aBoolean=BOOLEAN,aDouble=DOUBLE,aLong=LONG,aString=STRING,anEnum=ENUM,anInt=INT,anObject=DYNAMIC," +
+                "items=COLLECTION,nested=OBJECT,values=DYNAMIC,", kinds.toString());
+    }
+
+    @Test
+    public void write() {
+        final Model model = new Model();
+        model.aString = "s";
+        model.anInt = 1;
+        model.aLong = 2L;
+        model.aDouble = Double.NaN;
+        model.aBoolean = true;
+        model.anEnum = Kind.B;
+        model.anObject = 3;
+        model.items = Arrays.asList("a", null, "b");
+        model.values = Arrays.<Object>asList(4, "c");
+        model.nested = new Nested();
+        model.nested.name = "n";
+        model.nested.parent = new Nested();
+
+        assertEquals("{\"aBoolean\":true,\"aLong\":2,\"aString\":\"s\",\"anEnum\":\"B\",\"anInt\":1,\"anObject\":3," +
+                        "\"items\":[\"a\",\"b\"],\"nested\":{\"name\":\"n\",\"parent\":{}},\"values\":[4,\"c\"]}",
+                new MapperBuilder().setAttributeOrder(NATURAL).build().writeObjectAsString(model));
+    }
+
+    public enum Kind {
+        A, B
+    }
+
+    public static class Model {
+        public String aString;
+        public int anInt;
+        public Long aLong;
+        public double aDouble;
+        public boolean aBoolean;
+        public Kind anEnum;
+        public Object anObject;
+        public List<String> items;
+        public List<Object> values;
+        public Nested nested;
+    }
+
+    public static final class Nested {
+        public String name;
+        public Nested parent;
+    }
+}
@@ -0,0 +1,499 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Generates a GeneratedCodec for each class decorated with @JohnzonCodec and registers them
+ * in META-INF/services so the mapper uses them instead of its reflection based mapping.
+ *
+ * Supported properties are the public getters/setters and the accessible (not private) fields,
+ * @JohnzonProperty and @JohnzonIgnore are respected. The generated code calls the accessors directly,
+ * strings, numbers and booleans are read and written without going through the mapper,
+ * other values are delegated to the mapper with a type computed at build time.
+ */
+@SupportedAnnotationTypes(CodecProcessor.JOHNZON_CODEC)
+public class CodecProcessor extends AbstractProcessor {
+    static final String JOHNZON_CODEC = "org.apache.johnzon.mapper.JohnzonCodec";
+    static final String SUFFIX = "_JohnzonCodec";
+
+    private static final String SERVICE = "META-INF/services/org.apache.johnzon.mapper.GeneratedCodec";
+    private static final String JOHNZON_PROPERTY = "org.apache.johnzon.mapper.JohnzonProperty";
+    private static final String JOHNZON_IGNORE = "org.apache.johnzon.mapper.JohnzonIgnore";
+    private static final String[] UNSUPPORTED = {
+        "org.apache.johnzon.mapper.JohnzonConverter", "org.apache.johnzon.mapper.JohnzonAny",
+        "org.apache.johnzon.mapper.JohnzonVirtualObject", "org.apache.johnzon.mapper.JohnzonVirtualObjects"
+    };
+
+    private final Set<String> codecs = new TreeSet<String>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            if (!codecs.isEmpty()) {
+                writeServices();
+            }
+            return false;
+        }
+
+        for (final TypeElement annotation : annotations) {
+            for (final Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                try {
+                    codecs.add(generate(TypeElement.class.cast(element)));
+                } catch (final IllegalArgumentException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), element);
+                } catch (final IOException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Can't generate the codec: " + e.getMessage(), element);
+                }
+            }
+        }
+        return true;
+    }
+
+    private String generate(final TypeElement type) throws IOException {
+        validate(type);
+
+        final Map<String, Property> readers = new LinkedHashMap<String, Property>();
+        final Map<String, Property> writers = new LinkedHashMap<String, Property>();
+        findProperties(type, readers, writers);
+
+        final String pkg = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        final String typeName = type.getQualifiedName().toString();
+        final String simpleName = (pkg.isEmpty() ? typeName : typeName.substring(pkg.length() + 1)).replace('.', '_') + SUFFIX;
+        final String codecName = pkg.isEmpty() ? simpleName : pkg + '.' + simpleName;
+
+        final StringBuilder types = new StringBuilder();
+        final StringBuilder write = new StringBuilder();
+        final StringBuilder read = new StringBuilder();
+        int typeIndex = 0;
+        for (final Property property : readers.values()) {
+            final String name = literal(property.name);
+            final Scalar scalar = Scalar.of(property.type);
+            final String direct = scalar == null ? "mappingGenerator.writeObject(" + name + ", value, generator);" : scalar.write(name, "value");
+            write.append("        {\n")
+                .append("            final ").append(property.type).append(" value = ").append(property.read).append(";\n");
+            if (property.type.getKind().isPrimitive() || scalar == null) { // the mapper handles null for the others
+                write.append("            ").append(direct).append('\n');
+            } else {
+                write.append("            if (value == null) {\n")
+                    .append("                mappingGenerator.writeObject(").append(name).append(", null, generator);\n")
+                    .append("            } else {\n")
+                    .append("                ").append(direct).append('\n')
+                    .append("            }\n");
+            }
+            write.append("        }\n");
+        }
+        for (final Property property : writers.values()) {
+            final Scalar scalar = Scalar.of(property.type);
+            final String boxed = boxed(property.type);
+            final String value;
+            if (scalar == null) {
+                final String constant = "TYPE_" + typeIndex++;
+                types.append("    private static final java.lang.reflect.Type ").append(constant).append(" = ")
+                    .append(typeLiteral(property.type)).append(";\n");
+                value = "parser.<" + boxed + ">readObject(value, " + constant + ")";
+            } else {
+                value = scalar.read(boxed);
+            }
+            read.append("        value = object.get(").append(literal(property.name)).append(");\n");
+            if (property.type.getKind().isPrimitive()) {
+                read.append("        if (value != null && value.getValueType() != javax.json.JsonValue.ValueType.NULL) {\n")
+                    .append("            ").append(String.format(property.write, value)).append(";\n")
+                    .append("        }\n");
+            } else { // an explicit null is set as with the reflection mapping
+                read.append("        if (value != null) {\n")
+                    .append("            if (value.getValueType() == javax.json.JsonValue.ValueType.NULL) {\n")
+                    .append("                ").append(String.format(property.write, "(" + boxed + ") null")).append(";\n")
+                    .append("            } else {\n")
+                    .append("                ").append(String.format(property.write, value)).append(";\n")
+                    .append("            }\n")
+                    .append("        }\n");
+            }
+        }
+
+        final Writer out = processingEnv.getFiler().createSourceFile(codecName, type).openWriter();
+        try {
+            if (!pkg.isEmpty()) {
+                out.write("package " + pkg + ";\n\n");
+            }
+            out.write("// generated by " + CodecProcessor.class.getName() + " from " + typeName + ", don't edit\n");
+            out.write("public final class " + simpleName + " implements org.apache.johnzon.mapper.GeneratedCodec<" + typeName + "> {\n");
+            out.write(types.toString());
+            out.write("\n");
+            out.write("    @Override\n");
+            out.write("    public Class<" + typeName + "> type() {\n");
+            out.write("        return " + typeName + ".class;\n");
+            out.write("    }\n\n");
+            out.write("    @Override\n");
+            out.write("    public void writeJson(final " + typeName + " instance, final org.apache.johnzon.mapper.MappingGenerator mappingGenerator) {\n");
+            out.write("        final javax.json.stream.JsonGenerator generator = mappingGenerator.getJsonGenerator();\n");
+            out.write(write.toString());
+            out.write("    }\n\n");
+            out.write("    @Override\n");
+            out.write("    public " + typeName + " fromJson(final javax.json.JsonObject object, final java.lang.reflect.Type targetType,\n");
+            out.write("            final org.apache.johnzon.mapper.MappingParser parser) {\n");
+            out.write("        final " + typeName + " instance = new " + typeName + "();\n");
+            if (!writers.isEmpty()) {
+                out.write("        javax.json.JsonValue value;\n");
+            }
+            out.write(read.toString());
+            out.write("        return instance;\n");
+            out.write("    }\n");
+            out.write("}\n");
+        } finally {
+            out.close();
+        }
+        return codecName;
+    }
+
+    private void validate(final TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)) {
+            throw new IllegalArgumentException("@JohnzonCodec only supports concrete classes");
+        }
+        if (!type.getTypeParameters().isEmpty()) {
+            throw new IllegalArgumentException("@JohnzonCodec doesn't support generic classes");
+        }
+        if (type.getNestingKind() != NestingKind.TOP_LEVEL
+                && (type.getNestingKind() != NestingKind.MEMBER || !type.getModifiers().contains(Modifier.STATIC))) {
+            throw new IllegalArgumentException("@JohnzonCodec doesn't support inner classes, make it a static nested class");
+        }
+        for (Element current = type; TypeElement.class.isInstance(current); current = current.getEnclosingElement()) {
+            if (current.getModifiers().contains(Modifier.PRIVATE)) {
+                throw new IllegalArgumentException("@JohnzonCodec classes must be accessible from their package");
+            }
+        }
+        for (final ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                return;
+            }
+        }
+        throw new IllegalArgumentException("@JohnzonCodec classes need a not private no-arg constructor");
+    }
+
+    private void findProperties(final TypeElement type, final Map<String, Property> readers, final Map<String, Property> writers) {
+        final PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        final List<? extends Element> members = processingEnv.getElementUtils().getAllMembers(type);
+        // inherited members are seen from the type, Base<String> gives String and not T
+        final DeclaredType declaredType = DeclaredType.class.cast(type.asType());
+        final Types types = processingEnv.getTypeUtils();
+        // java names of ignored accessors, their field must stay ignored too
+        final Set<String> ignoredReaders = new HashSet<String>();
+        final Set<String> ignoredWriters = new HashSet<String>();
+
+        // accessors first, fields are only used when there is no accessor
+        for (final ExecutableElement method : ElementFilter.methodsIn(members)) {
+            if (!method.getModifiers().contains(Modifier.PUBLIC) || method.getModifiers().contains(Modifier.STATIC)
+                    || Object.class.getName().equals(TypeElement.class.cast(method.getEnclosingElement()).getQualifiedName().toString())) {
+                continue;
+            }
+            final String methodName = method.getSimpleName().toString();
+            final ExecutableType methodType = ExecutableType.class.cast(types.asMemberOf(declaredType, method));
+            final TypeMirror returnType = methodType.getReturnType();
+            if (method.getParameters().isEmpty() && returnType.getKind() != TypeKind.VOID) {
+                final String property;
+                if (methodName.startsWith("get") && methodName.length() > 3) {
+                    property = decapitalize(methodName.substring(3));
+                } else if (methodName.startsWith("is") && methodName.length() > 2 && returnType.getKind() == TypeKind.BOOLEAN) {
+                    property = decapitalize(methodName.substring(2));
+                } else {
+                    continue;
+                }
+                addProperty(readers, ignoredReaders, method, property, returnType, "instance." + methodName + "()");
+            } else if (method.getParameters().size() == 1 && returnType.getKind() == TypeKind.VOID
+                    && methodName.startsWith("set") && methodName.length() > 3) {
+                addProperty(writers, ignoredWriters, method, decapitalize(methodName.substring(3)), methodType.getParameterTypes().get(0),
+                        "instance." + methodName + "(%s)");
+            }
+        }
+        for (final VariableElement field : ElementFilter.fieldsIn(members)) {
+            final Set<Modifier> modifiers = field.getModifiers();
+            if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT) || modifiers.contains(Modifier.PRIVATE)
+                    || (!modifiers.contains(Modifier.PUBLIC) && !pkg.equals(processingEnv.getElementUtils().getPackageOf(field)))) {
+                continue;
+            }
+            final String fieldName = field.getSimpleName().toString();
+            final String expression = "instance." + fieldName;
+            final TypeMirror fieldType = types.asMemberOf(declaredType, field);
+            if (!ignoredReaders.contains(fieldName) && !hasAccessor(readers, fieldName)) {
+                addProperty(readers, ignoredReaders, field, fieldName, fieldType, expression);
+            }
+            if (!modifiers.contains(Modifier.FINAL) && !ignoredWriters.contains(fieldName) && !hasAccessor(writers, fieldName)) {
+                addProperty(writers, ignoredWriters, field, fieldName, fieldType, expression + " = %s");
+            }
+        }
+    }
+
+    private void addProperty(final Map<String, Property> properties, final Set<String> ignored, final Element element,
+                             final String javaName, final TypeMirror type, final String accessor) {
+        for (final String unsupported : UNSUPPORTED) {
+            if (findAnnotation(element, unsupported) != null) {
+                throw new IllegalArgumentException("@JohnzonCodec doesn't support " + unsupported + " on " + element);
+            }
+        }
+        if (findAnnotation(element, JOHNZON_IGNORE) != null) {
+            ignored.add(javaName);
+            return;
+        }
+        final AnnotationMirror property = findAnnotation(element, JOHNZON_PROPERTY);
+        final String name = property == null ? javaName : String.valueOf(annotationValue(property));
+        if (!properties.containsKey(name)) {
+            properties.put(name, new Property(name, javaName, type, accessor));
+        }
+    }
+
+    private static boolean hasAccessor(final Map<String, Property> properties, final String javaName) {
+        for (final Property property : properties.values()) {
+            if (property.javaName.equals(javaName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static AnnotationMirror findAnnotation(final Element element, final String type) {
+        for (final AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (TypeElement.class.cast(mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(type)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private static Object annotationValue(final AnnotationMirror mirror) {
+        for (final Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals("value")) {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    // java.lang.reflect.Type expression for the generated code
+    private String typeLiteral(final TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+            case CHAR:
+            case FLOAT:
+            case DOUBLE:
+                return type + ".class";
+            case ARRAY:
+                final TypeMirror component = ArrayType.class.cast(type).getComponentType();
+                if (component.getKind() == TypeKind.DECLARED && !DeclaredType.class.cast(component).getTypeArguments().isEmpty()) {
+                    break;
+                }
+                return erasure(type) + ".class";
+            case DECLARED:
+                final List<? extends TypeMirror> args = DeclaredType.class.cast(type).getTypeArguments();
+                if (args.isEmpty()) {
+                    return erasure(type) + ".class";
+                }
+                final StringBuilder literal = new StringBuilder("new org.apache.johnzon.mapper.reflection.JohnzonParameterizedType(")
+                        .append(erasure(type)).append(".class");
+                for (final TypeMirror arg : args) {
+                    literal.append(", ").append(typeLiteral(arg));
+                }
+                return literal.append(')').toString();
+            default:
+        }
+        throw new IllegalArgumentException("@JohnzonCodec doesn't support the type " + type);
+    }
+
+    private String erasure(final TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private String boxed(final TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass(processingEnv.getTypeUtils().getPrimitiveType(type.getKind())).getQualifiedName().toString();
+        }
+        return type.toString();
+    }
+
+    private void writeServices() {
+        final Collection<String> all = new TreeSet<String>(codecs);
+        try { // keep the codecs of a previous (incremental) compilation
+            final FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE);
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(existing.openInputStream(), "UTF-8"));
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.trim().isEmpty()) {
+                        all.add(line.trim());
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (final IOException e) {
+            // no previous file
+        }
+
+        try {
+            final Writer writer = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE).openWriter();
+            try {
+                for (final String codec : all) {
+                    writer.write(codec + "\n");
+                }
+            } finally {
+                writer.close();
+            }
+        } catch (final IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Can't write " + SERVICE + ": " + e.getMessage());
+        }
+    }
+
+    // same rule as java.beans.Introspector
+    private static String decapitalize(final String name) {
+        if (name.length() > 1 && Character.isUpperCase(name.charAt(1)) && Character.isUpperCase(name.charAt(0))) {
+            return name;
+        }
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static String literal(final String value) {
+        final StringBuilder builder = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                builder.append('\\').append(c);
+            } else if (c < ' ' || c > '~') {
+                builder.append(String.format("\\u%04x", (int) c));
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    private static class Property {
+        private final String name;
+        private final String javaName;
+        private final TypeMirror type;
+        private final String read;
+        private final String write;
+
+        private Property(final String name, final String javaName, final TypeMirror type, final String accessor) {
+            this.name = name;
+            this.javaName = javaName;
+            this.type = type;
+            this.read = accessor.contains("%s") ? null : accessor;
+            this.write = accessor.contains("%s") ? accessor : null;
+        }
+    }
+
+    // types written and read without the mapper, same output than MappingGeneratorImpl
+    private enum Scalar {
+        STRING("generator.write(%s, %s);", "javax.json.JsonValue.ValueType.STRING", "javax.json.JsonString.class.cast(value).getString()"),
+        INT("generator.write(%s, %s);", "javax.json.JsonValue.ValueType.NUMBER", "javax.json.JsonNumber.class.cast(value).intValue()"),
+        LONG("generator.write(%s, %s);", "javax.json.JsonValue.ValueType.NUMBER", "javax.json.JsonNumber.class.cast(value).longValue()"),
+        DOUBLE("if (!Double.isNaN(%2$s)) { generator.write(%1$s, (double) %2$s); }",
+                "javax.json.JsonValue.ValueType.NUMBER", "javax.json.JsonNumber.class.cast(value).doubleValue()"),
+        BOOLEAN("generator.write(%s, %s);", null, null);
+
+        private final String write;
+        private final String valueType;
+        private final String read;
+
+        Scalar(final String write, final String valueType, final String read) {
+            this.write = write;
+            this.valueType = valueType;
+            this.read = read;
+        }
+
+        private String write(final String name, final String value) {
+            return String.format(write, name, value);
+        }
+
+        private String read(final String boxed) {
+            final String fallback = "parser.<" + boxed + ">readObject(value, " + boxed + ".class)";
+            if (this == BOOLEAN) {
+                return "(value.getValueType() == javax.json.JsonValue.ValueType.TRUE"
+                        + " || (value.getValueType() != javax.json.JsonValue.ValueType.FALSE && " + fallback + "))";
+            }
+            final String cast;
+            if ("java.lang.Short".equals(boxed) || "java.lang.Byte".equals(boxed) || "java.lang.Float".equals(boxed)) {
+                cast = "(" + boxed.substring("java.lang.".length()).toLowerCase() + ") ";
+            } else {
+                cast = "";
+            }
+            return cast + "(value.getValueType() == " + valueType + " ? " + read + " : " + fallback + ")";
+        }
+
+        private static Scalar of(final TypeMirror type) {
+            final String name = type.getKind().isPrimitive() ? type.getKind().name() : type.toString();
+            if ("java.lang.String".equals(name)) {
+                return STRING;
+            } else if ("INT".equals(name) || "SHORT".equals(name) || "BYTE".equals(name)
+                    || "java.lang.Integer".equals(name) || "java.lang.Short".equals(name) || "java.lang.Byte".equals(name)) {
+                return INT;
+            } else if ("LONG".equals(name) || "java.lang.Long".equals(name)) {
+                return LONG;
+            } else if ("DOUBLE".equals(name) || "FLOAT".equals(name) || "java.lang.Double".equals(name) || "java.lang.Float".equals(name)) {
+                return DOUBLE;
+            } else if ("BOOLEAN".equals(name) || "java.lang.Boolean".equals(name)) {
+                return BOOLEAN;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.johnzon.processor;
+
+import org.apache.johnzon.mapper.GeneratedCodec;
+import org.apache.johnzon.mapper.Mapper;
+import org.apache.johnzon.mapper.MapperBuilder;
+import org.junit.Test;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.ServiceLoader;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CodecProcessorTest {
+    @Test
+    public void roundTrip() throws Exception {
+        final File classes = compile("roundTrip", true,
+                "package test;\n" +
+                "import org.apache.johnzon.mapper.JohnzonCodec;\n" +
+                "import org.apache.johnzon.mapper.JohnzonIgnore;\n" +
+                "import org.apache.johnzon.mapper.JohnzonProperty;\n" +
+                "import java.util.List;\n" +
+                "@JohnzonCodec\n" +
+                "public class Person {\n" +
+                "    public enum Kind { A, B }\n" +
+                "    @JohnzonCodec\n" +
+                "    public static class Address {\n" +
+                "        public String city;\n" +
+                "    }\n" +
+                "    private String name;\n" +
+                "    private int age;\n" +
+                "    private Long id;\n" +
+                "    public double score;\n" +
+                "    public boolean active;\n" +
+                "    public short rank;\n" +
+                "    public Kind kind;\n" +
+                "    public List<Address> addresses;\n" +
+                "    @JohnzonIgnore public String ignored;\n" +
+                "    @JohnzonProperty(\"full_name\") public String getName() { return name; }\n" +
+                "    @JohnzonProperty(\"full_name\") public void setName(final String name) { this.name = name; }\n" +
+                "    public int getAge() { return age; }\n" +
+                "    public void setAge(final int age) { this.age = age; }\n" +
+                "    public Long getId() { return id; }\n" +
+                "    public void setId(final Long id) { this.id = id; }\n" +
+                "}\n");
+
+        final ClassLoader loader = new URLClassLoader(new URL[]{ classes.toURI().toURL() }, getClass().getClassLoader());
+        final Collection<String> codecs = new ArrayList<String>();
+        for (final GeneratedCodec<?> codec : ServiceLoader.load(GeneratedCodec.class, loader)) {
+            codecs.add(codec.type().getName());
+        }
+        assertEquals(2, codecs.size());
+        assertTrue(codecs.containsAll(asList("test.Person", "test.Person$Address")));
+
+        final Thread thread = Thread.currentThread();
+        final ClassLoader old = thread.getContextClassLoader();
+        thread.setContextClassLoader(loader);
+        try {
+            final Mapper mapper = new MapperBuilder().setUseGeneratedCodecs(true).build();
+            final String json = "{\"full_name\":\"n\",\"age\":3,\"score\":1.5,\"active\":true,\"rank\":2,\"kind\":\"B\"," +
+                    "\"addresses\":[{\"city\":\"c1\"},{\"city\":\"c2\"}]}";
+            final Object person = mapper.readObject(json, loader.loadClass("test.Person"));
+            assertEquals(read(json), read(mapper.writeObjectAsString(person)));
+
+            // NaN and null are not written, as with the reflection mapping
+            person.getClass().getField("score").set(person, Double.NaN);
+            person.getClass().getField("addresses").set(person, null);
+            assertEquals(read("{\"full_name\":\"n\",\"age\":3,\"active\":true,\"rank\":2,\"kind\":\"B\"}"),
+                    read(mapper.writeObjectAsString(person)));
+        } finally {
+            thread.setContextClassLoader(old);
+        }
+    }
+
+    @Test
+    public void ignoredGetterHidesItsField() throws Exception {
+        final File classes = compile("ignoredGetterHidesItsField", true,
+                "package test;\n" +
+                "import org.apache.johnzon.mapper.JohnzonIgnore;\n" +
+                "@org.apache.johnzon.mapper.JohnzonCodec\n" +
+                "public class Person {\n" +
+                "    public String name;\n" +
+                "    public String secret;\n" +
+                "    @JohnzonIgnore public String getSecret() { return secret; }\n" +
+                "}\n");
+
+        final ClassLoader loader = new URLClassLoader(new URL[]{ classes.toURI().toURL() }, getClass().getClassLoader());
+        final Thread thread = Thread.currentThread();
+        final ClassLoader old = thread.getContextClassLoader();
+        thread.setContextClassLoader(loader);
+        try {
+            final Class<?> type = loader.loadClass("test.Person");
+            final Object person = type.newInstance();
+            type.getField("name").set(person, "n");
+            type.getField("secret").set(person, "s");
+            assertEquals(read("{\"name\":\"n\"}"), read(new MapperBuilder().setUseGeneratedCodecs(true).build().writeObjectAsString(person)));
+        } finally {
+            thread.setContextClassLoader(old);
+        }
+    }
+
+    @Test
+    public void nullsAsWithReflection() throws Exception {
+        final File classes = compile("nullsAsWithReflection", true,
+                "package test;\n" +
+                "import java.util.List;\n" +
+                "@org.apache.johnzon.mapper.JohnzonCodec\n" +
+                "public class Person {\n" +
+                "    public String name = \"default\";\n" +
+                "    public Integer age = 1;\n" +
+                "    public List<String> tags;\n" +
+                "    public String[] aliases;\n" +
+                "}\n");
+
+        final ClassLoader loader = new URLClassLoader(new URL[]{ classes.toURI().toURL() }, getClass().getClassLoader());
+        final Thread thread = Thread.currentThread();
+        final ClassLoader old = thread.getContextClassLoader();
+        thread.setContextClassLoader(loader);
+        try {
+            final Class<?> type = loader.loadClass("test.Person");
+            final Mapper codecs = new MapperBuilder().setUseGeneratedCodecs(true).build();
+            final Mapper reflection = new MapperBuilder().build();
+
+            final Object person = codecs.readObject("{\"name\":null,\"age\":null}", type);
+            assertNull(type.getField("name").get(person));
+            assertNull(type.getField("age").get(person));
+
+            type.getField("tags").set(person, asList("a", null));
+            type.getField("aliases").set(person, new String[]{ "b", null });
+            final String json = reflection.writeObjectAsString(person);
+            assertEquals(read("{\"tags\":[\"a\"],\"aliases\":[\"b\"]}"), read(json));
+            assertEquals(read(json), read(codecs.writeObjectAsString(person)));
+        } finally {
+            thread.setContextClassLoader(old);
+        }
+    }
+
+    @Test
+    public void inheritedGenericMembers() throws Exception {
+        final File classes = compile("inheritedGenericMembers", true,
+                "package test;\n" +
+                "import java.util.List;\n" +
+                "class Base<T> {\n" +
+                "    public T value;\n" +
+                "    private List<T> items;\n" +
+                "    public List<T> getItems() { return items; }\n" +
+                "    public void setItems(final List<T> items) { this.items = items; }\n" +
+                "}\n" +
+                "@org.apache.johnzon.mapper.JohnzonCodec\n" +
+                "public class Person extends Base<String> {\n" +
+                "}\n");
+
+        final ClassLoader loader = new URLClassLoader(new URL[]{ classes.toURI().toURL() }, getClass().getClassLoader());
+        final Thread thread = Thread.currentThread();
+        final ClassLoader old = thread.getContextClassLoader();
+        thread.setContextClassLoader(loader);
+        try {
+            final Mapper mapper = new MapperBuilder().setUseGeneratedCodecs(true).build();
+            final String json = "{\"value\":\"v\",\"items\":[\"a\",\"b\"]}";
+            final Object person = mapper.readObject(json, loader.loadClass("test.Person"));
+            assertEquals(read(json), read(mapper.writeObjectAsString(person)));
+        } finally {
+            thread.setContextClassLoader(old);
+        }
+    }
+
+    @Test
+    public void noDefaultConstructor() throws Exception {
+        compile("noDefaultConstructor", false,
+                "package test;\n" +
+                "@org.apache.johnzon.mapper.JohnzonCodec\n" +
+                "public class Person {\n" +
+                "    public Person(final String name) {}\n" +
+                "}\n");
+    }
+
+    private File compile(final String name, final boolean success, final String source) throws IOException {
+        final File root = new File("target/CodecProcessorTest/" + name);
+        final File src = new File(root, "src/test/Person.java");
+        src.getParentFile().mkdirs();
+        final OutputStream out = new FileOutputStream(src);
+        try {
+            out.write(source.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+        final File classes = new File(root, "classes");
+        classes.mkdirs();
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        final StandardJavaFileManager manager = compiler.getStandardFileManager(diagnostics, null, null);
+        try {
+            final List<String> options = asList(
+                    "-classpath", System.getProperty("java.class.path"),
+                    "-processor", CodecProcessor.class.getName(),
+                    "-d", classes.getAbsolutePath());
+            final boolean compiled = compiler.getTask(null, manager, diagnostics, options, null, manager.getJavaFileObjects(src)).call();
+            if (success) {
+                assertTrue(diagnostics.getDiagnostics().toString(), compiled);
+            } else {
+                assertFalse(compiled);
+                boolean found = false;
+                for (final Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                    found |= diagnostic.getMessage(null).contains("no-arg constructor");
+                }
+                assertTrue(diagnostics.getDiagnostics().toString(), found);
+            }
+        } finally {
+            manager.close();
+        }
+        return classes;
+    }
+
+    private static JsonObject read(final String json) {
+        return Json.createReader(new StringReader(json)).readObject();
+    }
+}